@@ -0,0 +1,50 @@
+package com.college.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmark suite and writes the baseline report.
+ * <p>
+ * Every benchmark reports throughput and average time; the GC profiler adds
+ * the allocation rate ({@code gc.alloc.rate.norm} is bytes per operation). The
+ * results are written as JSON to {@code jmh-result.json}. Other JMH command
+ * line options may be passed, for example a benchmark name pattern to run a
+ * subset:
+ * </p>
+ *
+ * <pre>
+ * java -cp &lt;benchmark classpath&gt; com.college.benchmark.BenchmarkRunner PasswordUtil
+ * </pre>
+ * <p>
+ * The service benchmarks read the embedded backend, so the H2 driver must be
+ * on the benchmark classpath.
+ * </p>
+ */
+public final class BenchmarkRunner {
+
+	private static final String ALL_BENCHMARKS = "com\\.college\\..*Benchmark";
+	private static final String RESULT_FILE = "jmh-result.json";
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(RESULT_FILE);
+		if (commandLine.getIncludes().isEmpty()) {
+			options.include(ALL_BENCHMARKS);
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,157 @@
+package com.college.benchmark;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.Map;
+
+/**
+ * Minimal in-memory stand-ins for the servlet and JDBC objects the benchmarked
+ * code reads, built as dynamic proxies so the benchmarks need no container or
+ * database. Methods that are not modelled return null, false or zero.
+ */
+public final class Fakes {
+
+	private Fakes() {
+	}
+
+	/**
+	 * Creates a request.
+	 *
+	 * @param uri     the request URI
+	 * @param cookies the cookies sent with the request, may be null
+	 * @param session the session attributes, or null for no session
+	 * @return the fake request
+	 */
+	public static HttpServletRequest request(String uri, Cookie[] cookies, Map<String, Object> session) {
+		HttpSession httpSession = session == null ? null
+				: proxy(HttpSession.class, (method, args) -> "getAttribute".equals(method) ? session.get(args[0]) : null);
+		return proxy(HttpServletRequest.class, (method, args) -> {
+			switch (method) {
+			case "getRequestURI":
+				return uri;
+			case "getContextPath":
+				return "";
+			case "getCookies":
+				return cookies;
+			case "getSession":
+				return httpSession;
+			default:
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Creates a GET request that can be put into asynchronous mode.
+	 *
+	 * @param uri        the request URI
+	 * @param onComplete run when the request is completed or dispatched back to
+	 *                   the container
+	 * @return the fake request
+	 */
+	public static HttpServletRequest asyncRequest(String uri, Runnable onComplete) {
+		AsyncContext asyncContext = proxy(AsyncContext.class, (method, args) -> {
+			if ("complete".equals(method) || "dispatch".equals(method)) {
+				onComplete.run();
+			}
+			return null;
+		});
+		return proxy(HttpServletRequest.class, (method, args) -> {
+			switch (method) {
+			case "getMethod":
+				return "GET";
+			case "getRequestURI":
+				return uri;
+			case "getContextPath":
+				return "";
+			case "isAsyncSupported":
+				return true;
+			case "startAsync":
+				return asyncContext;
+			case "getDispatcherType":
+				return DispatcherType.REQUEST;
+			default:
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * @return a response that discards redirects and output
+	 */
+	public static HttpServletResponse response() {
+		return proxy(HttpServletResponse.class, (method, args) -> null);
+	}
+
+	/**
+	 * Creates a result set positioned on a single row.
+	 *
+	 * @param row the column values by column label
+	 * @return the fake result set
+	 */
+	public static ResultSet row(Map<String, Object> row) {
+		return proxy(ResultSet.class, (method, args) -> {
+			switch (method) {
+			case "getString":
+				return (String) row.get(args[0]);
+			case "getInt":
+				return ((Number) row.get(args[0])).intValue();
+			case "next":
+				return true;
+			default:
+				return null;
+			}
+		});
+	}
+
+	private interface Handler {
+		Object handle(String method, Object[] args);
+	}
+
+	private static <T> T proxy(Class<T> type, Handler handler) {
+		Object proxy = Proxy.newProxyInstance(Fakes.class.getClassLoader(), new Class<?>[] { type },
+				(self, method, args) -> {
+					Object value = handler.handle(method.getName(), args);
+					if (value == null && method.getReturnType().isPrimitive()) {
+						return defaultValue(method.getReturnType());
+					}
+					return value;
+				});
+		return type.cast(proxy);
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class) {
+			return false;
+		}
+		if (type == long.class) {
+			return 0L;
+		}
+		if (type == double.class) {
+			return 0.0;
+		}
+		if (type == float.class) {
+			return 0f;
+		}
+		if (type == short.class) {
+			return (short) 0;
+		}
+		if (type == byte.class) {
+			return (byte) 0;
+		}
+		if (type == char.class) {
+			return (char) 0;
+		}
+		if (type == void.class) {
+			return null;
+		}
+		return 0;
+	}
+}
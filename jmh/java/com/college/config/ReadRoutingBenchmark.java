@@ -0,0 +1,107 @@
+package com.college.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.college.model.StudentModel;
+import com.college.service.DashboardService;
+import com.college.service.ProgramCatalogue;
+
+/**
+ * Checks and measures read routing with replicas on the embedded backend.
+ * <p>
+ * The primary and two replicas are separate H2 databases seeded alike, and the
+ * replicas never receive the primary's writes. Setup deletes a student in one
+ * session and fails unless that session then counts one student fewer, read
+ * from the primary while pinned, and a fresh session still counts the old
+ * total, read from a replica. The benchmarks then time a count read from a
+ * replica and one pinned to the primary.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadRoutingBenchmark {
+
+	private static final String REPLICA_URL = "jdbc:h2:mem:replica%d;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+	private static final int SEED_STUDENTS = 100;
+
+	private DashboardService service;
+	private Long pin;
+
+	@Setup
+	public void setUp() {
+		System.setProperty("college.db.backend", "embedded");
+		System.setProperty("college.db.seedStudents", Integer.toString(SEED_STUDENTS));
+		System.setProperty("college.db.replicas", String.format(REPLICA_URL, 1) + "," + String.format(REPLICA_URL, 2));
+		System.setProperty("college.db.pinMillis", Long.toString(TimeUnit.MINUTES.toMillis(10)));
+		if (!ProgramCatalogue.getInstance().refresh()) {
+			throw new IllegalStateException("Could not load the program catalogue");
+		}
+		service = new DashboardService();
+
+		ReadConsistency.begin(null);
+		String before = service.getTotalStudents();
+		List<StudentModel> recent = service.getRecentStudents();
+		if (before == null || recent == null || recent.isEmpty()
+				|| !service.deleteStudent(recent.get(0).getId())) {
+			throw new IllegalStateException("Could not delete a student on the primary");
+		}
+		String pinnedTotal = service.getTotalStudents();
+		pin = ReadConsistency.end();
+
+		ReadConsistency.begin(null);
+		String otherTotal = service.getTotalStudents();
+		ReadConsistency.end();
+
+		long expected = Long.parseLong(before) - 1;
+		if (pin == null || pinnedTotal == null || Long.parseLong(pinnedTotal) != expected) {
+			throw new IllegalStateException(
+					"The writing session read " + pinnedTotal + " students, not " + expected + " from the primary");
+		}
+		if (!before.equals(otherTotal)) {
+			throw new IllegalStateException(
+					"Another session read " + otherTotal + " students, not " + before + " from a replica");
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		DbConfig.shutdown();
+	}
+
+	@Benchmark
+	public String readFromReplica() {
+		ReadConsistency.begin(null);
+		try {
+			return service.getTotalStudents();
+		} finally {
+			ReadConsistency.end();
+		}
+	}
+
+	@Benchmark
+	public String readPinnedToPrimary() {
+		ReadConsistency.begin(pin);
+		try {
+			return service.getTotalStudents();
+		} finally {
+			ReadConsistency.end();
+		}
+	}
+}
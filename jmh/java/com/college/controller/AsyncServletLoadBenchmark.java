@@ -0,0 +1,127 @@
+package com.college.controller;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.college.benchmark.Fakes;
+import com.college.config.RequestExecutor;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Load test comparing requests served on the container's threads with
+ * requests handed to {@link AsyncHttpServlet}.
+ * <p>
+ * Each benchmark thread is a client that sends one request at a time and waits
+ * for its response. The container is modelled as a fixed pool of request
+ * threads, and every request blocks for {@code workMillis}, standing in for
+ * JDBC or password hashing. In {@code blocking} mode the handler runs on the
+ * container thread. In {@code async} mode the container thread only starts
+ * the request, and the handler runs on the {@link RequestExecutor}.
+ * </p>
+ * <p>
+ * The score is requests per second. On a runtime without virtual threads the
+ * request executor is itself a pool of {@code -Dcollege.async.threads}
+ * platform threads (200 by default), which then bounds async throughput just
+ * as the container pool bounds blocking throughput. Run on Java 21 or later to
+ * see the virtual thread executor, for example with {@code -jvm}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(800)
+@Fork(1)
+public class AsyncServletLoadBenchmark {
+
+	@Param({ "blocking", "async" })
+	public String mode;
+
+	// Tomcat's default maxThreads is 200
+	@Param({ "50", "200" })
+	public int containerThreads;
+
+	@Param({ "10" })
+	public long workMillis;
+
+	private ExecutorService container;
+	private HttpServlet servlet;
+
+	@Setup
+	public void setUp() {
+		container = Executors.newFixedThreadPool(containerThreads);
+		servlet = "async".equals(mode) ? new AsyncHttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				handle(resp);
+			}
+		} : new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				handle(resp);
+			}
+		};
+	}
+
+	@TearDown
+	public void tearDown() {
+		container.shutdownNow();
+		RequestExecutor.shutdown();
+	}
+
+	@Benchmark
+	public void request() throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(1);
+		boolean async = "async".equals(mode);
+		HttpServletRequest request = Fakes.asyncRequest("/home", done::countDown);
+		HttpServletResponse response = Fakes.response();
+		container.execute(() -> {
+			try {
+				servlet.service(request, response);
+			} catch (ServletException | IOException e) {
+				throw new IllegalStateException(e);
+			} finally {
+				if (!async) {
+					done.countDown();
+				}
+			}
+		});
+		done.await();
+	}
+
+	private void handle(HttpServletResponse resp) throws IOException {
+		try {
+			Thread.sleep(workMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+		resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+	}
+}
@@ -0,0 +1,71 @@
+package com.college.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.college.benchmark.Fakes;
+
+/**
+ * Measures the routing decision of AuthenticationFilter for each role on a
+ * static resource, a page the role may see and a page it is redirected away
+ * from.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationFilterBenchmark {
+
+	@Param({ "admin", "user", "anonymous" })
+	public String role;
+
+	@Param({ "/css/dashboard.css", "/dashboard", "/home", "/login" })
+	public String uri;
+
+	private AuthenticationFilter filter;
+	private HttpServletRequest request;
+	private HttpServletResponse response;
+	private Blackhole blackhole;
+	private FilterChain chain;
+
+	@Setup
+	public void setUp(Blackhole blackhole) {
+		this.blackhole = blackhole;
+		boolean loggedIn = !"anonymous".equals(role);
+		Cookie[] cookies = loggedIn ? new Cookie[] { new Cookie("role", role) } : null;
+		Map<String, Object> session = loggedIn ? Collections.singletonMap("username", "jsharma") : null;
+
+		filter = new AuthenticationFilter();
+		request = Fakes.request(uri, cookies, session);
+		response = Fakes.response();
+		chain = (req, res) -> this.blackhole.consume(req);
+	}
+
+	@Benchmark
+	public void route() throws IOException, ServletException {
+		filter.doFilter(request, response, chain);
+	}
+}
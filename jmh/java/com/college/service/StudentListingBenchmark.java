@@ -0,0 +1,96 @@
+package com.college.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.college.config.DbConfig;
+import com.college.model.ProgramModel;
+import com.college.model.StudentModel;
+
+/**
+ * Compares loading the whole student listing with one program query per
+ * student, as {@code getAllStudentsInfo} did before, against the single JOIN
+ * it runs now, at several table sizes.
+ * <p>
+ * Both read the embedded backend, seeded with the given number of generated
+ * students. Its queries never leave the JVM, so the per-query cost measured
+ * here is a lower bound: against MySQL every extra query also pays a network
+ * round trip, which widens the gap.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentListingBenchmark {
+
+	@Param({ "100", "1000", "10000", "100000" })
+	public int students;
+
+	private DashboardService service;
+
+	@Setup
+	public void setUp() {
+		System.setProperty("college.db.backend", "embedded");
+		System.setProperty("college.db.seedStudents", Integer.toString(students));
+		if (!ProgramCatalogue.getInstance().refresh()) {
+			throw new IllegalStateException("Could not load the program catalogue");
+		}
+		service = new DashboardService();
+	}
+
+	@Benchmark
+	public List<StudentModel> join() {
+		return service.getAllStudentsInfo();
+	}
+
+	/**
+	 * The listing as it was read before the JOIN: the students, then one
+	 * program lookup per student on the same connection.
+	 */
+	@Benchmark
+	public List<StudentModel> queryPerStudent() throws SQLException {
+		String query = "SELECT student_id, first_name, last_name, program_id, email, number FROM student";
+		String programQuery = "SELECT program_id, name FROM program WHERE program_id = ?";
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(query);
+				ResultSet result = stmt.executeQuery()) {
+			List<StudentModel> studentList = new ArrayList<>();
+			while (result.next()) {
+				try (PreparedStatement programStmt = dbConn.prepareStatement(programQuery)) {
+					programStmt.setInt(1, result.getInt("program_id"));
+					try (ResultSet programResult = programStmt.executeQuery()) {
+						ProgramModel programModel = new ProgramModel();
+						if (programResult.next()) {
+							programModel.setName(programResult.getString("name"));
+							programModel.setProgramId(programResult.getInt("program_id"));
+						}
+						studentList.add(new StudentModel(result.getInt("student_id"), result.getString("first_name"),
+								result.getString("last_name"), programModel, result.getString("email"),
+								result.getString("number")));
+					}
+				}
+			}
+			return studentList;
+		}
+	}
+}
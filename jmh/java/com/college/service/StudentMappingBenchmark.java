@@ -0,0 +1,71 @@
+package com.college.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.college.benchmark.Fakes;
+import com.college.model.StudentModel;
+
+/**
+ * Measures mapping one row of a student listing query to a StudentModel, for a
+ * program found in the catalogue and for one that falls back to the joined
+ * program name.
+ * <p>
+ * The catalogue is loaded from the seeded programs of the embedded backend.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentMappingBenchmark {
+
+	@Param({ "1", "999" })
+	public int programId;
+
+	private DashboardService service;
+	private ResultSet row;
+
+	@Setup
+	public void setUp() {
+		System.setProperty("college.db.backend", "embedded");
+		System.setProperty("college.db.seedStudents", "0");
+		if (!ProgramCatalogue.getInstance().refresh()) {
+			throw new IllegalStateException("Could not load the program catalogue");
+		}
+
+		Map<String, Object> columns = new HashMap<>();
+		columns.put("student_id", 42);
+		columns.put("first_name", "John");
+		columns.put("last_name", "Sharma");
+		columns.put("email", "john.sharma@example.com");
+		columns.put("number", "9841234567");
+		columns.put("program_id", programId);
+		columns.put("program_name", "Computing");
+
+		service = new DashboardService();
+		row = Fakes.row(columns);
+	}
+
+	@Benchmark
+	public StudentModel mapStudentSummary() throws SQLException {
+		return service.mapStudentSummary(row);
+	}
+}
@@ -0,0 +1,86 @@
+package com.college.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.college.model.StudentModel;
+import com.college.model.StudentSearchResultModel;
+
+/**
+ * Measures searching the student index for the first page of results and for
+ * type-ahead suggestions, at several table sizes.
+ * <p>
+ * The index is built from the generated students of the embedded backend,
+ * which share a dozen first names and ten last names, so name queries match a
+ * large share of the table. The queries cover a common name, two common names,
+ * a short prefix, a username and a phone number. Building 500k students takes
+ * a few gigabytes of heap; pass for example {@code -jvmArgs -Xmx4g}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentSearchBenchmark {
+
+	private static final int PAGE_SIZE = 20;
+	private static final int SUGGESTION_COUNT = 8;
+	private static final long BUILD_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	@Param({ "50000", "500000" })
+	public int students;
+
+	@Param({ "sharma", "aarav sharma", "ka", "student4242", "9800012" })
+	public String query;
+
+	private StudentSearchIndex index;
+
+	@Setup
+	public void setUp() throws InterruptedException {
+		System.setProperty("college.db.backend", "embedded");
+		System.setProperty("college.db.seedStudents", Integer.toString(students));
+		if (!ProgramCatalogue.getInstance().refresh()) {
+			throw new IllegalStateException("Could not load the program catalogue");
+		}
+
+		index = StudentSearchIndex.getInstance();
+		index.start();
+		long deadline = System.currentTimeMillis() + BUILD_TIMEOUT_MILLIS;
+		while (!index.isReady()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new IllegalStateException("The student search index was not built in time");
+			}
+			Thread.sleep(100);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		index.stop();
+	}
+
+	@Benchmark
+	public StudentSearchResultModel searchFirstPage() {
+		return index.search(query, 1, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<StudentModel> suggest() {
+		return index.suggest(query, SUGGESTION_COUNT);
+	}
+}
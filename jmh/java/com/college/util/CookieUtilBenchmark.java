@@ -0,0 +1,59 @@
+package com.college.util;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.college.benchmark.Fakes;
+
+/**
+ * Measures cookie lookup by name on requests carrying a varying number of
+ * cookies, for a cookie that is present and one that is not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CookieUtilBenchmark {
+
+	@Param({ "1", "5", "20" })
+	public int cookieCount;
+
+	private HttpServletRequest request;
+
+	@Setup
+	public void setUp() {
+		Cookie[] cookies = new Cookie[cookieCount];
+		for (int i = 0; i < cookieCount - 1; i++) {
+			cookies[i] = new Cookie("tracking" + i, "value" + i);
+		}
+		// The cookie the filter looks for is sent last
+		cookies[cookieCount - 1] = new Cookie("role", "admin");
+		request = Fakes.request("/dashboard", cookies, null);
+	}
+
+	@Benchmark
+	public Cookie getPresentCookie() {
+		return CookieUtil.getCookie(request, "role");
+	}
+
+	@Benchmark
+	public Cookie getMissingCookie() {
+		return CookieUtil.getCookie(request, "theme");
+	}
+}
@@ -0,0 +1,145 @@
+package com.college.util;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares creating the JCA objects of the password code on every call with
+ * reusing them through {@link CryptoProvider}. The encrypt and decrypt pairs
+ * follow {@link PasswordUtil#encrypt(String, String)} and
+ * {@link PasswordUtil#decrypt(String, String)} before and after the change,
+ * with the key derivation left out, as it costs the same either way and would
+ * hide the difference; {@link PasswordUtilBenchmark} measures the whole calls.
+ * Run with the GC profiler to see the allocation per operation.
+ * <p>
+ * New passwords are hashed, so {@code encrypt} is only reached from the
+ * benchmarks, and {@code decrypt} only for legacy entries until their owners
+ * next log in.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoProviderBenchmark {
+
+	private static final int IV_LENGTH = 12;
+	private static final int SALT_LENGTH = 16;
+	private static final int HEADER_LENGTH = IV_LENGTH + SALT_LENGTH;
+	private static final int NONCE_LENGTH = HEADER_LENGTH;
+	private static final int TAG_LENGTH_BIT = 128;
+	private static final byte[] PLAIN_TEXT = "Secret@123".getBytes();
+
+	private SecretKey key;
+	private byte[] encrypted;
+
+	@Setup
+	public void setUp() throws GeneralSecurityException {
+		key = new SecretKeySpec(CryptoProvider.randomBytes(32), "AES");
+		encrypted = encryptReusedCipher();
+	}
+
+	@Benchmark
+	public byte[] nonceNewSecureRandom() {
+		byte[] nonce = new byte[NONCE_LENGTH];
+		new SecureRandom().nextBytes(nonce);
+		return nonce;
+	}
+
+	@Benchmark
+	public byte[] nonceShared() {
+		return CryptoProvider.randomBytes(NONCE_LENGTH);
+	}
+
+	@Benchmark
+	public SecretKeyFactory keyFactoryLookup() throws GeneralSecurityException {
+		return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+	}
+
+	@Benchmark
+	public SecretKeyFactory keyFactoryReused() {
+		return CryptoProvider.pbkdf2();
+	}
+
+	/**
+	 * Encryption as {@code encrypt} did it before: a new SecureRandom for each
+	 * of the salt and IV, a new Cipher, and the parts joined through a
+	 * ByteBuffer.
+	 */
+	@Benchmark
+	public byte[] encryptNewCipher() throws GeneralSecurityException {
+		byte[] salt = new byte[SALT_LENGTH];
+		new SecureRandom().nextBytes(salt);
+		byte[] iv = new byte[IV_LENGTH];
+		new SecureRandom().nextBytes(iv);
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
+		byte[] cipherText = cipher.doFinal(PLAIN_TEXT);
+		return ByteBuffer.allocate(iv.length + salt.length + cipherText.length).put(iv).put(salt).put(cipherText)
+				.array();
+	}
+
+	/**
+	 * Encryption as {@code encrypt} does it now: IV and salt drawn straight into
+	 * the output, which the cipher text then fills in place.
+	 */
+	@Benchmark
+	public byte[] encryptReusedCipher() throws GeneralSecurityException {
+		byte[] out = new byte[HEADER_LENGTH + PLAIN_TEXT.length + TAG_LENGTH_BIT / 8];
+		CryptoProvider.nextBytes(out);
+		Cipher cipher = CryptoProvider.aesGcm();
+		cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BIT, out, 0, IV_LENGTH));
+		cipher.doFinal(PLAIN_TEXT, 0, PLAIN_TEXT.length, out, HEADER_LENGTH);
+		return out;
+	}
+
+	/**
+	 * Decryption as {@code decrypt} did it before: IV, salt and cipher text
+	 * copied out through a ByteBuffer, and a new Cipher.
+	 */
+	@Benchmark
+	public byte[] decryptNewCipher() throws GeneralSecurityException {
+		ByteBuffer bb = ByteBuffer.wrap(encrypted);
+		byte[] iv = new byte[IV_LENGTH];
+		bb.get(iv);
+		byte[] salt = new byte[SALT_LENGTH];
+		bb.get(salt);
+		byte[] cipherText = new byte[bb.remaining()];
+		bb.get(cipherText);
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
+		return cipher.doFinal(cipherText);
+	}
+
+	/**
+	 * Decryption as {@code decrypt} does it now, reading IV and cipher text in
+	 * place.
+	 */
+	@Benchmark
+	public byte[] decryptReusedCipher() throws GeneralSecurityException {
+		Cipher cipher = CryptoProvider.aesGcm();
+		cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BIT, encrypted, 0, IV_LENGTH));
+		return cipher.doFinal(encrypted, HEADER_LENGTH, encrypted.length - HEADER_LENGTH);
+	}
+}
@@ -0,0 +1,64 @@
+package com.college.util;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the validation of one whole form submission with the shared rule
+ * sets, once with valid and once with invalid values. Run with {@code -prof gc}
+ * to see the allocation per submission.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormValidationBenchmark {
+
+	@Param({ "valid", "invalid" })
+	public String input;
+
+	private Map<String, String> form;
+
+	@Setup
+	public void setUp() {
+		boolean valid = "valid".equals(input);
+		form = new HashMap<>();
+		form.put("firstName", "John");
+		form.put("lastName", valid ? "Sharma" : "");
+		form.put("username", valid ? "jsharma1" : "1jsharma");
+		form.put("dob", valid ? "2000-05-17" : LocalDate.now().minusYears(10).toString());
+		form.put("gender", valid ? "female" : "other");
+		form.put("email", valid ? "john.sharma@example.com" : "john.sharma@example");
+		form.put("phoneNumber", valid ? "9841234567" : "0141234567");
+		form.put("subject", "Computing");
+		form.put("password", valid ? "Secret@123" : "secret123");
+		form.put("retypePassword", valid ? "Secret@123" : "Secret@124");
+		form.put(FormRules.IMAGE, valid ? "photo.jpg" : "photo.exe");
+	}
+
+	@Benchmark
+	public ValidationResult registration() {
+		return FormRules.REGISTRATION.validate(form::get);
+	}
+
+	@Benchmark
+	public ValidationResult studentUpdate() {
+		return FormRules.STUDENT_UPDATE.validate(form::get);
+	}
+}
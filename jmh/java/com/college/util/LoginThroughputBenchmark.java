@@ -0,0 +1,51 @@
+package com.college.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many password checks per second the machine sustains with all
+ * cores busy, for the legacy encrypted entries and for hashes at several
+ * iteration counts. Use it to pick {@code college.password.iterations} for a
+ * deployment: the score is roughly the login rate the CPU can absorb.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(Threads.MAX)
+@Fork(1)
+public class LoginThroughputBenchmark {
+
+	private static final String USERNAME = "jsharma";
+	private static final String PASSWORD = "Secret@123";
+
+	@Param({ "legacy", "100000", "310000", "600000" })
+	public String cost;
+
+	private String stored;
+
+	@Setup
+	public void setUp() {
+		stored = "legacy".equals(cost) ? PasswordUtil.encrypt(USERNAME, PASSWORD)
+				: PasswordUtil.hash(PASSWORD, Integer.parseInt(cost));
+	}
+
+	@Benchmark
+	public boolean verify() {
+		return PasswordUtil.verify(PASSWORD, stored, USERNAME);
+	}
+}
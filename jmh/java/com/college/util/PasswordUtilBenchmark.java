@@ -0,0 +1,47 @@
+package com.college.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures password encryption and decryption, both dominated by the PBKDF2
+ * key derivation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordUtilBenchmark {
+
+	private static final String USERNAME = "jsharma";
+	private static final String PASSWORD = "Secret@123";
+
+	private String encrypted;
+
+	@Setup
+	public void setUp() {
+		encrypted = PasswordUtil.encrypt(USERNAME, PASSWORD);
+	}
+
+	@Benchmark
+	public String encrypt() {
+		return PasswordUtil.encrypt(USERNAME, PASSWORD);
+	}
+
+	@Benchmark
+	public String decrypt() {
+		return PasswordUtil.decrypt(encrypted, USERNAME);
+	}
+}
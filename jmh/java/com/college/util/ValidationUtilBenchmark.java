@@ -0,0 +1,111 @@
+package com.college.util;
+
+import jakarta.servlet.http.Part;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures every ValidationUtil check on the input a registration submits,
+ * once with valid and once with invalid values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationUtilBenchmark {
+
+	@Param({ "valid", "invalid" })
+	public String input;
+
+	private String name;
+	private String username;
+	private String gender;
+	private String email;
+	private String number;
+	private String password;
+	private String retypePassword;
+	private LocalDate dob;
+	private Part image;
+
+	@Setup
+	public void setUp() {
+		boolean valid = "valid".equals(input);
+		name = valid ? "Sharma" : "Sharma2";
+		username = valid ? "jsharma1" : "1jsharma";
+		gender = valid ? "female" : "other";
+		email = valid ? "john.sharma@example.com" : "john.sharma@example";
+		number = valid ? "9841234567" : "0141234567";
+		password = valid ? "Secret@123" : "secret123";
+		retypePassword = valid ? password : "Secret@124";
+		dob = valid ? LocalDate.of(2000, 5, 17) : LocalDate.now().minusYears(10);
+		String fileName = valid ? "photo.jpg" : "photo.exe";
+		image = (Part) Proxy.newProxyInstance(Part.class.getClassLoader(), new Class<?>[] { Part.class },
+				(proxy, method, args) -> "getSubmittedFileName".equals(method.getName()) ? fileName : null);
+	}
+
+	@Benchmark
+	public boolean isNullOrEmpty() {
+		return ValidationUtil.isNullOrEmpty(name);
+	}
+
+	@Benchmark
+	public boolean isAlphabetic() {
+		return ValidationUtil.isAlphabetic(name);
+	}
+
+	@Benchmark
+	public boolean isAlphanumericStartingWithLetter() {
+		return ValidationUtil.isAlphanumericStartingWithLetter(username);
+	}
+
+	@Benchmark
+	public boolean isValidGender() {
+		return ValidationUtil.isValidGender(gender);
+	}
+
+	@Benchmark
+	public boolean isValidEmail() {
+		return ValidationUtil.isValidEmail(email);
+	}
+
+	@Benchmark
+	public boolean isValidPhoneNumber() {
+		return ValidationUtil.isValidPhoneNumber(number);
+	}
+
+	@Benchmark
+	public boolean isValidPassword() {
+		return ValidationUtil.isValidPassword(password);
+	}
+
+	@Benchmark
+	public boolean isValidImageExtension() {
+		return ValidationUtil.isValidImageExtension(image);
+	}
+
+	@Benchmark
+	public boolean doPasswordsMatch() {
+		return ValidationUtil.doPasswordsMatch(password, retypePassword);
+	}
+
+	@Benchmark
+	public boolean isAgeAtLeast16() {
+		return ValidationUtil.isAgeAtLeast16(dob);
+	}
+}
@@ -0,0 +1,63 @@
+package com.college.config;
+
+import com.college.service.AccountAvailability;
+import com.college.service.LoginThrottle;
+import com.college.service.PhotoSweeper;
+import com.college.service.ProgramCatalogue;
+import com.college.service.StudentImportService;
+import com.college.service.StudentSearchIndex;
+import com.college.util.ImagePipeline;
+import com.college.util.PhotoStore;
+import com.college.util.UploadSessions;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+/**
+ * AppContextListener manages application-wide resources for the lifetime of the
+ * web application, such as the database connection pool, the request and
+ * crypto executors, the program catalogue, the student search index, the
+ * account availability filter, the login throttle, the photo store, the photo
+ * sweep and the image pipeline.
+ */
+@WebListener
+public class AppContextListener implements ServletContextListener {
+
+	/**
+	 * Warms up application-wide caches when the application starts.
+	 *
+	 * @param sce the servlet context event
+	 */
+	@Override
+	public void contextInitialized(ServletContextEvent sce) {
+		ProgramCatalogue.getInstance().start();
+		StudentSearchIndex.getInstance().start();
+		AccountAvailability.getInstance().start();
+		LoginThrottle.getInstance().start();
+		PhotoStore.getInstance().start(sce.getServletContext().getRealPath("/resources/images"));
+		ImagePipeline.getInstance().start();
+		PhotoSweeper.getInstance().start();
+		UploadSessions.getInstance().start();
+	}
+
+	/**
+	 * Releases application-wide resources when the application is undeployed.
+	 *
+	 * @param sce the servlet context event
+	 */
+	@Override
+	public void contextDestroyed(ServletContextEvent sce) {
+		UploadSessions.getInstance().stop();
+		PhotoSweeper.getInstance().stop();
+		ImagePipeline.getInstance().stop();
+		LoginThrottle.getInstance().stop();
+		AccountAvailability.getInstance().stop();
+		RequestExecutor.shutdown();
+		CryptoExecutor.shutdown();
+		StudentImportService.shutdown();
+		StudentSearchIndex.getInstance().stop();
+		ProgramCatalogue.getInstance().stop();
+		DbConfig.shutdown();
+	}
+}
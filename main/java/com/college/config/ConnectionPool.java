@@ -0,0 +1,660 @@
+package com.college.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ConnectionPool is a small bounded JDBC connection pool used behind
+ * {@link DbConfig}.
+ * <p>
+ * Connections are handed out as proxies whose {@code close()} returns the
+ * physical connection to the pool instead of closing it, so callers simply use
+ * try-with-resources around each database operation. The pool keeps at least
+ * {@code minSize} connections open, never opens more than {@code maxSize},
+ * validates idle connections before handing them out, evicts connections that
+ * stay idle for too long and logs connections that are held longer than the
+ * leak threshold.
+ * </p>
+ * <p>
+ * Each physical connection also keeps an LRU cache of prepared statements.
+ * Statements prepared with the same SQL text on the same connection are reused
+ * instead of being parsed and planned again; closing a cached statement only
+ * resets it and hands it back to the cache.
+ * </p>
+ */
+public class ConnectionPool {
+
+	private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+	// Seconds to wait for Connection.isValid during validation on borrow
+	private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+	private final String name;
+	private final String url;
+	private final Properties connectionProperties;
+	private final int minSize;
+	private final int maxSize;
+	private final long borrowTimeoutMillis;
+	private final long idleTimeoutMillis;
+	private final long leakThresholdMillis;
+	private final int statementCacheSize;
+
+	// Idle connections, most recently returned first
+	private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+	private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+	// One permit per connection that may be handed out
+	private final Semaphore permits;
+	private final ScheduledExecutorService housekeeper;
+
+	private final AtomicInteger totalConnections = new AtomicInteger();
+	private final AtomicLong createdCount = new AtomicLong();
+	private final AtomicLong destroyedCount = new AtomicLong();
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong timeoutCount = new AtomicLong();
+	private final AtomicLong leakCount = new AtomicLong();
+	private final AtomicLong statementHits = new AtomicLong();
+	private final AtomicLong statementMisses = new AtomicLong();
+	private final AtomicLong statementEvictions = new AtomicLong();
+
+	private volatile boolean shutdown = false;
+
+	/**
+	 * Creates the pool and opens the minimum number of connections.
+	 *
+	 * @param name                 name used in log messages and stats
+	 * @param url                  JDBC url of the database
+	 * @param connectionProperties driver properties, including user and password
+	 * @param minSize              connections kept open even when idle
+	 * @param maxSize              maximum number of open connections
+	 * @param borrowTimeoutMillis  how long a borrower waits for a free connection
+	 * @param idleTimeoutMillis    idle time after which surplus connections are
+	 *                             closed
+	 * @param leakThresholdMillis  time a connection may be held before it is
+	 *                             reported as leaked; 0 disables leak detection
+	 * @param statementCacheSize   prepared statements cached per connection; 0
+	 *                             disables the cache
+	 */
+	public ConnectionPool(String name, String url, Properties connectionProperties, int minSize, int maxSize,
+			long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis, int statementCacheSize) {
+		if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+			throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+		}
+		this.name = name;
+		this.url = url;
+		this.connectionProperties = connectionProperties;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.borrowTimeoutMillis = borrowTimeoutMillis;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.leakThresholdMillis = leakThresholdMillis;
+		this.statementCacheSize = statementCacheSize;
+		this.permits = new Semaphore(maxSize, true);
+
+		this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, name + "-housekeeper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1000, Math.min(idleTimeoutMillis, 30_000) / 2);
+		housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+
+		fillToMinimum();
+	}
+
+	/**
+	 * Borrows a connection from the pool. Closing the returned connection hands
+	 * it back to the pool.
+	 *
+	 * @return a validated connection
+	 * @throws SQLException if no connection becomes available within the borrow
+	 *                      timeout or a new connection cannot be opened
+	 */
+	public Connection getConnection() throws SQLException {
+		if (shutdown) {
+			throw new SQLException("Connection pool " + name + " is shut down");
+		}
+
+		try {
+			if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				timeoutCount.incrementAndGet();
+				throw new SQLTransientConnectionException("Timed out after " + borrowTimeoutMillis
+						+ "ms waiting for a connection from pool " + name + " " + getStats());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+		}
+
+		try {
+			PooledConnection pooled = takeIdleOrCreate();
+			pooled.borrowedAt = System.currentTimeMillis();
+			pooled.borrowSite = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+			pooled.leakReported = false;
+			borrowed.add(pooled);
+			borrowCount.incrementAndGet();
+			return pooled.lease();
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the pool counters.
+	 *
+	 * @return current pool statistics
+	 */
+	public Stats getStats() {
+		return new Stats(name, totalConnections.get(), idle.size(), borrowed.size(), permits.getQueueLength(),
+				maxSize, createdCount.get(), destroyedCount.get(), borrowCount.get(), timeoutCount.get(),
+				leakCount.get(), statementHits.get(), statementMisses.get(), statementEvictions.get());
+	}
+
+	/**
+	 * Returns the number of connections in use plus the number of threads
+	 * waiting for one, without building a full {@link Stats} snapshot. Used to
+	 * balance reads across several pools.
+	 *
+	 * @return the current load of the pool
+	 */
+	public int getLoad() {
+		return borrowed.size() + permits.getQueueLength();
+	}
+
+	/**
+	 * Closes every idle connection and stops the housekeeping thread. Borrowed
+	 * connections are closed when they are returned.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		housekeeper.shutdownNow();
+		PooledConnection pooled;
+		while ((pooled = idle.pollFirst()) != null) {
+			destroy(pooled);
+		}
+	}
+
+	private PooledConnection takeIdleOrCreate() throws SQLException {
+		PooledConnection pooled;
+		while ((pooled = idle.pollFirst()) != null) {
+			if (isUsable(pooled.connection)) {
+				return pooled;
+			}
+			destroy(pooled);
+		}
+		return create();
+	}
+
+	private PooledConnection create() throws SQLException {
+		Connection connection = DriverManager.getConnection(url, connectionProperties);
+		totalConnections.incrementAndGet();
+		createdCount.incrementAndGet();
+		return new PooledConnection(connection);
+	}
+
+	private void destroy(PooledConnection pooled) {
+		totalConnections.decrementAndGet();
+		destroyedCount.incrementAndGet();
+		try {
+			pooled.connection.close();
+		} catch (SQLException e) {
+			LOGGER.log(Level.FINE, "Error closing pooled connection", e);
+		}
+	}
+
+	private boolean isUsable(Connection connection) {
+		try {
+			return !connection.isClosed() && connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Puts a connection back into the pool once its lease is closed.
+	 */
+	private void release(PooledConnection pooled) {
+		borrowed.remove(pooled);
+		pooled.borrowSite = null;
+		// Statements the borrower forgot to close go back to the cache
+		pooled.returnAllStatements();
+		try {
+			if (shutdown || pooled.connection.isClosed()) {
+				destroy(pooled);
+				return;
+			}
+			// Do not let one borrower's transaction state leak into the next one
+			if (!pooled.connection.getAutoCommit()) {
+				pooled.connection.rollback();
+				pooled.connection.setAutoCommit(true);
+			}
+			if (pooled.connection.isReadOnly()) {
+				pooled.connection.setReadOnly(false);
+			}
+			pooled.lastUsed = System.currentTimeMillis();
+			idle.offerFirst(pooled);
+		} catch (SQLException e) {
+			destroy(pooled);
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Periodic maintenance: evicts surplus idle connections, tops the pool back
+	 * up to its minimum size and reports connections held past the leak
+	 * threshold.
+	 */
+	private void housekeep() {
+		try {
+			long now = System.currentTimeMillis();
+
+			// Oldest idle connections sit at the tail of the deque
+			Iterator<PooledConnection> iterator = idle.descendingIterator();
+			while (iterator.hasNext() && totalConnections.get() > minSize) {
+				PooledConnection pooled = iterator.next();
+				if (now - pooled.lastUsed > idleTimeoutMillis && idle.remove(pooled)) {
+					destroy(pooled);
+				}
+			}
+
+			fillToMinimum();
+
+			if (leakThresholdMillis > 0) {
+				for (PooledConnection pooled : borrowed) {
+					Throwable site = pooled.borrowSite;
+					if (!pooled.leakReported && site != null && now - pooled.borrowedAt > leakThresholdMillis) {
+						pooled.leakReported = true;
+						leakCount.incrementAndGet();
+						LOGGER.log(Level.WARNING, "Possible connection leak in pool " + name + ": connection held for "
+								+ (now - pooled.borrowedAt) + "ms", site);
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Connection pool housekeeping failed", e);
+		}
+	}
+
+	private void fillToMinimum() {
+		while (!shutdown && totalConnections.get() < minSize) {
+			if (!permits.tryAcquire()) {
+				return;
+			}
+			try {
+				PooledConnection pooled = create();
+				pooled.lastUsed = System.currentTimeMillis();
+				idle.offerLast(pooled);
+			} catch (SQLException e) {
+				LOGGER.log(Level.WARNING, "Could not open connection for pool " + name, e);
+				return;
+			} finally {
+				permits.release();
+			}
+		}
+	}
+
+	/**
+	 * A physical connection together with its bookkeeping.
+	 */
+	private final class PooledConnection {
+		private final Connection connection;
+		private volatile long lastUsed;
+		private volatile long borrowedAt;
+		private volatile Throwable borrowSite;
+		private volatile boolean leakReported;
+
+		// Prepared statements keyed by SQL text, least recently used first
+		private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<String, CachedStatement>(
+				16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+				if (size() <= statementCacheSize) {
+					return false;
+				}
+				statementEvictions.incrementAndGet();
+				eldest.getValue().evict();
+				return true;
+			}
+		};
+
+		private PooledConnection(Connection connection) {
+			this.connection = connection;
+		}
+
+		/**
+		 * Wraps the physical connection in a proxy valid for a single borrow.
+		 */
+		private Connection lease() {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, new LeaseHandler(this));
+		}
+
+		/**
+		 * Returns a cached prepared statement for the SQL text, preparing and
+		 * caching it on a miss. If the cached statement is already in use by
+		 * this borrower an uncached statement is returned instead.
+		 */
+		private PreparedStatement prepareCached(String sql, Connection lease) throws SQLException {
+			synchronized (statements) {
+				CachedStatement cached = statements.get(sql);
+				if (cached != null && !cached.inUse) {
+					statementHits.incrementAndGet();
+					cached.checkOut(lease);
+					return cached.proxy;
+				}
+				statementMisses.incrementAndGet();
+				if (cached != null) {
+					return connection.prepareStatement(sql);
+				}
+				cached = new CachedStatement(connection.prepareStatement(sql));
+				cached.checkOut(lease);
+				statements.put(sql, cached);
+				return cached.proxy;
+			}
+		}
+
+		private void returnAllStatements() {
+			synchronized (statements) {
+				for (CachedStatement cached : statements.values()) {
+					if (cached.inUse) {
+						cached.checkIn();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * A prepared statement kept open in a connection's statement cache.
+	 */
+	private final class CachedStatement implements InvocationHandler {
+		private final PreparedStatement statement;
+		private final PreparedStatement proxy;
+		private Connection lease;
+		private ResultSet lastResult;
+		private boolean inUse;
+		private boolean evicted;
+		private boolean fetchSizeChanged;
+
+		private CachedStatement(PreparedStatement statement) {
+			this.statement = statement;
+			this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, this);
+		}
+
+		private void checkOut(Connection lease) {
+			this.lease = lease;
+			this.inUse = true;
+		}
+
+		/**
+		 * Resets the statement so the next borrower sees a fresh one.
+		 */
+		private void checkIn() {
+			inUse = false;
+			lease = null;
+			try {
+				if (lastResult != null) {
+					lastResult.close();
+					lastResult = null;
+				}
+				statement.clearParameters();
+				// A batch left by a failed executeBatch must not run for the next borrower
+				statement.clearBatch();
+				if (fetchSizeChanged) {
+					statement.setFetchSize(0);
+					fetchSizeChanged = false;
+				}
+			} catch (SQLException e) {
+				evicted = true;
+			}
+			if (evicted) {
+				closeQuietly();
+			}
+		}
+
+		/**
+		 * Removes the statement from the cache, closing it now or once its
+		 * current user is done with it.
+		 */
+		private void evict() {
+			evicted = true;
+			if (!inUse) {
+				closeQuietly();
+			}
+		}
+
+		private void closeQuietly() {
+			try {
+				statement.close();
+			} catch (SQLException e) {
+				LOGGER.log(Level.FINE, "Error closing cached statement", e);
+			}
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "close":
+				if (inUse) {
+					checkIn();
+				}
+				return null;
+			case "isClosed":
+				return !inUse || statement.isClosed();
+			case "getConnection":
+				return lease;
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Cached[" + statement + "]";
+			default:
+				if (!inUse) {
+					throw new SQLException("Statement is closed");
+				}
+				if ("setFetchSize".equals(method.getName())) {
+					fetchSizeChanged = true;
+				}
+				try {
+					Object result = method.invoke(statement, args);
+					if (result instanceof ResultSet) {
+						lastResult = (ResultSet) result;
+					}
+					return result;
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Routes calls to the physical connection until the lease is closed.
+	 */
+	private final class LeaseHandler implements InvocationHandler {
+		private final PooledConnection pooled;
+		private boolean closed = false;
+
+		private LeaseHandler(PooledConnection pooled) {
+			this.pooled = pooled;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "close":
+				if (!closed) {
+					closed = true;
+					release(pooled);
+				}
+				return null;
+			case "isClosed":
+				return closed || pooled.connection.isClosed();
+			case "prepareStatement":
+				if (!closed && statementCacheSize > 0 && isCacheable(args)) {
+					return pooled.prepareCached((String) args[0], (Connection) proxy);
+				}
+				break;
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Pooled[" + pooled.connection + "]";
+			default:
+				break;
+			}
+
+			if (closed) {
+				throw new SQLException("Connection has already been returned to the pool");
+			}
+			try {
+				return method.invoke(pooled.connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		/**
+		 * Only plain forward-only, read-only statements are cached.
+		 */
+		private boolean isCacheable(Object[] args) {
+			if (args.length == 1) {
+				return true;
+			}
+			return args.length == 3 && (Integer) args[1] == ResultSet.TYPE_FORWARD_ONLY
+					&& (Integer) args[2] == ResultSet.CONCUR_READ_ONLY;
+		}
+	}
+
+	/**
+	 * Immutable snapshot of pool counters.
+	 */
+	public static final class Stats {
+		private final String name;
+		private final int total;
+		private final int idle;
+		private final int active;
+		private final int waiting;
+		private final int maxSize;
+		private final long created;
+		private final long destroyed;
+		private final long borrows;
+		private final long timeouts;
+		private final long leaks;
+		private final long statementHits;
+		private final long statementMisses;
+		private final long statementEvictions;
+
+		private Stats(String name, int total, int idle, int active, int waiting, int maxSize, long created,
+				long destroyed, long borrows, long timeouts, long leaks, long statementHits, long statementMisses,
+				long statementEvictions) {
+			this.name = name;
+			this.total = total;
+			this.idle = idle;
+			this.active = active;
+			this.waiting = waiting;
+			this.maxSize = maxSize;
+			this.created = created;
+			this.destroyed = destroyed;
+			this.borrows = borrows;
+			this.timeouts = timeouts;
+			this.leaks = leaks;
+			this.statementHits = statementHits;
+			this.statementMisses = statementMisses;
+			this.statementEvictions = statementEvictions;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getTotal() {
+			return total;
+		}
+
+		public int getIdle() {
+			return idle;
+		}
+
+		public int getActive() {
+			return active;
+		}
+
+		public int getWaiting() {
+			return waiting;
+		}
+
+		public int getMaxSize() {
+			return maxSize;
+		}
+
+		public long getCreated() {
+			return created;
+		}
+
+		public long getDestroyed() {
+			return destroyed;
+		}
+
+		public long getBorrows() {
+			return borrows;
+		}
+
+		public long getTimeouts() {
+			return timeouts;
+		}
+
+		public long getLeaks() {
+			return leaks;
+		}
+
+		public long getStatementHits() {
+			return statementHits;
+		}
+
+		public long getStatementMisses() {
+			return statementMisses;
+		}
+
+		public long getStatementEvictions() {
+			return statementEvictions;
+		}
+
+		@Override
+		public String toString() {
+			return name + "{total=" + total + ", idle=" + idle + ", active=" + active + ", waiting=" + waiting
+					+ ", max=" + maxSize + ", created=" + created + ", destroyed=" + destroyed + ", borrows="
+					+ borrows + ", timeouts=" + timeouts + ", leaks=" + leaks + ", statementHits=" + statementHits
+					+ ", statementMisses=" + statementMisses + ", statementEvictions=" + statementEvictions + "}";
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package com.college.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated executor for password key derivation.
+ * <p>
+ * Each PBKDF2 derivation keeps a core busy for tens of milliseconds, so a burst
+ * of logins run on the request threads can take every core away from the rest
+ * of the application. Derivations run here instead, on one thread per core
+ * behind a bounded queue. Once the queue is full further work is rejected
+ * immediately, and the caller asks the user to try again shortly rather than
+ * piling up behind the backlog. The pool size and queue length can be set with
+ * {@code -Dcollege.crypto.threads} and {@code -Dcollege.crypto.queue}.
+ * </p>
+ */
+public final class CryptoExecutor {
+
+	private static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+	private static final int DEFAULT_QUEUE = DEFAULT_THREADS * 4;
+
+	private static final LongAdder completed = new LongAdder();
+	private static final LongAdder rejected = new LongAdder();
+	private static final LongAdder totalWaitNanos = new LongAdder();
+	private static final LongAdder totalDerivationNanos = new LongAdder();
+	private static final AtomicLong maxDerivationNanos = new AtomicLong();
+
+	private static volatile ThreadPoolExecutor executor;
+
+	private CryptoExecutor() {
+	}
+
+	/**
+	 * Runs a derivation on the crypto executor and waits for its result.
+	 *
+	 * @param task the derivation
+	 * @return the result of the task, or null if the waiting thread was
+	 *         interrupted or the task failed
+	 * @throws RejectedExecutionException if the queue is full or the executor is
+	 *                                    shut down
+	 */
+	public static <T> T execute(Supplier<T> task) {
+		long submitted = System.nanoTime();
+		Future<T> future;
+		try {
+			future = getExecutor().submit(() -> {
+				long started = System.nanoTime();
+				try {
+					return task.get();
+				} finally {
+					long derivation = System.nanoTime() - started;
+					totalWaitNanos.add(started - submitted);
+					totalDerivationNanos.add(derivation);
+					maxDerivationNanos.accumulateAndGet(derivation, Math::max);
+					completed.increment();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw e;
+		}
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			e.getCause().printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * @return a snapshot of the executor's queue depth and latency counters
+	 */
+	public static Stats getStats() {
+		ThreadPoolExecutor current = getExecutor();
+		long count = completed.sum();
+		return new Stats(current.getMaximumPoolSize(), current.getActiveCount(), current.getQueue().size(),
+				current.getQueue().size() + current.getQueue().remainingCapacity(), count, rejected.sum(),
+				averageMillis(totalWaitNanos.sum(), count), averageMillis(totalDerivationNanos.sum(), count),
+				maxDerivationNanos.get() / 1_000_000.0);
+	}
+
+	/**
+	 * Stops accepting work and interrupts running derivations. Called when the
+	 * application is undeployed.
+	 */
+	public static synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private static double averageMillis(long totalNanos, long count) {
+		return count == 0 ? 0 : totalNanos / (count * 1_000_000.0);
+	}
+
+	private static ThreadPoolExecutor getExecutor() {
+		ThreadPoolExecutor current = executor;
+		if (current == null) {
+			synchronized (CryptoExecutor.class) {
+				current = executor;
+				if (current == null) {
+					current = createExecutor();
+					executor = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private static ThreadPoolExecutor createExecutor() {
+		int threads = Integer.getInteger("college.crypto.threads", DEFAULT_THREADS);
+		int queue = Integer.getInteger("college.crypto.queue", DEFAULT_QUEUE);
+		AtomicInteger threadNumber = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queue), runnable -> {
+					Thread thread = new Thread(runnable, "crypto-worker-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * Immutable snapshot of executor counters.
+	 */
+	public static final class Stats {
+		private final int threads;
+		private final int active;
+		private final int queued;
+		private final int queueCapacity;
+		private final long completed;
+		private final long rejected;
+		private final double averageWaitMillis;
+		private final double averageDerivationMillis;
+		private final double maxDerivationMillis;
+
+		private Stats(int threads, int active, int queued, int queueCapacity, long completed, long rejected,
+				double averageWaitMillis, double averageDerivationMillis, double maxDerivationMillis) {
+			this.threads = threads;
+			this.active = active;
+			this.queued = queued;
+			this.queueCapacity = queueCapacity;
+			this.completed = completed;
+			this.rejected = rejected;
+			this.averageWaitMillis = averageWaitMillis;
+			this.averageDerivationMillis = averageDerivationMillis;
+			this.maxDerivationMillis = maxDerivationMillis;
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public int getActive() {
+			return active;
+		}
+
+		public int getQueued() {
+			return queued;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public long getCompleted() {
+			return completed;
+		}
+
+		public long getRejected() {
+			return rejected;
+		}
+
+		public double getAverageWaitMillis() {
+			return averageWaitMillis;
+		}
+
+		public double getAverageDerivationMillis() {
+			return averageDerivationMillis;
+		}
+
+		public double getMaxDerivationMillis() {
+			return maxDerivationMillis;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"crypto{threads=%d, active=%d, queued=%d/%d, completed=%d, rejected=%d, avgWaitMs=%.2f, avgDerivationMs=%.2f, maxDerivationMs=%.2f}",
+					threads, active, queued, queueCapacity, completed, rejected, averageWaitMillis,
+					averageDerivationMillis, maxDerivationMillis);
+		}
+	}
+}
@@ -1,12 +1,42 @@
 package com.college.config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * DbConfig is a configuration class for managing database connections. It
  * handles the connection to a MySQL database using JDBC.
+ * <p>
+ * Connections are served from a shared {@link ConnectionPool}. Callers borrow a
+ * connection for a single operation and close it when done, which returns it
+ * to the pool.
+ * </p>
+ * <p>
+ * Besides the primary, any number of read replicas can be configured with
+ * {@code -Dcollege.db.replicas} as a comma-separated list of JDBC URLs. Writes
+ * and reads that must be current use {@link #getDbConnection()}; read-only
+ * listings and counts use {@link #getReadConnection()}, which picks the least
+ * loaded replica unless the current session has written recently (see
+ * {@link ReadConsistency}). The primary URL and credentials can be overridden
+ * with {@code -Dcollege.db.url}, {@code -Dcollege.db.user} and
+ * {@code -Dcollege.db.password}, so the routing can be exercised against local
+ * database instances.
+ * </p>
+ * <p>
+ * With {@code -Dcollege.db.backend=embedded} the primary is the in-process
+ * {@link EmbeddedDatabase} instead of MySQL, created and seeded on first use,
+ * so the services can run without any external database. Replicas can then be
+ * further H2 in-memory databases, for example
+ * {@code -Dcollege.db.replicas=jdbc:h2:mem:replica1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1}.
+ * Each is created and seeded like the primary but never receives its writes,
+ * so it behaves as a replica that has stopped replicating: a session sees its
+ * own changes only while it is pinned to the primary.
+ * </p>
  */
 public class DbConfig {
 
@@ -16,15 +46,258 @@ public class DbConfig {
 	private static final String USERNAME = "root";
 	private static final String PASSWORD = "";
 
+	// Value of -Dcollege.db.backend that selects the in-process database
+	private static final String BACKEND_EMBEDDED = "embedded";
+	private static final String EMBEDDED_URL_PREFIX = "jdbc:h2:";
+
+	// Connection pool configuration
+	private static final int POOL_MIN_SIZE = 2;
+	private static final int POOL_MAX_SIZE = 20;
+	private static final long POOL_BORROW_TIMEOUT_MS = 5_000;
+	private static final long POOL_IDLE_TIMEOUT_MS = 10 * 60_000;
+	private static final long POOL_LEAK_THRESHOLD_MS = 60_000;
+	// Prepared statements kept open per pooled connection
+	private static final int STATEMENT_CACHE_SIZE = 64;
+
+	// Rows fetched per round trip by streaming reads, overridable with
+	// -Dcollege.db.fetchSize
+	private static final int DEFAULT_FETCH_SIZE = 500;
+
+	private static volatile ConnectionPool pool;
+	private static volatile List<ConnectionPool> replicaPools = Collections.emptyList();
+
+	// Rotates the starting replica so equally loaded replicas share the reads
+	private static final AtomicInteger nextReplica = new AtomicInteger();
+
 	/**
-	 * Establishes a connection to the database.
+	 * Borrows a connection to the primary database from the pool. Closing the
+	 * connection returns it to the pool.
 	 *
 	 * @return Connection object for the database
-	 * @throws SQLException           if a database access error occurs
-	 * @throws ClassNotFoundException if the JDBC driver class is not found
+	 * @throws SQLException if a database access error occurs or no connection is
+	 *                      available in time
+	 */
+	public static Connection getDbConnection() throws SQLException {
+		return getPool().getConnection();
+	}
+
+	/**
+	 * Borrows a connection for a read-only query.
+	 * <p>
+	 * The connection comes from the replica with the fewest connections in use,
+	 * ties being broken round-robin. The primary is used instead when no
+	 * replicas are configured, when the current session has written within the
+	 * pin window, or when no replica can provide a connection.
+	 * </p>
+	 *
+	 * @return Connection object for a read-only query
+	 * @throws SQLException if no connection is available in time
+	 */
+	public static Connection getReadConnection() throws SQLException {
+		ConnectionPool primary = getPool();
+		List<ConnectionPool> replicas = replicaPools;
+		if (replicas.isEmpty() || ReadConsistency.isPinnedToPrimary()) {
+			return primary.getConnection();
+		}
+
+		int size = replicas.size();
+		int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+		ConnectionPool leastLoaded = null;
+		int lowestLoad = Integer.MAX_VALUE;
+		for (int i = 0; i < size; i++) {
+			ConnectionPool replica = replicas.get((start + i) % size);
+			int load = replica.getLoad();
+			if (load < lowestLoad) {
+				leastLoaded = replica;
+				lowestLoad = load;
+			}
+		}
+
+		Connection connection = null;
+		try {
+			connection = leastLoaded.getConnection();
+			connection.setReadOnly(true);
+			return connection;
+		} catch (SQLException e) {
+			if (connection != null) {
+				// Return the lease, or its permit is lost to the replica pool
+				try {
+					connection.close();
+				} catch (SQLException closeError) {
+					e.addSuppressed(closeError);
+				}
+			}
+			// Replica unavailable, the primary can always serve the read
+			return primary.getConnection();
+		}
+	}
+
+	/**
+	 * Records that the current request has written to the primary, so that the
+	 * reads of its session go to the primary until replicas have caught up.
+	 */
+	public static void recordWrite() {
+		ReadConsistency.recordWrite();
+	}
+
+	/**
+	 * Returns the number of rows streaming queries should fetch per round trip.
+	 *
+	 * @return the configured fetch size
+	 */
+	public static int getFetchSize() {
+		return Integer.getInteger("college.db.fetchSize", DEFAULT_FETCH_SIZE);
+	}
+
+	/**
+	 * @return whether the in-process embedded database is used instead of MySQL
+	 */
+	public static boolean isEmbedded() {
+		return BACKEND_EMBEDDED.equalsIgnoreCase(System.getProperty("college.db.backend"));
+	}
+
+	/**
+	 * Returns the current connection pool statistics of the primary.
+	 *
+	 * @return pool statistics snapshot
+	 * @throws SQLException if the pool cannot be initialised
 	 */
-	public static Connection getDbConnection() throws SQLException, ClassNotFoundException {
-		Class.forName("com.mysql.cj.jdbc.Driver");
-		return DriverManager.getConnection(URL, USERNAME, PASSWORD);
+	public static ConnectionPool.Stats getPoolStats() throws SQLException {
+		return getPool().getStats();
+	}
+
+	/**
+	 * Returns the current connection pool statistics of every replica.
+	 *
+	 * @return one statistics snapshot per replica, empty if none are configured
+	 * @throws SQLException if the pools cannot be initialised
+	 */
+	public static List<ConnectionPool.Stats> getReplicaStats() throws SQLException {
+		getPool();
+		List<ConnectionPool.Stats> stats = new ArrayList<>();
+		for (ConnectionPool replica : replicaPools) {
+			stats.add(replica.getStats());
+		}
+		return stats;
+	}
+
+	/**
+	 * Closes all pooled connections. Called when the application is undeployed.
+	 */
+	public static synchronized void shutdown() {
+		for (ConnectionPool replica : replicaPools) {
+			replica.shutdown();
+		}
+		replicaPools = Collections.emptyList();
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	/**
+	 * Builds the driver profile applied to every pooled connection.
+	 * <p>
+	 * Statements are prepared on the server so the pool's statement cache keeps
+	 * parsed plans alive, batches are rewritten into multi-row INSERTs, and large
+	 * reads stream through a server-side cursor.
+	 * </p>
+	 *
+	 * @param url the JDBC URL the profile is for; the MySQL tuning is only
+	 *            applied to MySQL URLs
+	 * @return connection properties for the driver
+	 */
+	private static Properties getDriverProfile(String url) {
+		Properties profile = new Properties();
+		profile.setProperty("user", System.getProperty("college.db.user", USERNAME));
+		profile.setProperty("password", System.getProperty("college.db.password", PASSWORD));
+		if (!isMySql(url)) {
+			return profile;
+		}
+		profile.setProperty("useServerPrepStmts", "true");
+		// The pool caches statements itself, so the driver cache stays off
+		profile.setProperty("cachePrepStmts", "false");
+		profile.setProperty("rewriteBatchedStatements", "true");
+		profile.setProperty("useCursorFetch", "true");
+		return profile;
+	}
+
+	private static boolean isMySql(String url) {
+		return url.startsWith("jdbc:mysql:");
+	}
+
+	/**
+	 * Creates a pool for one database endpoint.
+	 */
+	private static ConnectionPool createPool(String name, String url) throws SQLException {
+		if (isMySql(url)) {
+			try {
+				Class.forName("com.mysql.cj.jdbc.Driver");
+			} catch (ClassNotFoundException e) {
+				throw new SQLException("MySQL JDBC driver not found", e);
+			}
+		} else if (url.startsWith(EMBEDDED_URL_PREFIX)) {
+			EmbeddedDatabase.loadDriver();
+		}
+		return new ConnectionPool(name, url, getDriverProfile(url), POOL_MIN_SIZE, POOL_MAX_SIZE,
+				POOL_BORROW_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_LEAK_THRESHOLD_MS, STATEMENT_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates the schema of an embedded database and seeds it if it is empty.
+	 *
+	 * @return the pool, for chaining
+	 * @throws SQLException if bootstrapping fails, after shutting the pool down
+	 */
+	private static ConnectionPool bootstrap(ConnectionPool embedded) throws SQLException {
+		try (Connection dbConn = embedded.getConnection()) {
+			EmbeddedDatabase.bootstrap(dbConn);
+			return embedded;
+		} catch (SQLException e) {
+			embedded.shutdown();
+			throw e;
+		}
+	}
+
+	/**
+	 * Lazily creates the primary and replica pools on first use.
+	 */
+	private static ConnectionPool getPool() throws SQLException {
+		ConnectionPool current = pool;
+		if (current == null) {
+			synchronized (DbConfig.class) {
+				current = pool;
+				if (current == null) {
+					if (isEmbedded()) {
+						current = bootstrap(createPool(DB_NAME + "-embedded", EmbeddedDatabase.URL));
+					} else {
+						current = createPool(DB_NAME + "-primary", System.getProperty("college.db.url", URL));
+					}
+
+					List<ConnectionPool> replicas = new ArrayList<>();
+					String replicaUrls = System.getProperty("college.db.replicas", "");
+					try {
+						for (String replicaUrl : replicaUrls.split(",")) {
+							String trimmed = replicaUrl.trim();
+							if (trimmed.isEmpty()) {
+								continue;
+							}
+							ConnectionPool replica = createPool(DB_NAME + "-replica-" + (replicas.size() + 1), trimmed);
+							replicas.add(isEmbedded() && trimmed.startsWith(EMBEDDED_URL_PREFIX) ? bootstrap(replica)
+									: replica);
+						}
+					} catch (SQLException e) {
+						for (ConnectionPool replica : replicas) {
+							replica.shutdown();
+						}
+						current.shutdown();
+						throw e;
+					}
+					replicaPools = Collections.unmodifiableList(replicas);
+					pool = current;
+				}
+			}
+		}
+		return current;
 	}
-}
\ No newline at end of file
+}
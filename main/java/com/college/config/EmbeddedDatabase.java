@@ -0,0 +1,188 @@
+package com.college.config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import com.college.service.SqlStatement;
+import com.college.util.PasswordUtil;
+
+/**
+ * In-process database used instead of MySQL when the application runs with
+ * {@code -Dcollege.db.backend=embedded}.
+ * <p>
+ * The database is an H2 in-memory instance in MySQL compatibility mode, so the
+ * services run their usual SQL against it. On first use it is created from
+ * {@code /db/schema.sql} and, when empty, filled with the programs from
+ * {@code /db/seed.sql}, the accounts in {@link #ACCOUNTS} and a number of
+ * generated students set with {@code -Dcollege.db.seedStudents}. Every
+ * generated student has the password {@value #GENERATED_PASSWORD}.
+ * </p>
+ */
+public final class EmbeddedDatabase {
+
+	private static final Logger LOGGER = Logger.getLogger(EmbeddedDatabase.class.getName());
+
+	/**
+	 * JDBC URL of the embedded database. It lives as long as the JVM.
+	 */
+	public static final String URL = "jdbc:h2:mem:islington;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	private static final String DRIVER = "org.h2.Driver";
+
+	private static final String SCHEMA_SCRIPT = "/db/schema.sql";
+	private static final String SEED_SCRIPT = "/db/seed.sql";
+
+	private static final int DEFAULT_SEED_STUDENTS = 500;
+	private static final int BATCH_SIZE = 500;
+	private static final String GENERATED_PASSWORD = "Password@123";
+
+	// Accounts with known passwords: username, first name, last name, password
+	private static final String[][] ACCOUNTS = { { "admin", "Admin", "User", "Admin@123" },
+			{ "student", "Test", "Student", "Student@123" } };
+
+	private static final String[] FIRST_NAMES = { "Aarav", "Anisha", "Bibek", "Kritika", "Nabin", "Pooja", "Rohan",
+			"Sabina", "Sujan", "Srijana", "Anil", "Gita" };
+	private static final String[] LAST_NAMES = { "Shrestha", "Sharma", "Karki", "Thapa", "Gurung", "Tamang", "Rai",
+			"Magar", "Adhikari", "Poudel" };
+
+	private EmbeddedDatabase() {
+	}
+
+	/**
+	 * Loads the H2 driver.
+	 *
+	 * @throws SQLException if the driver is not on the classpath
+	 */
+	static void loadDriver() throws SQLException {
+		try {
+			Class.forName(DRIVER);
+		} catch (ClassNotFoundException e) {
+			throw new SQLException("H2 JDBC driver not found, it is required by the embedded backend", e);
+		}
+	}
+
+	/**
+	 * Creates the schema and seeds an empty database.
+	 *
+	 * @param dbConn a connection to the embedded database
+	 * @throws SQLException if a script or the seeding fails
+	 */
+	static void bootstrap(Connection dbConn) throws SQLException {
+		runScript(dbConn, SCHEMA_SCRIPT);
+		if (!isEmpty(dbConn)) {
+			return;
+		}
+
+		runScript(dbConn, SEED_SCRIPT);
+		int count = Integer.getInteger("college.db.seedStudents", DEFAULT_SEED_STUDENTS);
+		seedStudents(dbConn, count);
+		LOGGER.info("Embedded database seeded with " + (ACCOUNTS.length + count) + " students");
+	}
+
+	private static boolean isEmpty(Connection dbConn) throws SQLException {
+		try (Statement stmt = dbConn.createStatement();
+				ResultSet result = stmt.executeQuery("SELECT COUNT(*) FROM program")) {
+			return result.next() && result.getInt(1) == 0;
+		}
+	}
+
+	/**
+	 * Runs the statements of a classpath script. Statements end with a semicolon
+	 * at the end of a line; lines starting with {@code --} are comments.
+	 */
+	private static void runScript(Connection dbConn, String resource) throws SQLException {
+		List<String> statements = new ArrayList<>();
+		try (InputStream in = EmbeddedDatabase.class.getResourceAsStream(resource)) {
+			if (in == null) {
+				throw new SQLException("Database script not found: " + resource);
+			}
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+			StringBuilder statement = new StringBuilder();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String trimmed = line.trim();
+				if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+					continue;
+				}
+				statement.append(line).append('\n');
+				if (trimmed.endsWith(";")) {
+					statement.setLength(statement.lastIndexOf(";"));
+					statements.add(statement.toString());
+					statement.setLength(0);
+				}
+			}
+		} catch (IOException e) {
+			throw new SQLException("Could not read database script " + resource, e);
+		}
+
+		try (Statement stmt = dbConn.createStatement()) {
+			for (String sql : statements) {
+				stmt.execute(sql);
+			}
+		}
+	}
+
+	/**
+	 * Inserts the fixed accounts followed by {@code count} generated students,
+	 * in batches and one transaction.
+	 */
+	private static void seedStudents(Connection dbConn, int count) throws SQLException {
+		int total = ACCOUNTS.length + count;
+
+		// Password hashing dominates the seeding time. The generated students all
+		// share one hash, which is acceptable for synthetic development data.
+		String generatedHash = PasswordUtil.hash(GENERATED_PASSWORD);
+		String[] passwords = IntStream.range(0, total).parallel()
+				.mapToObj(i -> i < ACCOUNTS.length ? PasswordUtil.hash(ACCOUNTS[i][3]) : generatedHash)
+				.toArray(String[]::new);
+
+		dbConn.setAutoCommit(false);
+		try (PreparedStatement stmt = dbConn.prepareStatement(SqlStatement.STUDENT_INSERT.getSql())) {
+			for (int i = 0; i < total; i++) {
+				boolean account = i < ACCOUNTS.length;
+				String firstName = account ? ACCOUNTS[i][1] : FIRST_NAMES[i % FIRST_NAMES.length];
+				String lastName = account ? ACCOUNTS[i][2]
+						: LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+				String username = username(i);
+
+				stmt.setString(1, firstName);
+				stmt.setString(2, lastName);
+				stmt.setString(3, username);
+				stmt.setDate(4, Date.valueOf(LocalDate.of(2000, 1, 1).plusDays(i % 2000)));
+				stmt.setString(5, i % 2 == 0 ? "male" : "female");
+				stmt.setString(6, username + "@example.com");
+				stmt.setString(7, String.format("98%08d", i));
+				stmt.setString(8, passwords[i]);
+				stmt.setInt(9, 1 + i % 3);
+				stmt.setString(10, null);
+				stmt.addBatch();
+				if ((i + 1) % BATCH_SIZE == 0) {
+					stmt.executeBatch();
+				}
+			}
+			stmt.executeBatch();
+			dbConn.commit();
+		} catch (SQLException e) {
+			dbConn.rollback();
+			throw e;
+		}
+	}
+
+	private static String username(int index) {
+		return index < ACCOUNTS.length ? ACCOUNTS[index][0] : "student" + index;
+	}
+}
@@ -0,0 +1,83 @@
+package com.college.config;
+
+/**
+ * Tracks, for the request being handled on the current thread, whether reads
+ * must go to the primary database.
+ * <p>
+ * Replicas apply writes with some delay. Once a session has written, its reads
+ * are pinned to the primary for {@link #getPinMillis()} so the user always sees
+ * their own changes. The pin is carried between requests in the HTTP session
+ * by {@link com.college.filter.ReadConsistencyFilter} and recorded by the
+ * services through {@link #recordWrite()}.
+ * </p>
+ */
+public final class ReadConsistency {
+
+	// How long reads stay on the primary after a write, overridable with
+	// -Dcollege.db.pinMillis
+	private static final long DEFAULT_PIN_MILLIS = 5_000;
+
+	// Time until which the current request reads from the primary, or null
+	private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+
+	private ReadConsistency() {
+	}
+
+	/**
+	 * Starts tracking a request.
+	 *
+	 * @param primaryUntil the pin carried over from earlier requests of the
+	 *                     session, or null if there is none
+	 */
+	public static void begin(Long primaryUntil) {
+		if (primaryUntil == null) {
+			PRIMARY_UNTIL.remove();
+		} else {
+			PRIMARY_UNTIL.set(primaryUntil);
+		}
+	}
+
+	/**
+	 * Stops tracking the current request.
+	 *
+	 * @return the pin to carry over to later requests, or null if there is none
+	 */
+	public static Long end() {
+		Long primaryUntil = PRIMARY_UNTIL.get();
+		PRIMARY_UNTIL.remove();
+		return primaryUntil;
+	}
+
+	/**
+	 * Returns the pin of the current request without ending it, so it can be
+	 * handed to another thread working on the same request.
+	 *
+	 * @return the current pin, or null if there is none
+	 */
+	public static Long current() {
+		return PRIMARY_UNTIL.get();
+	}
+
+	/**
+	 * Records that the current request has written to the primary, pinning its
+	 * reads, and those of its session, to the primary.
+	 */
+	public static void recordWrite() {
+		PRIMARY_UNTIL.set(System.currentTimeMillis() + getPinMillis());
+	}
+
+	/**
+	 * @return whether reads of the current request must go to the primary
+	 */
+	public static boolean isPinnedToPrimary() {
+		Long primaryUntil = PRIMARY_UNTIL.get();
+		return primaryUntil != null && primaryUntil > System.currentTimeMillis();
+	}
+
+	/**
+	 * @return how long reads stay on the primary after a write, in milliseconds
+	 */
+	public static long getPinMillis() {
+		return Long.getLong("college.db.pinMillis", DEFAULT_PIN_MILLIS);
+	}
+}
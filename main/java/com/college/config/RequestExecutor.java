@@ -0,0 +1,117 @@
+package com.college.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executor that runs servlet work off the container's request threads.
+ * <p>
+ * On a runtime with virtual threads each request gets its own virtual thread,
+ * so requests blocked on JDBC or password hashing hold no platform thread. On
+ * older runtimes a bounded pool of platform threads is used instead; its size
+ * and queue length can be set with {@code -Dcollege.async.threads} and
+ * {@code -Dcollege.async.queue}, and work beyond the queue is rejected so the
+ * caller can answer with 503.
+ * </p>
+ */
+public final class RequestExecutor {
+
+	private static final Logger LOGGER = Logger.getLogger(RequestExecutor.class.getName());
+
+	private static final int DEFAULT_THREADS = 200;
+	private static final int DEFAULT_QUEUE = 1_000;
+
+	private static final AtomicInteger inFlight = new AtomicInteger();
+
+	private static volatile ExecutorService executor;
+
+	private RequestExecutor() {
+	}
+
+	/**
+	 * Runs a task on the request executor.
+	 *
+	 * @param task the work of one request
+	 * @return the future of the task, which can be cancelled on timeout
+	 * @throws RejectedExecutionException if the executor is saturated or shut
+	 *                                    down
+	 */
+	public static Future<?> submit(Runnable task) {
+		inFlight.incrementAndGet();
+		try {
+			return getExecutor().submit(() -> {
+				try {
+					task.run();
+				} finally {
+					inFlight.decrementAndGet();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			inFlight.decrementAndGet();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the number of requests submitted and not yet finished
+	 */
+	public static int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * Stops accepting work and interrupts running requests. Called when the
+	 * application is undeployed.
+	 */
+	public static synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private static ExecutorService getExecutor() {
+		ExecutorService current = executor;
+		if (current == null) {
+			synchronized (RequestExecutor.class) {
+				current = executor;
+				if (current == null) {
+					current = createExecutor();
+					executor = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private static ExecutorService createExecutor() {
+		try {
+			// Looked up reflectively so the application still runs on Java 17
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			LOGGER.log(Level.INFO, "Virtual threads not available, using a bounded request pool");
+		}
+
+		int threads = Integer.getInteger("college.async.threads", DEFAULT_THREADS);
+		int queue = Integer.getInteger("college.async.queue", DEFAULT_QUEUE);
+		AtomicInteger threadNumber = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queue), runnable -> {
+					Thread thread = new Thread(runnable, "request-worker-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+}
@@ -0,0 +1,141 @@
+package com.college.config;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Global limit on the bytes of multipart uploads being received at once.
+ * <p>
+ * The container buffers a multipart request as soon as a servlet reads any of
+ * its parameters, in memory up to {@link #MEMORY_THRESHOLD} per part and on
+ * temporary disk beyond. Upload servlets therefore reserve the request's
+ * declared size here before they touch the body. When the budget is used up a
+ * request waits for up to {@code -Dcollege.upload.waitMillis} and is then
+ * rejected, and its body is never read. The budget is
+ * {@code -Dcollege.upload.budgetBytes}, by default a quarter of the heap up to
+ * 256 MB.
+ * </p>
+ */
+public final class UploadBudget {
+
+	/** Part size above which the container writes a part to disk */
+	public static final int MEMORY_THRESHOLD = 64 * 1024;
+
+	private static final long DEFAULT_BUDGET = Math.min(Runtime.getRuntime().maxMemory() / 4, 256L * 1024 * 1024);
+	private static final long DEFAULT_WAIT_MS = 2_000;
+
+	private static final long capacity = Math.max(1, Long.getLong("college.upload.budgetBytes", DEFAULT_BUDGET));
+	private static final long waitNanos = TimeUnit.MILLISECONDS
+			.toNanos(Math.max(0, Long.getLong("college.upload.waitMillis", DEFAULT_WAIT_MS)));
+
+	private static final Object lock = new Object();
+	private static long available = capacity;
+
+	private static final LongAdder admitted = new LongAdder();
+	private static final LongAdder rejected = new LongAdder();
+
+	private UploadBudget() {
+	}
+
+	/**
+	 * Returns the number of bytes a request will upload, taken from its
+	 * {@code Content-Length}. A request without one is assumed to use the whole
+	 * limit.
+	 *
+	 * @param request         the upload request
+	 * @param maxRequestSize  the largest request the servlet accepts
+	 * @return the size to reserve, which may exceed {@code maxRequestSize}
+	 */
+	public static long getDeclaredSize(HttpServletRequest request, long maxRequestSize) {
+		long length = request.getContentLengthLong();
+		return length >= 0 ? length : maxRequestSize;
+	}
+
+	/**
+	 * Reserves budget for an upload, waiting for other uploads to finish if
+	 * needed. A request larger than the whole budget waits for all of it.
+	 *
+	 * @param bytes the size of the upload
+	 * @return the reservation, to be closed once the upload has been handled
+	 * @throws RejectedExecutionException if the budget did not free up in time
+	 */
+	public static Permit acquire(long bytes) {
+		long reserved = Math.max(0, Math.min(bytes, capacity));
+		long deadline = System.nanoTime() + waitNanos;
+		synchronized (lock) {
+			while (available < reserved) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					rejected.increment();
+					throw new RejectedExecutionException("Upload budget exhausted");
+				}
+				try {
+					TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					rejected.increment();
+					throw new RejectedExecutionException("Interrupted while waiting for upload budget", e);
+				}
+			}
+			available -= reserved;
+		}
+		admitted.increment();
+		return new Permit(reserved);
+	}
+
+	/**
+	 * @return the bytes currently reserved by uploads
+	 */
+	public static long getInFlightBytes() {
+		synchronized (lock) {
+			return capacity - available;
+		}
+	}
+
+	/**
+	 * @return the number of uploads admitted so far
+	 */
+	public static long getAdmitted() {
+		return admitted.sum();
+	}
+
+	/**
+	 * @return the number of uploads rejected so far
+	 */
+	public static long getRejected() {
+		return rejected.sum();
+	}
+
+	private static void release(long bytes) {
+		synchronized (lock) {
+			available += bytes;
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Budget held by one upload. Closing it more than once has no effect.
+	 */
+	public static final class Permit implements AutoCloseable {
+		private final long bytes;
+		private boolean released;
+
+		private Permit(long bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		public void close() {
+			synchronized (this) {
+				if (released) {
+					return;
+				}
+				released = true;
+			}
+			release(bytes);
+		}
+	}
+}
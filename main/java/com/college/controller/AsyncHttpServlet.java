@@ -0,0 +1,192 @@
+package com.college.controller;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.college.config.ReadConsistency;
+import com.college.config.RequestExecutor;
+import com.college.filter.ReadConsistencyFilter;
+
+/**
+ * Base class for servlets whose work runs asynchronously.
+ * <p>
+ * Each request is put into asynchronous mode and its {@code doGet}/{@code doPost}
+ * runs on the {@link RequestExecutor}, so the container thread is released
+ * while the request waits on the database or on password hashing. The request
+ * is completed when the handler returns, or answered with 503 if it exceeds
+ * {@link #getAsyncTimeout(HttpServletRequest)} or the executor is saturated.
+ * </p>
+ * <p>
+ * Subclasses implement the usual {@code doGet}/{@code doPost} methods and need
+ * no changes to their code. They receive a {@link GuardedRequest} and
+ * {@link GuardedResponse}, which drop forwards, redirects and writes once the
+ * request has timed out, since JDBC and password hashing keep running after
+ * the worker is interrupted.
+ * </p>
+ * <p>
+ * A handler that fails after part of the body has been sent, for example a
+ * streamed export losing its database connection, throws. The request is then
+ * dispatched back to the container and the failure rethrown there, so the
+ * container drops the connection (Tomcat closes it without the final chunk)
+ * instead of ending a truncated body as if it were complete.
+ * </p>
+ */
+public abstract class AsyncHttpServlet extends HttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger LOGGER = Logger.getLogger(AsyncHttpServlet.class.getName());
+
+	// Default time a request may take, overridable with
+	// -Dcollege.async.timeoutMillis
+	private static final long DEFAULT_TIMEOUT_MS = 30_000;
+
+	// Failure of a worker whose response was already committed, rethrown when
+	// the request is dispatched back to the container
+	private static final String FAILURE_ATTRIBUTE = AsyncHttpServlet.class.getName() + ".failure";
+
+	/**
+	 * Returns how long a request may run before it is answered with 503. A value
+	 * of zero or less disables the timeout.
+	 *
+	 * @param request the request being handled
+	 * @return the timeout in milliseconds
+	 */
+	protected long getAsyncTimeout(HttpServletRequest request) {
+		return Long.getLong("college.async.timeoutMillis", DEFAULT_TIMEOUT_MS);
+	}
+
+	@Override
+	protected void service(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		Object workerFailure = request.getAttribute(FAILURE_ATTRIBUTE);
+		if (workerFailure != null && request.getDispatcherType() == DispatcherType.ASYNC) {
+			request.removeAttribute(FAILURE_ATTRIBUTE);
+			rethrow((Exception) workerFailure);
+		}
+		if (!request.isAsyncSupported() || request.isAsyncStarted()) {
+			// Already off the container thread, e.g. after a forward
+			super.service(request, response);
+			return;
+		}
+
+		AsyncContext asyncContext = request.startAsync(request, response);
+		asyncContext.setTimeout(getAsyncTimeout(request));
+
+		// The worker only sees guarded wrappers, so nothing it writes after a
+		// timeout reaches a response the container has completed
+		GuardedResponse guardedResponse = new GuardedResponse(response);
+		GuardedRequest guardedRequest = new GuardedRequest(request, guardedResponse);
+		AtomicReference<Future<?>> work = new AtomicReference<>();
+		asyncContext.addListener(new AsyncListener() {
+			@Override
+			public void onTimeout(AsyncEvent event) throws IOException {
+				abort(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "The request timed out.");
+			}
+
+			@Override
+			public void onError(AsyncEvent event) throws IOException {
+				abort(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, null);
+			}
+
+			@Override
+			public void onComplete(AsyncEvent event) {
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) {
+			}
+
+			private void abort(int status, String message) throws IOException {
+				synchronized (guardedResponse) {
+					if (!guardedResponse.finish()) {
+						return;
+					}
+					Future<?> future = work.get();
+					if (future != null) {
+						future.cancel(true);
+					}
+					if (!response.isCommitted()) {
+						response.sendError(status, message);
+					}
+					asyncContext.complete();
+				}
+			}
+		});
+
+		// The read-your-writes pin lives in a thread local, so hand it over
+		Long pin = ReadConsistency.current();
+		try {
+			work.set(RequestExecutor.submit(() -> {
+				ReadConsistency.begin(pin);
+				Exception failure = null;
+				try {
+					super.service(guardedRequest, guardedResponse);
+				} catch (ServletException | IOException | RuntimeException e) {
+					LOGGER.log(Level.WARNING, "Request to " + request.getRequestURI() + " failed", e);
+					if (guardedResponse.isCommitted()) {
+						failure = e;
+					} else {
+						sendErrorIfPossible(guardedResponse, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, null);
+					}
+				} finally {
+					Long after = ReadConsistency.end();
+					synchronized (guardedResponse) {
+						// After a timeout the request may already belong to another client
+						if (guardedResponse.finish()) {
+							if (after != null && !after.equals(pin)) {
+								ReadConsistencyFilter.storePin(request, after);
+							}
+							if (failure != null) {
+								request.setAttribute(FAILURE_ATTRIBUTE, failure);
+								asyncContext.dispatch();
+							} else {
+								asyncContext.complete();
+							}
+						}
+					}
+				}
+			}));
+		} catch (RejectedExecutionException e) {
+			synchronized (guardedResponse) {
+				if (guardedResponse.finish()) {
+					sendErrorIfPossible(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "The server is busy.");
+					asyncContext.complete();
+				}
+			}
+		}
+	}
+
+	private static void rethrow(Exception failure) throws ServletException, IOException {
+		if (failure instanceof ServletException) {
+			throw (ServletException) failure;
+		}
+		if (failure instanceof IOException) {
+			throw (IOException) failure;
+		}
+		throw (RuntimeException) failure;
+	}
+
+	private static void sendErrorIfPossible(HttpServletResponse response, int status, String message) {
+		if (response.isCommitted()) {
+			return;
+		}
+		try {
+			response.sendError(status, message);
+		} catch (IOException e) {
+			// Client is gone, nothing left to report to
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.college.controller;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import com.college.service.AccountAvailability;
+import com.college.service.LoginThrottle;
+import com.college.util.JsonUtil;
+import com.college.util.ValidationUtil;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * AvailabilityController tells the registration form whether a username or
+ * email is still free, so it can warn before the form is submitted.
+ * <p>
+ * {@code GET /checkAvailability?username=...&email=...} answers with a JSON
+ * object holding, for each parameter given, true if the value is free, false if
+ * it is taken, and null if it is not valid or could not be checked. Invalid
+ * values are left to the form validation. Checks are rate limited per client
+ * address by {@link LoginThrottle} and answered with 429 when exceeded.
+ * </p>
+ */
+@WebServlet(asyncSupported = true, urlPatterns = { "/checkAvailability" })
+public class AvailabilityController extends AsyncHttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		// Each check tells whether an account exists, so it shares the login
+		// limit per address
+		long retryAfterMillis = LoginThrottle.getInstance().tryAcquireAddress(req.getRemoteAddr());
+		if (retryAfterMillis > 0) {
+			resp.setStatus(429); // Too Many Requests
+			resp.setHeader("Retry-After", Long.toString((retryAfterMillis + 999) / 1000));
+			resp.setHeader("Cache-Control", "no-store");
+			return;
+		}
+
+		String username = req.getParameter("username");
+		String email = req.getParameter("email");
+
+		StringBuilder json = new StringBuilder("{");
+		if (username != null) {
+			Boolean available = ValidationUtil.isAlphanumericStartingWithLetter(username)
+					? AccountAvailability.getInstance().isUsernameAvailable(username)
+					: null;
+			json.append(JsonUtil.quote("username")).append(':').append(available);
+		}
+		if (email != null) {
+			Boolean available = ValidationUtil.isValidEmail(email)
+					? AccountAvailability.getInstance().isEmailAvailable(email)
+					: null;
+			if (json.length() > 1) {
+				json.append(',');
+			}
+			json.append(JsonUtil.quote("email")).append(':').append(available);
+		}
+		json.append('}');
+
+		resp.setHeader("Cache-Control", "no-store");
+		resp.setCharacterEncoding("UTF-8");
+		resp.setContentType("application/json");
+		PrintWriter writer = resp.getWriter();
+		writer.write(json.toString());
+	}
+}
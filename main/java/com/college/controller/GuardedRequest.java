@@ -0,0 +1,53 @@
+package com.college.controller;
+
+import java.io.IOException;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Request handed to the worker of an {@link AsyncHttpServlet}. Forwards and
+ * includes run under the {@link GuardedResponse}'s monitor and are skipped
+ * once the request has been finished, for example by a timeout, so a page is
+ * never rendered into a response the container has already recycled.
+ */
+final class GuardedRequest extends HttpServletRequestWrapper {
+
+	private final GuardedResponse response;
+
+	GuardedRequest(HttpServletRequest request, GuardedResponse response) {
+		super(request);
+		this.response = response;
+	}
+
+	@Override
+	public RequestDispatcher getRequestDispatcher(String path) {
+		RequestDispatcher dispatcher = super.getRequestDispatcher(path);
+		if (dispatcher == null) {
+			return null;
+		}
+		return new RequestDispatcher() {
+			@Override
+			public void forward(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+				synchronized (GuardedRequest.this.response) {
+					if (!GuardedRequest.this.response.isFinished()) {
+						dispatcher.forward(request, response);
+					}
+				}
+			}
+
+			@Override
+			public void include(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+				synchronized (GuardedRequest.this.response) {
+					if (!GuardedRequest.this.response.isFinished()) {
+						dispatcher.include(request, response);
+					}
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,324 @@
+package com.college.controller;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Locale;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Response handed to the worker of an {@link AsyncHttpServlet}.
+ * <p>
+ * When a request times out, the container answers it and may recycle the
+ * response while the worker is still blocked in JDBC or password hashing,
+ * which ignore interrupts. Every change to this response therefore holds its
+ * monitor and is dropped once the request is {@link #isFinished() finished},
+ * and whoever finishes the request does so under the same monitor, so a write
+ * either completes before the request ends or never reaches the container.
+ * </p>
+ */
+final class GuardedResponse extends HttpServletResponseWrapper {
+
+	// Guarded by this
+	private boolean finished;
+	private ServletOutputStream outputStream;
+	private PrintWriter writer;
+
+	GuardedResponse(HttpServletResponse response) {
+		super(response);
+	}
+
+	/**
+	 * @return true once the request has been completed; callers that act on
+	 *         the result must hold this response's monitor
+	 */
+	synchronized boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * Marks the request as finished. The caller holds this response's monitor
+	 * and completes the request before releasing it, so no write can slip in
+	 * between.
+	 *
+	 * @return true if this call finished the request, false if it already was
+	 */
+	synchronized boolean finish() {
+		if (finished) {
+			return false;
+		}
+		finished = true;
+		return true;
+	}
+
+	@Override
+	public synchronized void sendRedirect(String location) throws IOException {
+		if (!finished) {
+			super.sendRedirect(location);
+		}
+	}
+
+	@Override
+	public synchronized void sendError(int status, String message) throws IOException {
+		if (!finished) {
+			super.sendError(status, message);
+		}
+	}
+
+	@Override
+	public synchronized void sendError(int status) throws IOException {
+		if (!finished) {
+			super.sendError(status);
+		}
+	}
+
+	@Override
+	public synchronized void setStatus(int status) {
+		if (!finished) {
+			super.setStatus(status);
+		}
+	}
+
+	@Override
+	public synchronized void setHeader(String name, String value) {
+		if (!finished) {
+			super.setHeader(name, value);
+		}
+	}
+
+	@Override
+	public synchronized void addHeader(String name, String value) {
+		if (!finished) {
+			super.addHeader(name, value);
+		}
+	}
+
+	@Override
+	public synchronized void setDateHeader(String name, long date) {
+		if (!finished) {
+			super.setDateHeader(name, date);
+		}
+	}
+
+	@Override
+	public synchronized void addDateHeader(String name, long date) {
+		if (!finished) {
+			super.addDateHeader(name, date);
+		}
+	}
+
+	@Override
+	public synchronized void setIntHeader(String name, int value) {
+		if (!finished) {
+			super.setIntHeader(name, value);
+		}
+	}
+
+	@Override
+	public synchronized void addIntHeader(String name, int value) {
+		if (!finished) {
+			super.addIntHeader(name, value);
+		}
+	}
+
+	@Override
+	public synchronized void addCookie(Cookie cookie) {
+		if (!finished) {
+			super.addCookie(cookie);
+		}
+	}
+
+	@Override
+	public synchronized void setContentType(String type) {
+		if (!finished) {
+			super.setContentType(type);
+		}
+	}
+
+	@Override
+	public synchronized void setCharacterEncoding(String charset) {
+		if (!finished) {
+			super.setCharacterEncoding(charset);
+		}
+	}
+
+	@Override
+	public synchronized void setContentLength(int length) {
+		if (!finished) {
+			super.setContentLength(length);
+		}
+	}
+
+	@Override
+	public synchronized void setContentLengthLong(long length) {
+		if (!finished) {
+			super.setContentLengthLong(length);
+		}
+	}
+
+	@Override
+	public synchronized void setLocale(Locale locale) {
+		if (!finished) {
+			super.setLocale(locale);
+		}
+	}
+
+	@Override
+	public synchronized void setBufferSize(int size) {
+		if (!finished) {
+			super.setBufferSize(size);
+		}
+	}
+
+	@Override
+	public synchronized void flushBuffer() throws IOException {
+		if (!finished) {
+			super.flushBuffer();
+		}
+	}
+
+	@Override
+	public synchronized void reset() {
+		if (!finished) {
+			super.reset();
+		}
+	}
+
+	@Override
+	public synchronized void resetBuffer() {
+		if (!finished) {
+			super.resetBuffer();
+		}
+	}
+
+	@Override
+	public synchronized ServletOutputStream getOutputStream() throws IOException {
+		if (outputStream == null) {
+			outputStream = new GuardedOutputStream(finished ? null : super.getOutputStream());
+		}
+		return outputStream;
+	}
+
+	@Override
+	public synchronized PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			writer = new PrintWriter(new GuardedWriter(finished ? null : super.getWriter()));
+		}
+		return writer;
+	}
+
+	/**
+	 * Output stream that drops writes once the request is finished.
+	 */
+	private final class GuardedOutputStream extends ServletOutputStream {
+		private final ServletOutputStream out;
+
+		private GuardedOutputStream(ServletOutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			synchronized (GuardedResponse.this) {
+				if (!finished) {
+					out.write(b);
+				}
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			synchronized (GuardedResponse.this) {
+				if (!finished) {
+					out.write(b, off, len);
+				}
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			synchronized (GuardedResponse.this) {
+				if (!finished) {
+					out.flush();
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			synchronized (GuardedResponse.this) {
+				if (!finished) {
+					out.close();
+				}
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			synchronized (GuardedResponse.this) {
+				return !finished && out.isReady();
+			}
+		}
+
+		@Override
+		public void setWriteListener(WriteListener listener) {
+			synchronized (GuardedResponse.this) {
+				if (!finished) {
+					out.setWriteListener(listener);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writer that drops writes once the request is finished.
+	 */
+	private final class GuardedWriter extends Writer {
+		private final Writer out;
+
+		private GuardedWriter(Writer out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(char[] buffer, int off, int len) throws IOException {
+			synchronized (GuardedResponse.this) {
+				if (!finished) {
+					out.write(buffer, off, len);
+				}
+			}
+		}
+
+		@Override
+		public void write(String text, int off, int len) throws IOException {
+			synchronized (GuardedResponse.this) {
+				if (!finished) {
+					out.write(text, off, len);
+				}
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			synchronized (GuardedResponse.this) {
+				if (!finished) {
+					out.flush();
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			synchronized (GuardedResponse.this) {
+				if (!finished) {
+					out.close();
+				}
+			}
+		}
+	}
+}
@@ -2,7 +2,6 @@ package com.college.controller;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -11,7 +10,7 @@ import java.io.IOException;
  * @author Prithivi Maharjan
  */
 @WebServlet(asyncSupported = true, urlPatterns = {"/home", "/"})
-public class HomeController extends HttpServlet {
+public class HomeController extends AsyncHttpServlet {
 	private static final long serialVersionUID = 1L;
    
 	protected void doGet(HttpServletRequest request, HttpServletResponse response) 
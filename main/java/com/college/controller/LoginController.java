@@ -1,15 +1,16 @@
 package com.college.controller;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.college.model.StudentModel;
 import com.college.service.LoginService;
+import com.college.service.LoginThrottle;
 import com.college.util.CookieUtil;
 import com.college.util.SessionUtil;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -18,9 +19,12 @@ import jakarta.servlet.http.HttpServletResponse;
  * the LoginService to authenticate users.
  */
 @WebServlet(asyncSupported = true, urlPatterns = { "/login" })
-public class LoginController extends HttpServlet {
+public class LoginController extends AsyncHttpServlet {
 	private static final long serialVersionUID = 1L;
 
+	// Seconds a client is asked to wait when password checks are saturated
+	private static final int BUSY_RETRY_AFTER_SECONDS = 2;
+
 	private final LoginService loginService;
 
 	/**
@@ -57,8 +61,21 @@ public class LoginController extends HttpServlet {
 		String username = req.getParameter("username");
 		String password = req.getParameter("password");
 
+		// Refuse throttled attempts before any database or password work
+		long retryAfterMillis = LoginThrottle.getInstance().tryAcquire(username, req.getRemoteAddr());
+		if (retryAfterMillis > 0) {
+			handleThrottled(req, resp, retryAfterMillis);
+			return;
+		}
+
 		StudentModel studentModel = new StudentModel(username, password);
-		Boolean loginStatus = loginService.loginUser(studentModel);
+		Boolean loginStatus;
+		try {
+			loginStatus = loginService.loginUser(studentModel);
+		} catch (RejectedExecutionException e) {
+			handleBusy(req, resp);
+			return;
+		}
 
 		if (loginStatus != null && loginStatus) {
 			SessionUtil.setAttribute(req, "username", username);
@@ -96,4 +113,40 @@ public class LoginController extends HttpServlet {
 		req.getRequestDispatcher("/WEB-INF/pages/login.jsp").forward(req, resp);
 	}
 
+	/**
+	 * Answers with 429 and the login page when the username or address has made
+	 * too many attempts recently.
+	 *
+	 * @param req              HttpServletRequest object
+	 * @param resp             HttpServletResponse object
+	 * @param retryAfterMillis time until the next attempt is allowed
+	 * @throws ServletException if a servlet-specific error occurs
+	 * @throws IOException      if an I/O error occurs
+	 */
+	private void handleThrottled(HttpServletRequest req, HttpServletResponse resp, long retryAfterMillis)
+			throws ServletException, IOException {
+		long retryAfterSeconds = (retryAfterMillis + 999) / 1000;
+		resp.setStatus(429); // Too Many Requests
+		resp.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+		req.setAttribute("error", "Too many login attempts. Please wait " + retryAfterSeconds
+				+ (retryAfterSeconds == 1 ? " second" : " seconds") + " and try again.");
+		req.getRequestDispatcher("/WEB-INF/pages/login.jsp").forward(req, resp);
+	}
+
+	/**
+	 * Answers with 503 and the login page when too many logins are already
+	 * waiting for their password check.
+	 *
+	 * @param req  HttpServletRequest object
+	 * @param resp HttpServletResponse object
+	 * @throws ServletException if a servlet-specific error occurs
+	 * @throws IOException      if an I/O error occurs
+	 */
+	private void handleBusy(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+		resp.setIntHeader("Retry-After", BUSY_RETRY_AFTER_SECONDS);
+		req.setAttribute("error", "Many people are signing in right now. Please try again in a few seconds.");
+		req.getRequestDispatcher("/WEB-INF/pages/login.jsp").forward(req, resp);
+	}
+
 }
\ No newline at end of file
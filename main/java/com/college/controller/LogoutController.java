@@ -2,7 +2,6 @@ package com.college.controller;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -14,7 +13,7 @@ import com.college.util.SessionUtil;
  * Servlet implementation class LogoutController
  */
 @WebServlet(asyncSupported = true, urlPatterns = {"/logout"})
-public class LogoutController extends HttpServlet {
+public class LogoutController extends AsyncHttpServlet {
 	private static final long serialVersionUID = 1L;
 
 	protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
@@ -0,0 +1,306 @@
+package com.college.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import com.college.util.ImagePipeline;
+import com.college.util.PhotoStore;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * PhotoController serves photos from the {@link PhotoStore}.
+ * <p>
+ * {@code GET /photos/<folder>/<key>} returns the original and
+ * {@code GET /photos/<folder>/<variant>/<key>} one of its
+ * {@link ImagePipeline.Variant variants}, so URLs do not depend on how the
+ * store lays out its files. Every response carries a strong {@code ETag} and
+ * {@code Last-Modified}; {@code If-None-Match} and {@code If-Modified-Since}
+ * are answered with 304, and a single byte range is served with 206.
+ * </p>
+ * <p>
+ * A content key never changes its bytes, so photos stored under one may be
+ * cached by the browser for a year without revalidation. Photos stored under a
+ * plain file name, and a variant requested before it exists (which is answered
+ * with the original), must be revalidated on every use.
+ * </p>
+ * <p>
+ * A range of at least 48 KB is handed to the container's sendfile support when
+ * it has one, and only then are its bytes not read through the heap. Smaller
+ * ranges, which include every thumbnail and list variant, and all ranges on a
+ * container without sendfile, are copied with {@link FileChannel#transferTo}
+ * into the servlet output stream, which goes through a heap buffer. This
+ * servlet stays on the container thread, because sendfile is only taken up for
+ * requests that are not asynchronous.
+ * </p>
+ */
+@WebServlet(urlPatterns = { "/photos/*" })
+public class PhotoController extends HttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	private static final String IMMUTABLE = "private, max-age=31536000, immutable";
+	private static final String REVALIDATE = "private, no-cache";
+
+	// Result of parseRange for a range that starts past the end of the photo
+	private static final long[] RANGE_NOT_SATISFIABLE = new long[0];
+
+	// Tomcat's sendfile request attributes
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+	// Smaller files are cheaper to copy than to hand over
+	private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		serve(req, resp, true);
+	}
+
+	@Override
+	protected void doHead(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		serve(req, resp, false);
+	}
+
+	private void serve(HttpServletRequest req, HttpServletResponse resp, boolean sendBody) throws IOException {
+		Photo photo = resolve(req.getPathInfo());
+		BasicFileAttributes attributes;
+		try {
+			attributes = photo != null ? Files.readAttributes(photo.path, BasicFileAttributes.class) : null;
+		} catch (NoSuchFileException e) {
+			attributes = null;
+		}
+		if (attributes == null || !attributes.isRegularFile()) {
+			resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		long size = attributes.size();
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		// The hash identifies an original's bytes; anything else is identified by size and time
+		String etag = photo.contentKey != null && photo.path.getFileName().toString().equals(photo.contentKey)
+				? "\"" + photo.contentKey.substring(0, photo.contentKey.indexOf('.')) + "\""
+				: "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+		resp.setHeader("ETag", etag);
+		resp.setDateHeader("Last-Modified", lastModified);
+		resp.setHeader("Cache-Control", photo.contentKey != null && photo.exact ? IMMUTABLE : REVALIDATE);
+		resp.setHeader("Accept-Ranges", "bytes");
+		resp.setHeader("X-Content-Type-Options", "nosniff");
+
+		if (isNotModified(req, etag, lastModified)) {
+			resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		String contentType = getServletContext().getMimeType(photo.path.getFileName().toString());
+		resp.setContentType(contentType != null ? contentType : "application/octet-stream");
+
+		long start = 0;
+		long end = size;
+		String range = req.getHeader("Range");
+		if (range != null && isRangeCurrent(req, etag, lastModified)) {
+			long[] bounds = parseRange(range, size);
+			if (bounds == RANGE_NOT_SATISFIABLE) {
+				resp.setHeader("Content-Range", "bytes */" + size);
+				resp.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+				return;
+			}
+			if (bounds != null) {
+				start = bounds[0];
+				end = bounds[1];
+				resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+				resp.setHeader("Content-Range", "bytes " + start + "-" + (end - 1) + "/" + size);
+			}
+		}
+		resp.setContentLengthLong(end - start);
+		if (sendBody && end > start) {
+			send(req, resp, photo.path, start, end);
+		}
+	}
+
+	/**
+	 * Maps a path of the form {@code /<folder>/<key>} or
+	 * {@code /<folder>/<variant>/<key>} to a file.
+	 */
+	private static Photo resolve(String pathInfo) {
+		if (pathInfo == null) {
+			return null;
+		}
+		String[] segments = pathInfo.substring(1).split("/", -1);
+		if (segments.length < 2 || segments.length > 3) {
+			return null;
+		}
+		String folder = segments[0];
+		String key = segments[segments.length - 1];
+		Path original = PhotoStore.getInstance().resolve(folder, key);
+		if (original == null) {
+			return null;
+		}
+		String contentKey = PhotoStore.isContentKey(key) ? key : null;
+		if (segments.length == 2) {
+			return new Photo(original, contentKey, true);
+		}
+
+		for (ImagePipeline.Variant variant : ImagePipeline.Variant.values()) {
+			if (variant.getFolder().equals(segments[1])) {
+				Path variantPath = ImagePipeline.getVariantPath(original, variant);
+				if (Files.isRegularFile(variantPath)) {
+					return new Photo(variantPath, contentKey, true);
+				}
+				// Not created yet; the original stands in, but must not be cached as the variant
+				return new Photo(original, contentKey, false);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Evaluates {@code If-None-Match}, or {@code If-Modified-Since} when there is
+	 * none.
+	 */
+	private static boolean isNotModified(HttpServletRequest req, String etag, long lastModified) {
+		String ifNoneMatch = req.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			return matches(ifNoneMatch, etag);
+		}
+		long ifModifiedSince = getDateHeader(req, "If-Modified-Since");
+		// HTTP dates have whole seconds
+		return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+	}
+
+	/**
+	 * @return false if an {@code If-Range} header names an older version, in
+	 *         which case the whole photo is sent
+	 */
+	private static boolean isRangeCurrent(HttpServletRequest req, String etag, long lastModified) {
+		String ifRange = req.getHeader("If-Range");
+		if (ifRange == null) {
+			return true;
+		}
+		ifRange = ifRange.trim();
+		if (ifRange.startsWith("\"")) {
+			return ifRange.equals(etag);
+		}
+		long date = getDateHeader(req, "If-Range");
+		return date >= 0 && lastModified / 1000 == date / 1000;
+	}
+
+	private static boolean matches(String ifNoneMatch, String etag) {
+		for (String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals("*") || tag.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static long getDateHeader(HttpServletRequest req, String name) {
+		try {
+			return req.getDateHeader(name);
+		} catch (IllegalArgumentException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Parses a single byte range.
+	 *
+	 * @return the start and exclusive end, null to ignore the header (it is not
+	 *         a single byte range), or {@link #RANGE_NOT_SATISFIABLE}
+	 */
+	private static long[] parseRange(String header, long size) {
+		String value = header.trim();
+		if (!value.startsWith("bytes=") || value.indexOf(',') >= 0) {
+			return null;
+		}
+		String spec = value.substring("bytes=".length()).trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return null;
+		}
+		try {
+			String first = spec.substring(0, dash).trim();
+			String last = spec.substring(dash + 1).trim();
+			if (first.isEmpty()) {
+				// Suffix range: the last n bytes
+				long suffix = Long.parseLong(last);
+				if (suffix <= 0 || size == 0) {
+					return RANGE_NOT_SATISFIABLE;
+				}
+				return new long[] { Math.max(0, size - suffix), size };
+			}
+			long start = Long.parseLong(first);
+			long end = size;
+			if (!last.isEmpty()) {
+				long lastByte = Long.parseLong(last);
+				if (lastByte < start) {
+					return null;
+				}
+				end = Math.min(size, lastByte + 1);
+			}
+			return start < size ? new long[] { start, end } : RANGE_NOT_SATISFIABLE;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Sends bytes {@code start} to {@code end} of a file. Without sendfile the
+	 * output stream is not a file or socket channel, so transferTo copies the
+	 * bytes through a buffer.
+	 */
+	private static void send(HttpServletRequest req, HttpServletResponse resp, Path path, long start, long end)
+			throws IOException {
+		if (end - start >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORT))) {
+			req.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+			req.setAttribute(SENDFILE_START, start);
+			req.setAttribute(SENDFILE_END, end);
+			return;
+		}
+
+		try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+			WritableByteChannel out = Channels.newChannel(resp.getOutputStream());
+			long position = start;
+			while (position < end) {
+				long sent = file.transferTo(position, end - position, out);
+				if (sent <= 0) {
+					break;
+				}
+				position += sent;
+			}
+		}
+	}
+
+	/**
+	 * A file to serve and whether it may be cached as immutable.
+	 */
+	private static final class Photo {
+		private final Path path;
+		// The content key of the original, or null for a plain file name
+		private final String contentKey;
+		// False when the original stands in for a missing variant
+		private final boolean exact;
+
+		private Photo(Path path, String contentKey, boolean exact) {
+			this.path = path;
+			this.contentKey = contentKey;
+			this.exact = exact;
+		}
+	}
+}
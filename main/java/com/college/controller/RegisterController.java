@@ -2,18 +2,24 @@ package com.college.controller;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.college.config.CryptoExecutor;
+import com.college.config.UploadBudget;
 import com.college.model.ProgramModel;
 import com.college.model.StudentModel;
+import com.college.service.AccountAvailability;
 import com.college.service.RegisterService;
+import com.college.util.FormRules;
 import com.college.util.ImageUtil;
 import com.college.util.PasswordUtil;
-import com.college.util.ValidationUtil;
+import com.college.util.PhotoStore;
+import com.college.util.UploadRejectedException;
+import com.college.util.UploadSessions;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.annotation.WebServlet;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.Part;
@@ -23,12 +29,18 @@ import jakarta.servlet.http.Part;
  * submissions. It also manages file uploads and account creation.
  */
 @WebServlet(asyncSupported = true, urlPatterns = { "/register" })
-@MultipartConfig(fileSizeThreshold = 1024 * 1024 * 2, // 2MB
-		maxFileSize = 1024 * 1024 * 10, // 10MB
-		maxRequestSize = 1024 * 1024 * 50) // 50MB
-public class RegisterController extends HttpServlet {
+@MultipartConfig(fileSizeThreshold = UploadBudget.MEMORY_THRESHOLD, // 64KB
+		maxFileSize = ImageUtil.MAX_IMAGE_SIZE, // 10MB
+		maxRequestSize = ImageUtil.MAX_IMAGE_REQUEST_SIZE) // 11MB
+public class RegisterController extends AsyncHttpServlet {
 	private static final long serialVersionUID = 1L;
 
+	// Seconds a client is asked to wait when password hashing or uploads are saturated
+	private static final int BUSY_RETRY_AFTER_SECONDS = 2;
+
+	// Form field naming a photo already sent to UploadController in chunks
+	private static final String UPLOAD_ID = "imageUpload";
+
 	private final ImageUtil imageUtil = new ImageUtil();
 	private final RegisterService registerService = new RegisterService();
 
@@ -39,6 +51,29 @@ public class RegisterController extends HttpServlet {
 
 	@Override
 	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		// Admit the upload before any parameter is read, which would buffer the body
+		long uploadSize = UploadBudget.getDeclaredSize(req, ImageUtil.MAX_IMAGE_REQUEST_SIZE);
+		if (uploadSize > ImageUtil.MAX_IMAGE_REQUEST_SIZE) {
+			resp.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+			handleRejectedUpload(req, resp, "The image is too large. The limit is 10 MB.");
+			return;
+		}
+		UploadBudget.Permit permit;
+		try {
+			permit = UploadBudget.acquire(uploadSize);
+		} catch (RejectedExecutionException e) {
+			resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			resp.setIntHeader("Retry-After", BUSY_RETRY_AFTER_SECONDS);
+			handleRejectedUpload(req, resp, "Many people are registering right now. Please try again in a few seconds.");
+			return;
+		}
+
+		try (permit) {
+			register(req, resp);
+		}
+	}
+
+	private void register(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 		try {
 			// Validate and extract student model
 			String validationMessage = validateRegistrationForm(req);
@@ -47,103 +82,126 @@ public class RegisterController extends HttpServlet {
 				return;
 			}
 
-			StudentModel studentModel = extractStudentModel(req);
+			// Reject taken names before the password is hashed
+			String availabilityMessage = checkAvailability(req);
+			if (availabilityMessage != null) {
+				handleError(req, resp, availabilityMessage);
+				return;
+			}
+
+			// Store the photo first so the account is saved with its content key
+			PhotoStore.StoredPhoto photo;
+			try {
+				photo = storeImage(req);
+			} catch (UploadRejectedException e) {
+				handleError(req, resp, e.getMessage());
+				return;
+			} catch (IOException | ServletException e) {
+				handleError(req, resp, "An error occurred while uploading the image. Please try again later!");
+				e.printStackTrace(); // Log the exception
+				return;
+			}
+			if (photo == null) {
+				handleError(req, resp, "Could not upload the image. Please try again later!");
+				return;
+			}
+
+			StudentModel studentModel = extractStudentModel(req, photo.getKey());
+			if (studentModel == null) {
+				// An account without a password hash could never log in
+				handleError(req, resp, "Could not secure your password. Please try again later!");
+				return;
+			}
 			Boolean isAdded = registerService.addStudent(studentModel);
+			if (Boolean.TRUE.equals(isAdded)) {
+				imageUtil.publishImage(photo);
+				endUpload(req);
+			}
+			// Otherwise the photo is left to the photo sweep, and a chunked upload
+			// stays open so the form can be sent again without it
 
 			if (isAdded == null) {
 				handleError(req, resp, "Our server is under maintenance. Please try again later!");
 			} else if (isAdded) {
-				try {
-					if (uploadImage(req)) {
-						handleSuccess(req, resp, "Your account is successfully created!", "/WEB-INF/pages/login.jsp");
-					} else {
-						handleError(req, resp, "Could not upload the image. Please try again later!");
-					}
-				} catch (IOException | ServletException e) {
-					handleError(req, resp, "An error occurred while uploading the image. Please try again later!");
-					e.printStackTrace(); // Log the exception
-				}
+				handleSuccess(req, resp, "Your account is successfully created!", "/WEB-INF/pages/login.jsp");
 			} else {
-				handleError(req, resp, "Could not register your account. Please try again later!");
+				handleError(req, resp, "This username or email has just been registered. Please choose another.");
 			}
+		} catch (RejectedExecutionException e) {
+			resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			resp.setIntHeader("Retry-After", BUSY_RETRY_AFTER_SECONDS);
+			handleError(req, resp, "Many people are registering right now. Please try again in a few seconds.");
 		} catch (Exception e) {
 			handleError(req, resp, "An unexpected error occurred. Please try again later!");
 			e.printStackTrace(); // Log the exception
 		}
 	}
 
+	/**
+	 * Validates every field of the registration form in one pass.
+	 *
+	 * @param req the registration request
+	 * @return all field errors as one message, or null if the form is valid
+	 */
 	private String validateRegistrationForm(HttpServletRequest req) {
-		String firstName = req.getParameter("firstName");
-		String lastName = req.getParameter("lastName");
-		String username = req.getParameter("username");
-		String dobStr = req.getParameter("dob");
-		String gender = req.getParameter("gender");
-		String email = req.getParameter("email");
-		String number = req.getParameter("phoneNumber");
-		String subject = req.getParameter("subject");
-		String password = req.getParameter("password");
-		String retypePassword = req.getParameter("retypePassword");
-
-		// Check for null or empty fields first
-		if (ValidationUtil.isNullOrEmpty(firstName))
-			return "First name is required.";
-		if (ValidationUtil.isNullOrEmpty(lastName))
-			return "Last name is required.";
-		if (ValidationUtil.isNullOrEmpty(username))
-			return "Username is required.";
-		if (ValidationUtil.isNullOrEmpty(dobStr))
-			return "Date of birth is required.";
-		if (ValidationUtil.isNullOrEmpty(gender))
-			return "Gender is required.";
-		if (ValidationUtil.isNullOrEmpty(email))
-			return "Email is required.";
-		if (ValidationUtil.isNullOrEmpty(number))
-			return "Phone number is required.";
-		if (ValidationUtil.isNullOrEmpty(subject))
-			return "Subject is required.";
-		if (ValidationUtil.isNullOrEmpty(password))
-			return "Password is required.";
-		if (ValidationUtil.isNullOrEmpty(retypePassword))
-			return "Please retype the password.";
-
-		// Convert date of birth
-		LocalDate dob;
-		try {
-			dob = LocalDate.parse(dobStr);
-		} catch (Exception e) {
-			return "Invalid date format. Please use YYYY-MM-DD.";
+		String imageName;
+		String uploadId = req.getParameter(UPLOAD_ID);
+		if (uploadId != null && !uploadId.isEmpty()) {
+			UploadSessions.Session upload = UploadSessions.getInstance().get(uploadId);
+			if (upload == null) {
+				return "The uploaded image has expired. Please choose it again.";
+			}
+			imageName = upload.getFileName();
+		} else {
+			try {
+				Part image = req.getPart("image");
+				imageName = image != null ? image.getSubmittedFileName() : null;
+			} catch (IOException | ServletException e) {
+				return "Error handling image file. Please ensure the file is valid.";
+			}
 		}
 
-		// Validate fields
-		if (!ValidationUtil.isAlphanumericStartingWithLetter(username))
-			return "Username must start with a letter and contain only letters and numbers.";
-		if (!ValidationUtil.isValidGender(gender))
-			return "Gender must be 'male' or 'female'.";
-		if (!ValidationUtil.isValidEmail(email))
-			return "Invalid email format.";
-		if (!ValidationUtil.isValidPhoneNumber(number))
-			return "Phone number must be 10 digits and start with 98.";
-		if (!ValidationUtil.isValidPassword(password))
-			return "Password must be at least 8 characters long, with 1 uppercase letter, 1 number, and 1 symbol.";
-		if (!ValidationUtil.doPasswordsMatch(password, retypePassword))
-			return "Passwords do not match.";
-
-		// Check if the date of birth is at least 16 years before today
-		if (!ValidationUtil.isAgeAtLeast16(dob))
-			return "You must be at least 16 years old to register.";
+		return FormRules.REGISTRATION
+				.validate(field -> FormRules.IMAGE.equals(field) ? imageName : req.getParameter(field)).getMessage();
+	}
 
-		try {
-			Part image = req.getPart("image");
-			if (!ValidationUtil.isValidImageExtension(image))
-				return "Invalid image format. Only jpg, jpeg, png, and gif are allowed.";
-		} catch (IOException | ServletException e) {
-			return "Error handling image file. Please ensure the file is valid.";
+	/**
+	 * Checks that the username and email are not used by another account.
+	 *
+	 * @param req the registration request
+	 * @return the error message, or null if both are free
+	 */
+	private String checkAvailability(HttpServletRequest req) {
+		AccountAvailability availability = AccountAvailability.getInstance();
+		Boolean usernameFree = availability.isUsernameAvailable(req.getParameter("username"));
+		if (usernameFree == null) {
+			return "Our server is under maintenance. Please try again later!";
+		}
+		if (!usernameFree) {
+			return "This username is already taken. Please choose another.";
 		}
 
-		return null; // All validations passed
+		Boolean emailFree = availability.isEmailAvailable(req.getParameter("email"));
+		if (emailFree == null) {
+			return "Our server is under maintenance. Please try again later!";
+		}
+		if (!emailFree) {
+			return "An account with this email already exists.";
+		}
+		return null;
 	}
 
-	private StudentModel extractStudentModel(HttpServletRequest req) throws Exception {
+	/**
+	 * Builds the student to insert, with the password hashed on the crypto
+	 * executor.
+	 *
+	 * @param req      the registration request
+	 * @param imageKey the content key of the stored photo
+	 * @return the student, or null if the password could not be hashed
+	 * @throws Exception if a field cannot be parsed or the crypto executor is
+	 *                   saturated
+	 */
+	private StudentModel extractStudentModel(HttpServletRequest req, String imageKey) throws Exception {
 		String firstName = req.getParameter("firstName");
 		String lastName = req.getParameter("lastName");
 		String username = req.getParameter("username");
@@ -156,19 +214,41 @@ public class RegisterController extends HttpServlet {
 		String password = req.getParameter("password");
 
 		// Assuming password validation is already done in validateRegistrationForm
-		password = PasswordUtil.encrypt(username, password);
-
-		Part image = req.getPart("image");
-		String imageUrl = imageUtil.getImageNameFromPart(image);
+		String plainPassword = password;
+		password = CryptoExecutor.execute(() -> PasswordUtil.hash(plainPassword));
+		if (password == null) {
+			return null;
+		}
 
 		ProgramModel programModel = new ProgramModel(subject);
 		return new StudentModel(firstName, lastName, username, dob, gender, email, number, password, programModel,
-				imageUrl);
+				imageKey);
 	}
 
-	private boolean uploadImage(HttpServletRequest req) throws IOException, ServletException {
+	/**
+	 * Stores the photo, either from a completed chunked upload named in the
+	 * form or from the form's file part. Its variants are queued only once the
+	 * account is saved.
+	 *
+	 * @return the stored photo, or null if it could not be stored
+	 */
+	private PhotoStore.StoredPhoto storeImage(HttpServletRequest req) throws IOException, ServletException {
+		String uploadId = req.getParameter(UPLOAD_ID);
+		if (uploadId != null && !uploadId.isEmpty()) {
+			return imageUtil.storeImage(uploadId, "student");
+		}
 		Part image = req.getPart("image");
-		return imageUtil.uploadImage(image, req.getServletContext().getRealPath("/"), "student");
+		return imageUtil.storeImage(image, "student");
+	}
+
+	/**
+	 * Ends the chunked upload of a registered account, if it used one.
+	 */
+	private void endUpload(HttpServletRequest req) {
+		String uploadId = req.getParameter(UPLOAD_ID);
+		if (uploadId != null && !uploadId.isEmpty()) {
+			UploadSessions.getInstance().remove(uploadId);
+		}
 	}
 
 	private void handleSuccess(HttpServletRequest req, HttpServletResponse resp, String message, String redirectPage)
@@ -177,6 +257,16 @@ public class RegisterController extends HttpServlet {
 		req.getRequestDispatcher(redirectPage).forward(req, resp);
 	}
 
+	/**
+	 * Shows an error for an upload that was refused before its body was read.
+	 * The form cannot be refilled, since reading it would receive the upload.
+	 */
+	private void handleRejectedUpload(HttpServletRequest req, HttpServletResponse resp, String message)
+			throws ServletException, IOException {
+		req.setAttribute("error", message);
+		req.getRequestDispatcher("/WEB-INF/pages/register.jsp").forward(req, resp);
+	}
+
 	private void handleError(HttpServletRequest req, HttpServletResponse resp, String message)
 			throws ServletException, IOException {
 		req.setAttribute("error", message);
@@ -188,6 +278,11 @@ public class RegisterController extends HttpServlet {
 		req.setAttribute("email", req.getParameter("email"));
 		req.setAttribute("phoneNumber", req.getParameter("phoneNumber"));
 		req.setAttribute("subject", req.getParameter("subject"));
+		// Keep a chunked upload that is still open, so the photo is not sent again
+		String uploadId = req.getParameter(UPLOAD_ID);
+		if (uploadId != null && UploadSessions.getInstance().get(uploadId) != null) {
+			req.setAttribute(UPLOAD_ID, uploadId);
+		}
 		req.getRequestDispatcher("/WEB-INF/pages/register.jsp").forward(req, resp);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.college.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.college.config.UploadBudget;
+import com.college.util.ImageUtil;
+import com.college.util.JsonUtil;
+import com.college.util.UploadRejectedException;
+import com.college.util.UploadSessions;
+import com.college.util.ValidationUtil;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * UploadController receives photos in resumable chunks, so a dropped
+ * connection only costs the chunk in flight instead of the whole registration
+ * form.
+ * <ul>
+ * <li>{@code POST /uploads} with {@code name} and {@code size} opens a session
+ * and answers with its {@code id}, {@code chunkSize} and
+ * {@code chunkCount}.</li>
+ * <li>{@code PUT /uploads/<id>/<index>} stores one chunk; its CRC32C is sent
+ * as 8 hex digits in the {@code X-Chunk-Checksum} header.</li>
+ * <li>{@code GET /uploads/<id>} lists the chunks received so far, to resume
+ * after a disconnect.</li>
+ * <li>{@code DELETE /uploads/<id>} abandons the upload.</li>
+ * </ul>
+ * The completed upload is handed over by sending its id in the form's
+ * {@code imageUpload} field instead of the file.
+ */
+@WebServlet(asyncSupported = true, urlPatterns = { "/uploads", "/uploads/*" })
+public class UploadController extends AsyncHttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	private static final String CHECKSUM_HEADER = "X-Chunk-Checksum";
+
+	// Seconds a client is asked to wait when uploads are saturated
+	private static final int BUSY_RETRY_AFTER_SECONDS = 2;
+
+	@Override
+	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		if (req.getPathInfo() != null && !"/".equals(req.getPathInfo())) {
+			resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+		String name = req.getParameter("name");
+		long size;
+		try {
+			size = Long.parseLong(req.getParameter("size"));
+		} catch (NumberFormatException e) {
+			writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "The file size is missing.");
+			return;
+		}
+		if (!ValidationUtil.isValidImageFileName(name)) {
+			writeError(resp, HttpServletResponse.SC_BAD_REQUEST,
+					"Invalid image format. Only jpg, jpeg, png, and gif are allowed.");
+			return;
+		}
+
+		UploadSessions.Session session;
+		try {
+			session = UploadSessions.getInstance().create(name, size, ImageUtil.MAX_IMAGE_SIZE,
+					req.getRemoteAddr());
+		} catch (UploadRejectedException e) {
+			writeError(resp, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+			return;
+		}
+		resp.setStatus(HttpServletResponse.SC_CREATED);
+		writeJson(resp, "{" + JsonUtil.quote("id") + ":" + JsonUtil.quote(session.getId()) + ","
+				+ JsonUtil.quote("chunkSize") + ":" + session.getChunkSize() + "," + JsonUtil.quote("chunkCount") + ":"
+				+ session.getChunkCount() + "}");
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		String[] path = parsePath(req);
+		UploadSessions.Session session = path.length == 1 ? UploadSessions.getInstance().get(path[0]) : null;
+		if (session == null) {
+			resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		StringBuilder json = new StringBuilder("{");
+		json.append(JsonUtil.quote("id")).append(':').append(JsonUtil.quote(session.getId())).append(',');
+		json.append(JsonUtil.quote("size")).append(':').append(session.getSize()).append(',');
+		json.append(JsonUtil.quote("chunkSize")).append(':').append(session.getChunkSize()).append(',');
+		json.append(JsonUtil.quote("chunkCount")).append(':').append(session.getChunkCount()).append(',');
+		json.append(JsonUtil.quote("received")).append(":[");
+		int[] received = session.getReceivedChunks();
+		for (int i = 0; i < received.length; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append(received[i]);
+		}
+		json.append("]}");
+		writeJson(resp, json.toString());
+	}
+
+	@Override
+	protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		String[] path = parsePath(req);
+		UploadSessions.Session session = path.length == 2 ? UploadSessions.getInstance().get(path[0]) : null;
+		int index;
+		try {
+			index = path.length == 2 ? Integer.parseInt(path[1]) : -1;
+		} catch (NumberFormatException e) {
+			index = -1;
+		}
+		if (session == null || index < 0 || index >= session.getChunkCount()) {
+			resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		UploadBudget.Permit permit;
+		try {
+			permit = UploadBudget.acquire(session.getChunkLength(index));
+		} catch (RejectedExecutionException e) {
+			resp.setIntHeader("Retry-After", BUSY_RETRY_AFTER_SECONDS);
+			writeError(resp, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+					"Too many uploads are in progress. Please try again in a few seconds.");
+			return;
+		}
+		try (permit; InputStream body = req.getInputStream()) {
+			UploadSessions.getInstance().writeChunk(session, index, body, req.getHeader(CHECKSUM_HEADER));
+			resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+		} catch (UploadRejectedException e) {
+			writeError(resp, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+		}
+	}
+
+	@Override
+	protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		String[] path = parsePath(req);
+		if (path.length != 1 || UploadSessions.getInstance().get(path[0]) == null) {
+			resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+		UploadSessions.getInstance().remove(path[0]);
+		resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+	}
+
+	/**
+	 * @return the segments after {@code /uploads/}, or none
+	 */
+	private static String[] parsePath(HttpServletRequest req) {
+		String pathInfo = req.getPathInfo();
+		if (pathInfo == null || pathInfo.length() <= 1) {
+			return new String[0];
+		}
+		return pathInfo.substring(1).split("/");
+	}
+
+	private static void writeError(HttpServletResponse resp, int status, String message) throws IOException {
+		resp.setStatus(status);
+		writeJson(resp, "{" + JsonUtil.quote("error") + ":" + JsonUtil.quote(message) + "}");
+	}
+
+	private static void writeJson(HttpServletResponse resp, String json) throws IOException {
+		resp.setHeader("Cache-Control", "no-store");
+		resp.setCharacterEncoding("UTF-8");
+		resp.setContentType("application/json");
+		resp.getWriter().write(json);
+	}
+}
@@ -2,11 +2,11 @@ package com.college.controller.admin;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
+import com.college.controller.AsyncHttpServlet;
 import com.college.model.ProgramModel;
 import com.college.model.StudentModel;
 import com.college.service.DashboardService;
@@ -20,7 +20,7 @@ import com.college.service.DashboardService;
  * parameters.
  */
 @WebServlet(asyncSupported = true, urlPatterns = { "/dashboard" })
-public class DashboardController extends HttpServlet {
+public class DashboardController extends AsyncHttpServlet {
 	private static final long serialVersionUID = 1L;
 
 	// Instance of DashboardService for handling business logic
@@ -48,10 +48,7 @@ public class DashboardController extends HttpServlet {
 		// Retrieve all student information from the DashboardService
 		request.setAttribute("studentList", dashboardService.getRecentStudents());
 
-		request.setAttribute("total", dashboardService.getTotalStudents());
-		request.setAttribute("computing", dashboardService.getComputingStudents());
-		request.setAttribute("multimedia", dashboardService.getMultimediaStudents());
-		request.setAttribute("networking", dashboardService.getNetworkingStudents());
+		request.setAttribute("stats", dashboardService.getDashboardStats());
 
 		// Forward the request to the dashboard JSP for rendering
 		request.getRequestDispatcher("/WEB-INF/pages/admin/dashboard.jsp").forward(request, response);
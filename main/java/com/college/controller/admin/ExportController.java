@@ -0,0 +1,214 @@
+package com.college.controller.admin;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.college.controller.AsyncHttpServlet;
+import com.college.model.StudentModel;
+import com.college.service.DashboardService;
+import com.college.util.CsvUtil;
+import com.college.util.JsonUtil;
+import com.college.util.ValidationUtil;
+
+/**
+ * Servlet that exports the student roster as CSV or newline-delimited JSON.
+ *
+ * Students are written to the response as they are read from the database, so
+ * the export never holds the whole roster in memory. The response has no
+ * content length and is sent with chunked transfer encoding. If the database
+ * fails once part of the file is sent, the connection is dropped so the client
+ * sees a failed download rather than a truncated file.
+ *
+ * Query parameters: {@code format} is {@code csv} (default) or {@code json};
+ * {@code columns} is an optional comma-separated subset of id, firstName,
+ * lastName, email, number and program.
+ */
+@WebServlet(asyncSupported = true, urlPatterns = { "/exportStudents" })
+public class ExportController extends AsyncHttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	// Time allowed for one request before it is answered with 503
+	private static final long LONG_REQUEST_TIMEOUT_MS = 15 * 60_000;
+
+	// Size of the response buffer flushed to the client as one chunk
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	/**
+	 * Columns that can be exported.
+	 */
+	private enum Column {
+		ID("id"), FIRST_NAME("firstName"), LAST_NAME("lastName"), EMAIL("email"), NUMBER("number"),
+		PROGRAM("program");
+
+		private final String label;
+
+		Column(String label) {
+			this.label = label;
+		}
+
+		private String valueOf(StudentModel student) {
+			switch (this) {
+			case ID:
+				return String.valueOf(student.getId());
+			case FIRST_NAME:
+				return student.getFirstName();
+			case LAST_NAME:
+				return student.getLastName();
+			case EMAIL:
+				return student.getEmail();
+			case NUMBER:
+				return student.getNumber();
+			default:
+				return student.getProgram() != null ? student.getProgram().getName() : null;
+			}
+		}
+
+		private static Column fromLabel(String label) {
+			for (Column column : values()) {
+				if (column.label.equalsIgnoreCase(label)) {
+					return column;
+				}
+			}
+			return null;
+		}
+	}
+
+	// Instance of DashboardService for reading the roster
+	private DashboardService dashboardService;
+
+	/**
+	 * Default constructor initializes the DashboardService instance.
+	 */
+	public ExportController() {
+		this.dashboardService = new DashboardService();
+	}
+
+	/**
+	 * Allows a long-running request while the whole roster is streamed.
+	 */
+	@Override
+	protected long getAsyncTimeout(HttpServletRequest request) {
+		return LONG_REQUEST_TIMEOUT_MS;
+	}
+
+	/**
+	 * Handles HTTP GET requests by streaming the roster in the requested format.
+	 *
+	 * @param request  The HttpServletRequest object containing the request data.
+	 * @param response The HttpServletResponse object used to return the response.
+	 * @throws ServletException If an error occurs during request processing.
+	 * @throws IOException      If an input or output error occurs.
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		boolean json = "json".equalsIgnoreCase(request.getParameter("format"));
+		List<Column> columns = parseColumns(request.getParameter("columns"));
+		if (columns == null) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown column in: " + request.getParameter("columns"));
+			return;
+		}
+
+		response.setBufferSize(BUFFER_SIZE);
+		response.setCharacterEncoding("UTF-8");
+		response.setContentType(json ? "application/x-ndjson" : "text/csv");
+		response.setHeader("Content-Disposition",
+				"attachment; filename=\"students." + (json ? "ndjson" : "csv") + "\"");
+
+		Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8),
+				BUFFER_SIZE);
+		if (!json) {
+			writeCsvHeader(writer, columns);
+		}
+
+		long count = dashboardService.streamAllStudents(student -> {
+			if (json) {
+				writeJsonRow(writer, columns, student);
+			} else {
+				writeCsvRow(writer, columns, student);
+			}
+		});
+
+		if (count < 0) {
+			if (!response.isCommitted()) {
+				// Nothing has reached the client yet, so a proper error can be sent
+				response.reset();
+				response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Could not export the students.");
+				return;
+			}
+			// Part of the file was sent. Failing makes the connection drop, so the
+			// download fails instead of ending as a complete-looking file.
+			throw new IOException("The student export failed after part of it was sent");
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Parses the requested columns.
+	 *
+	 * @param value the comma-separated column labels, or null for all columns
+	 * @return the columns in the requested order, or null if a label is unknown
+	 */
+	private List<Column> parseColumns(String value) {
+		List<Column> columns = new ArrayList<>();
+		if (ValidationUtil.isNullOrEmpty(value)) {
+			columns.addAll(List.of(Column.values()));
+			return columns;
+		}
+		for (String label : CsvUtil.parseLine(value)) {
+			Column column = Column.fromLabel(label);
+			if (column == null) {
+				return null;
+			}
+			if (!columns.contains(column)) {
+				columns.add(column);
+			}
+		}
+		return columns;
+	}
+
+	private void writeCsvHeader(Writer writer, List<Column> columns) throws IOException {
+		for (int i = 0; i < columns.size(); i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write(columns.get(i).label);
+		}
+		writer.write("\r\n");
+	}
+
+	private void writeCsvRow(Writer writer, List<Column> columns, StudentModel student) throws IOException {
+		for (int i = 0; i < columns.size(); i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			// Names and emails are self-registered and the file is opened in spreadsheets
+			writer.write(CsvUtil.escapeForSpreadsheet(columns.get(i).valueOf(student)));
+		}
+		writer.write("\r\n");
+	}
+
+	private void writeJsonRow(Writer writer, List<Column> columns, StudentModel student) throws IOException {
+		writer.write('{');
+		for (int i = 0; i < columns.size(); i++) {
+			Column column = columns.get(i);
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write(JsonUtil.quote(column.label));
+			writer.write(':');
+			writer.write(column == Column.ID ? String.valueOf(student.getId()) : JsonUtil.quote(column.valueOf(student)));
+		}
+		writer.write("}\n");
+	}
+}
@@ -0,0 +1,138 @@
+package com.college.controller.admin;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.MultipartConfig;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.college.config.UploadBudget;
+import com.college.controller.AsyncHttpServlet;
+import com.college.model.ImportResultModel;
+import com.college.service.StudentImportService;
+
+/**
+ * Servlet for importing students in bulk from a CSV file.
+ *
+ * The uploaded file is streamed row by row into the StudentImportService, and
+ * the import summary is shown on the import page.
+ */
+@WebServlet(asyncSupported = true, urlPatterns = { "/importStudents" })
+@MultipartConfig(fileSizeThreshold = UploadBudget.MEMORY_THRESHOLD, // 64KB
+		maxFileSize = 1024 * 1024 * 20, // 20MB
+		maxRequestSize = ImportController.MAX_REQUEST_SIZE) // 21MB
+public class ImportController extends AsyncHttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	// Time allowed for one request before it is answered with 503
+	private static final long LONG_REQUEST_TIMEOUT_MS = 15 * 60_000;
+
+	// Largest import request, in bytes
+	static final long MAX_REQUEST_SIZE = 1024 * 1024 * 21;
+
+	// Seconds a client is asked to wait when uploads are saturated
+	private static final int BUSY_RETRY_AFTER_SECONDS = 2;
+
+	// Service that validates, encrypts and inserts the imported students
+	private StudentImportService importService;
+
+	/**
+	 * Default constructor initializes the StudentImportService instance.
+	 */
+	public ImportController() {
+		this.importService = new StudentImportService();
+	}
+
+	/**
+	 * Allows a long-running request while a large file is imported.
+	 */
+	@Override
+	protected long getAsyncTimeout(HttpServletRequest request) {
+		return LONG_REQUEST_TIMEOUT_MS;
+	}
+
+	/**
+	 * Handles HTTP GET requests by showing the import page.
+	 *
+	 * @param request  The HttpServletRequest object containing the request data.
+	 * @param response The HttpServletResponse object used to return the response.
+	 * @throws ServletException If an error occurs during request processing.
+	 * @throws IOException      If an input or output error occurs.
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		request.getRequestDispatcher("/WEB-INF/pages/admin/import.jsp").forward(request, response);
+	}
+
+	/**
+	 * Handles HTTP POST requests by importing the uploaded CSV file and showing
+	 * the per-row result.
+	 *
+	 * @param request  The HttpServletRequest object containing the request data.
+	 * @param response The HttpServletResponse object used to return the response.
+	 * @throws ServletException If an error occurs during request processing.
+	 * @throws IOException      If an input or output error occurs.
+	 */
+	@Override
+	protected void doPost(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		// Admit the upload before the file part is read, which would buffer the body
+		long uploadSize = UploadBudget.getDeclaredSize(request, MAX_REQUEST_SIZE);
+		if (uploadSize > MAX_REQUEST_SIZE) {
+			response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+			request.setAttribute("error", "The file is too large. The limit is 20 MB.");
+			doGet(request, response);
+			return;
+		}
+		UploadBudget.Permit permit;
+		try {
+			permit = UploadBudget.acquire(uploadSize);
+		} catch (RejectedExecutionException e) {
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			response.setIntHeader("Retry-After", BUSY_RETRY_AFTER_SECONDS);
+			request.setAttribute("error", "Too many uploads are in progress. Please try again in a few seconds.");
+			doGet(request, response);
+			return;
+		}
+
+		try (permit) {
+			importFile(request, response);
+		}
+	}
+
+	private void importFile(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		Part file = request.getPart("file");
+		if (file == null || file.getSize() == 0) {
+			request.setAttribute("error", "Please choose a CSV file to import.");
+			doGet(request, response);
+			return;
+		}
+
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+			ImportResultModel result = importService.importStudents(reader);
+			request.setAttribute("result", result);
+			if (result.getFailed() == 0) {
+				request.setAttribute("success", result.getImported() + " students imported successfully.");
+			} else {
+				request.setAttribute("error", result.getImported() + " students imported, " + result.getFailed()
+						+ " rows rejected.");
+			}
+		} catch (IOException e) {
+			request.setAttribute("error", "Could not read the file: " + e.getMessage());
+		} finally {
+			file.delete();
+		}
+
+		doGet(request, response);
+	}
+}
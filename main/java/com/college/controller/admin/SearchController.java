@@ -0,0 +1,126 @@
+package com.college.controller.admin;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+import com.college.controller.AsyncHttpServlet;
+import com.college.model.StudentModel;
+import com.college.model.StudentSearchResultModel;
+import com.college.service.DashboardService;
+import com.college.service.ProgramCatalogue;
+import com.college.service.StudentSearchIndex;
+import com.college.util.JsonUtil;
+import com.college.util.ValidationUtil;
+
+/**
+ * Servlet for searching students by name, username, email or phone number.
+ *
+ * Results come from the in-memory {@link StudentSearchIndex}. With
+ * {@code suggest=true} the servlet answers with a JSON array of type-ahead
+ * suggestions; otherwise it shows a ranked page of results on the students
+ * page.
+ */
+@WebServlet(asyncSupported = true, urlPatterns = { "/searchStudents" })
+public class SearchController extends AsyncHttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	// Page size used when the request does not ask for one
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	// Upper bound on the page size a request may ask for
+	private static final int MAX_PAGE_SIZE = 200;
+	// Number of type-ahead suggestions returned
+	private static final int SUGGESTION_COUNT = 8;
+
+	// Instance of DashboardService for the statistics shown above the results
+	private DashboardService dashboardService;
+
+	/**
+	 * Default constructor initializes the DashboardService instance.
+	 */
+	public SearchController() {
+		this.dashboardService = new DashboardService();
+	}
+
+	/**
+	 * Handles HTTP GET requests by searching the index for the {@code q}
+	 * parameter.
+	 *
+	 * @param request  The HttpServletRequest object containing the request data.
+	 * @param response The HttpServletResponse object used to return the response.
+	 * @throws ServletException If an error occurs during request processing.
+	 * @throws IOException      If an input or output error occurs.
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		String query = request.getParameter("q");
+		if ("true".equalsIgnoreCase(request.getParameter("suggest"))) {
+			writeSuggestions(response, StudentSearchIndex.getInstance().suggest(query, SUGGESTION_COUNT));
+			return;
+		}
+
+		if (ValidationUtil.isNullOrEmpty(query)) {
+			response.sendRedirect(request.getContextPath() + "/modifyStudents");
+			return;
+		}
+
+		int page = parsePositive(request.getParameter("page"), 1, Integer.MAX_VALUE);
+		int pageSize = parsePositive(request.getParameter("size"), DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+		StudentSearchResultModel search = StudentSearchIndex.getInstance().search(query.trim(), page, pageSize);
+
+		request.setAttribute("stats", dashboardService.getDashboardStats());
+		request.setAttribute("search", search);
+		request.setAttribute("studentList", search.getStudents());
+		request.setAttribute("programs", ProgramCatalogue.getInstance().getAll());
+		if (!search.isReady()) {
+			request.setAttribute("error", "The search index is still loading, results may be incomplete.");
+		}
+
+		request.getRequestDispatcher("/WEB-INF/pages/admin/students.jsp").forward(request, response);
+	}
+
+	/**
+	 * Writes suggestions as a JSON array of objects with the student's id and a
+	 * display label.
+	 */
+	private void writeSuggestions(HttpServletResponse response, List<StudentModel> students) throws IOException {
+		response.setCharacterEncoding("UTF-8");
+		response.setContentType("application/json");
+		PrintWriter writer = response.getWriter();
+		writer.write('[');
+		for (int i = 0; i < students.size(); i++) {
+			StudentModel student = students.get(i);
+			if (i > 0) {
+				writer.write(',');
+			}
+			String label = student.getFirstName() + " " + student.getLastName() + " (" + student.getUserName() + ")";
+			writer.write("{\"id\":" + student.getId() + ",\"label\":" + JsonUtil.quote(label) + "}");
+		}
+		writer.write(']');
+	}
+
+	/**
+	 * Parses a positive number and clamps it to the allowed range.
+	 *
+	 * @param value        the raw request parameter
+	 * @param defaultValue the value used when the parameter is missing or invalid
+	 * @param max          the largest allowed value
+	 * @return a value between 1 and {@code max}
+	 */
+	private int parsePositive(String value, int defaultValue, int max) {
+		if (ValidationUtil.isNullOrEmpty(value)) {
+			return defaultValue;
+		}
+		try {
+			return Math.max(1, Math.min(max, Integer.parseInt(value.trim())));
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+}
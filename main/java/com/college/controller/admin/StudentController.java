@@ -3,30 +3,57 @@ package com.college.controller.admin;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.annotation.WebServlet;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.college.config.UploadBudget;
+import com.college.controller.AsyncHttpServlet;
+import com.college.model.DashboardStatsModel;
 import com.college.model.ProgramModel;
 import com.college.model.StudentModel;
+import com.college.model.StudentPageModel;
 import com.college.service.DashboardService;
+import com.college.service.ProgramCatalogue;
+import com.college.util.FormRules;
+import com.college.util.ImageUtil;
+import com.college.util.PhotoStore;
+import com.college.util.SessionUtil;
+import com.college.util.UploadRejectedException;
 import com.college.util.ValidationUtil;
 
 /**
  * Servlet implementation class StudentController
  */
 @WebServlet(asyncSupported = true, urlPatterns = { "/modifyStudents" })
-@MultipartConfig(fileSizeThreshold = 1024 * 1024 * 2, // 2MB
-		maxFileSize = 1024 * 1024 * 10, // 10MB
-		maxRequestSize = 1024 * 1024 * 50) // 50MB
-public class StudentController extends HttpServlet {
+@MultipartConfig(fileSizeThreshold = UploadBudget.MEMORY_THRESHOLD, // 64KB
+		maxFileSize = ImageUtil.MAX_IMAGE_SIZE, // 10MB
+		maxRequestSize = ImageUtil.MAX_IMAGE_REQUEST_SIZE) // 11MB
+public class StudentController extends AsyncHttpServlet {
 	private static final long serialVersionUID = 1L;
 
+	// Page size used when the request does not ask for one
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	// Upper bound on the page size a request may ask for
+	private static final int MAX_PAGE_SIZE = 200;
+
+	// Seconds a client is asked to wait when uploads are saturated
+	private static final int BUSY_RETRY_AFTER_SECONDS = 2;
+
 	// Instance of DashboardService for handling business logic
 	private DashboardService dashboardService;
 
+	// Stores a replaced profile picture
+	private final ImageUtil imageUtil = new ImageUtil();
+
 	/**
 	 * Default constructor initializes the DashboardService instance.
 	 */
@@ -40,17 +67,84 @@ public class StudentController extends HttpServlet {
 	 */
 	protected void doGet(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
-		// Retrieve all student information from the DashboardService
-		request.setAttribute("studentList", dashboardService.getAllStudentsInfo());
+		// Retrieve the requested page of students from the DashboardService
+		Integer after = parseCursor(request.getParameter("after"));
+		Integer before = parseCursor(request.getParameter("before"));
+		int pageSize = parsePageSize(request.getParameter("size"));
+		boolean includeTotal = "true".equalsIgnoreCase(request.getParameter("count"));
+
+		DashboardStatsModel stats = dashboardService.getDashboardStats();
+		request.setAttribute("stats", stats);
+
+		// The dashboard stats already carry the total, so no separate count is run
+		StudentPageModel page = dashboardService.getStudentsPage(after, before, pageSize, includeTotal && stats == null);
+		if (page != null && includeTotal && stats != null) {
+			page.setTotalCount(stats.getTotalStudents());
+		}
+		request.setAttribute("page", page);
+		request.setAttribute("studentList", page != null ? page.getStudents() : null);
+		request.setAttribute("programs", ProgramCatalogue.getInstance().getAll());
+
+		// Show the one-time summary of a bulk action
+		moveFlashMessage(request, "bulkSuccess", "success");
+		moveFlashMessage(request, "bulkError", "error");
 
-		request.setAttribute("total", dashboardService.getTotalStudents());
-		request.setAttribute("computing", dashboardService.getComputingStudents());
-		request.setAttribute("multimedia", dashboardService.getMultimediaStudents());
-		request.setAttribute("networking", dashboardService.getNetworkingStudents());
 		// Forward the request to the students JSP for rendering
 		request.getRequestDispatcher("/WEB-INF/pages/admin/students.jsp").forward(request, response);
 	}
 
+	/**
+	 * Moves a one-time message from the session into a request attribute.
+	 * 
+	 * @param request    The HttpServletRequest object containing the request data.
+	 * @param sessionKey The session attribute holding the message.
+	 * @param requestKey The request attribute the page displays.
+	 */
+	private void moveFlashMessage(HttpServletRequest request, String sessionKey, String requestKey) {
+		Object message = SessionUtil.getAttribute(request, sessionKey);
+		if (message != null) {
+			SessionUtil.removeAttribute(request, sessionKey);
+			if (request.getAttribute(requestKey) == null) {
+				request.setAttribute(requestKey, message);
+			}
+		}
+	}
+
+	/**
+	 * Parses a pagination cursor, ignoring missing or malformed values.
+	 * 
+	 * @param value the raw request parameter
+	 * @return the cursor, or null if absent or invalid
+	 */
+	private Integer parseCursor(String value) {
+		if (ValidationUtil.isNullOrEmpty(value)) {
+			return null;
+		}
+		try {
+			int cursor = Integer.parseInt(value.trim());
+			return cursor >= 0 ? cursor : null;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Parses the requested page size and clamps it to the allowed range.
+	 * 
+	 * @param value the raw request parameter
+	 * @return a page size between 1 and {@link #MAX_PAGE_SIZE}
+	 */
+	private int parsePageSize(String value) {
+		if (ValidationUtil.isNullOrEmpty(value)) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		try {
+			return Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(value.trim())));
+		} catch (NumberFormatException e) {
+			return DEFAULT_PAGE_SIZE;
+		}
+	}
+
 	/**
 	 * Handles HTTP POST requests for various actions such as update, delete, or
 	 * redirecting to the update form. Processes the request parameters based on the
@@ -64,20 +158,62 @@ public class StudentController extends HttpServlet {
 	@Override
 	protected void doPost(HttpServletRequest request, HttpServletResponse response)
 			throws ServletException, IOException {
+		String contentType = request.getContentType();
+		if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+			handleAction(request, response);
+			return;
+		}
+
+		// Admit the upload before the action is read, which would buffer the body
+		long uploadSize = UploadBudget.getDeclaredSize(request, ImageUtil.MAX_IMAGE_REQUEST_SIZE);
+		if (uploadSize > ImageUtil.MAX_IMAGE_REQUEST_SIZE) {
+			response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+					"The image is too large. The limit is 10 MB.");
+			return;
+		}
+		UploadBudget.Permit permit;
+		try {
+			permit = UploadBudget.acquire(uploadSize);
+		} catch (RejectedExecutionException e) {
+			response.setIntHeader("Retry-After", BUSY_RETRY_AFTER_SECONDS);
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+					"Too many uploads are in progress. Please try again in a few seconds.");
+			return;
+		}
+
+		try (permit) {
+			handleAction(request, response);
+		}
+	}
+
+	/**
+	 * Dispatches a form post to the handler of its action.
+	 */
+	private void handleAction(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
 		String action = request.getParameter("action");
-		int studentId = Integer.parseInt(request.getParameter("studentId"));
+		if (action == null) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing action");
+			return;
+		}
 
 		switch (action) {
 		case "updateForm":
-			handleUpdateForm(request, response, studentId);
+			handleUpdateForm(request, response, Integer.parseInt(request.getParameter("studentId")));
 			break;
 
 		case "update":
-			handleUpdate(request, response, studentId);
+			handleUpdate(request, response, Integer.parseInt(request.getParameter("studentId")));
 			break;
 
 		case "delete":
-			handleDelete(request, response, studentId);
+			handleDelete(request, response, Integer.parseInt(request.getParameter("studentId")));
+			break;
+
+		case "bulkDelete":
+		case "bulkReassign":
+		case "reassignProgram":
+			handleBulkAction(request, response, action);
 			break;
 
 		default:
@@ -85,6 +221,83 @@ public class StudentController extends HttpServlet {
 		}
 	}
 
+	/**
+	 * Handles the bulk actions: deleting the selected students, moving the
+	 * selected students to another program, or moving every student of one
+	 * program to another. The outcome is stored as a one-time summary message
+	 * and the browser is redirected back to the student list.
+	 * 
+	 * @param request  The HttpServletRequest object containing the request data.
+	 * @param response The HttpServletResponse object used to return the response.
+	 * @param action   The bulk action to perform.
+	 * @throws IOException If an input or output error occurs.
+	 */
+	private void handleBulkAction(HttpServletRequest request, HttpServletResponse response, String action)
+			throws IOException {
+		List<Integer> studentIds = parseStudentIds(request.getParameterValues("studentIds"));
+		String summary;
+		boolean failed = false;
+
+		switch (action) {
+		case "bulkDelete": {
+			int deleted = studentIds.isEmpty() ? 0 : dashboardService.deleteStudents(studentIds);
+			failed = deleted < 0;
+			summary = failed ? "Failed to delete the selected students. No changes were made."
+					: deleted + " of " + studentIds.size() + " selected students deleted.";
+			break;
+		}
+		case "bulkReassign": {
+			ProgramModel target = ProgramCatalogue.getInstance().findByName(request.getParameter("targetProgram"));
+			if (target == null) {
+				failed = true;
+				summary = "Please choose a valid target program.";
+				break;
+			}
+			int moved = studentIds.isEmpty() ? 0 : dashboardService.reassignStudents(studentIds, target.getProgramId());
+			failed = moved < 0;
+			summary = failed ? "Failed to reassign the selected students. No changes were made."
+					: moved + " of " + studentIds.size() + " selected students moved to " + target.getName() + ".";
+			break;
+		}
+		default: {
+			ProgramModel source = ProgramCatalogue.getInstance().findByName(request.getParameter("sourceProgram"));
+			ProgramModel target = ProgramCatalogue.getInstance().findByName(request.getParameter("targetProgram"));
+			if (source == null || target == null || source == target) {
+				failed = true;
+				summary = "Please choose two different programs.";
+				break;
+			}
+			int moved = dashboardService.reassignProgram(source.getProgramId(), target.getProgramId());
+			failed = moved < 0;
+			summary = failed ? "Failed to reassign the program. No changes were made."
+					: moved + " students moved from " + source.getName() + " to " + target.getName() + ".";
+			break;
+		}
+		}
+
+		SessionUtil.setAttribute(request, failed ? "bulkError" : "bulkSuccess", summary);
+		response.sendRedirect(request.getContextPath() + "/modifyStudents");
+	}
+
+	/**
+	 * Parses the selected student ids, skipping malformed values.
+	 * 
+	 * @param values the raw request parameter values
+	 * @return the distinct student ids
+	 */
+	private List<Integer> parseStudentIds(String[] values) {
+		Set<Integer> ids = new LinkedHashSet<>();
+		if (values != null) {
+			for (String value : values) {
+				Integer id = parseCursor(value);
+				if (id != null) {
+					ids.add(id);
+				}
+			}
+		}
+		return new ArrayList<>(ids);
+	}
+
 	/**
 	 * Handles the update form action by setting student data in the session and
 	 * redirecting to the update page.
@@ -141,7 +354,24 @@ public class StudentController extends HttpServlet {
 		String email = request.getParameter("email");
 		String number = request.getParameter("phoneNumber");
 		String programName = request.getParameter("subject");
-		String imageUrl = request.getParameter("image"); // Assuming image upload is handled elsewhere
+
+		// Store a new photo if one was chosen; null keeps the current one
+		PhotoStore.StoredPhoto photo = null;
+		Part image = request.getPart("image");
+		if (image != null && !ValidationUtil.isNullOrEmpty(image.getSubmittedFileName())) {
+			try {
+				photo = imageUtil.storeImage(image, "student");
+			} catch (UploadRejectedException e) {
+				request.setAttribute("error", e.getMessage());
+				doGet(request, response);
+				return;
+			}
+			if (photo == null) {
+				request.setAttribute("error", "Could not upload the image. Please try again later!");
+				doGet(request, response);
+				return;
+			}
+		}
 
 		// Create a ProgramModel object
 		ProgramModel program = new ProgramModel();
@@ -149,10 +379,14 @@ public class StudentController extends HttpServlet {
 
 		// Create a StudentModel object
 		StudentModel student = new StudentModel(studentId, firstName, lastName, userName, dob, gender, email, number,
-				null, program, imageUrl);
+				null, program, photo != null ? photo.getKey() : null);
 
 		// Update the student using DashboardService
 		boolean success = dashboardService.updateStudent(student);
+		// A photo that was not saved is left to the photo sweep
+		if (photo != null && success) {
+			imageUtil.publishImage(photo);
+		}
 
 		// Handle the result of the update operation
 		if (success) {
@@ -166,64 +400,25 @@ public class StudentController extends HttpServlet {
 	}
 
 	/**
-	 * Validates the form fields for the update operation.
+	 * Validates every field of the update form in one pass. The image is
+	 * optional; when one is chosen its format is checked.
 	 * 
 	 * @param request The HttpServletRequest object containing the request data.
-	 * @return A validation error message, or null if all validations pass.
+	 * @return All validation errors as one message, or null if all validations
+	 *         pass.
 	 */
 	private String validateUpdateForm(HttpServletRequest request) {
-		String firstName = request.getParameter("firstName");
-		String lastName = request.getParameter("lastName");
-		String username = request.getParameter("username");
-		String dobStr = request.getParameter("dob");
-		String gender = request.getParameter("gender");
-		String email = request.getParameter("email");
-		String number = request.getParameter("phoneNumber");
-		String subject = request.getParameter("subject");
-
-		// Check for null or empty fields first
-		if (ValidationUtil.isNullOrEmpty(firstName))
-			return "First name is required.";
-		if (ValidationUtil.isNullOrEmpty(lastName))
-			return "Last name is required.";
-		if (ValidationUtil.isNullOrEmpty(username))
-			return "Username is required.";
-		if (ValidationUtil.isNullOrEmpty(dobStr))
-			return "Date of birth is required.";
-		if (ValidationUtil.isNullOrEmpty(gender))
-			return "Gender is required.";
-		if (ValidationUtil.isNullOrEmpty(email))
-			return "Email is required.";
-		if (ValidationUtil.isNullOrEmpty(number))
-			return "Phone number is required.";
-		if (ValidationUtil.isNullOrEmpty(subject))
-			return "Subject is required.";
-
-		// Convert date of birth
-		LocalDate dob;
+		String imageName;
 		try {
-			dob = LocalDate.parse(dobStr);
-		} catch (Exception e) {
-			return "Invalid date format. Please use YYYY-MM-DD.";
-		}
-
-		// Validate fields
-		if (!ValidationUtil.isAlphanumericStartingWithLetter(username))
-			return "Username must start with a letter and contain only letters and numbers.";
-		if (!ValidationUtil.isValidGender(gender))
-			return "Gender must be 'male' or 'female'.";
-		if (!ValidationUtil.isValidEmail(email))
-			return "Invalid email format.";
-		if (!ValidationUtil.isValidPhoneNumber(number))
-			return "Phone number must be 10 digits and start with 98.";
-
-		// Check if the date of birth is at least 16 years before today
-		if (!ValidationUtil.isAgeAtLeast16(dob))
-			return "You must be at least 16 years old.";
-
-		// Assuming image validation is handled elsewhere
-		// return null if all validations pass
-		return null;
+			Part image = request.getPart("image");
+			imageName = image != null ? image.getSubmittedFileName() : null;
+		} catch (IOException | ServletException e) {
+			return "Error handling image file. Please ensure the file is valid.";
+		}
+
+		return FormRules.STUDENT_UPDATE
+				.validate(field -> FormRules.IMAGE.equals(field) ? imageName : request.getParameter(field))
+				.getMessage();
 	}
 
 	/**
@@ -2,14 +2,16 @@ package com.college.controller.admin;
 
 import java.io.IOException;
 
+import com.college.controller.AsyncHttpServlet;
 import com.college.model.ProgramModel;
 import com.college.model.StudentModel;
 import com.college.service.UpdateService;
+import com.college.util.ImagePipeline;
+import com.college.util.ImageUtil;
 import com.college.util.SessionUtil;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -21,12 +23,15 @@ import jakarta.servlet.http.HttpServletResponse;
  * forwards requests to the appropriate JSP page for user interaction.
  */
 @WebServlet(asyncSupported = true, urlPatterns = { "/studentUpdate" })
-public class UpdateController extends HttpServlet {
+public class UpdateController extends AsyncHttpServlet {
     private static final long serialVersionUID = 1L;
     
     // Service for updating student information
     private UpdateService updateService;
 
+    // Resolves the profile picture in the size the page shows
+    private final ImageUtil imageUtil = new ImageUtil();
+
     /**
      * Default constructor initializes the UpdateService instance.
      */
@@ -51,6 +56,8 @@ public class UpdateController extends HttpServlet {
             StudentModel student = (StudentModel) SessionUtil.getAttribute(req, "student");
             SessionUtil.removeAttribute(req, "student");
             req.setAttribute("student", student);
+            req.setAttribute("photoUrl",
+                    imageUtil.getImageUrl("student", student.getImageUrl(), ImagePipeline.Variant.PROFILE));
         }
 
         // Forward to the update JSP page
@@ -20,11 +20,17 @@ public class AuthenticationFilter implements Filter {
 
 	private static final String LOGIN = "/login";
 	private static final String REGISTER = "/register";
+	private static final String CHECK_AVAILABILITY = "/checkAvailability";
+	private static final String PHOTOS = "/photos/";
+	private static final String UPLOADS = "/uploads";
 	private static final String HOME = "/home";
 	private static final String ROOT = "/";
 	private static final String DASHBOARD = "/dashboard";
 	private static final String MODIFY_STUDENTS = "/modifyStudents";
 	private static final String STUDENT_UPDATE = "/studentUpdate";
+	private static final String IMPORT_STUDENTS = "/importStudents";
+	private static final String EXPORT_STUDENTS = "/exportStudents";
+	private static final String SEARCH_STUDENTS = "/searchStudents";
 	private static final String ADMIN_ORDER = "/adminOrder";
 	private static final String ABOUT = "/about";
 	private static final String PORTFOLIO = "/portfolio";
@@ -47,7 +53,8 @@ public class AuthenticationFilter implements Filter {
 		String uri = req.getRequestURI();
 		
 		// Allow access to resources
-		if (uri.endsWith(".png") || uri.endsWith(".jpg") || uri.endsWith(".css")) {
+		if (uri.endsWith(".png") || uri.endsWith(".jpg") || uri.endsWith(".css")
+				|| uri.startsWith(req.getContextPath() + PHOTOS)) {
 			chain.doFilter(request, response);
 			return;
 		}
@@ -61,6 +68,7 @@ public class AuthenticationFilter implements Filter {
 			if (uri.endsWith(LOGIN) || uri.endsWith(REGISTER)) {
 				res.sendRedirect(req.getContextPath() + DASHBOARD);
 			} else if (uri.endsWith(DASHBOARD) || uri.endsWith(MODIFY_STUDENTS) || uri.endsWith(STUDENT_UPDATE)
+					|| uri.endsWith(IMPORT_STUDENTS) || uri.endsWith(EXPORT_STUDENTS) || uri.endsWith(SEARCH_STUDENTS)
 					|| uri.endsWith(ADMIN_ORDER) || uri.endsWith(HOME) || uri.endsWith(ROOT)) {
 				chain.doFilter(request, response);
 			} else if (uri.endsWith(ORDER_LIST) || uri.endsWith(CART_LIST)) {
@@ -76,6 +84,7 @@ public class AuthenticationFilter implements Filter {
 					|| uri.endsWith(CONTACT) || uri.endsWith(ORDER_LIST) || uri.endsWith(CART_LIST)) {
 				chain.doFilter(request, response);
 			} else if (uri.endsWith(DASHBOARD) || uri.endsWith(MODIFY_STUDENTS) || uri.endsWith(STUDENT_UPDATE)
+					|| uri.endsWith(IMPORT_STUDENTS) || uri.endsWith(EXPORT_STUDENTS) || uri.endsWith(SEARCH_STUDENTS)
 					|| uri.endsWith(ADMIN_ORDER)) {
 				res.sendRedirect(req.getContextPath() + HOME);
 			} else {
@@ -83,7 +92,8 @@ public class AuthenticationFilter implements Filter {
 			}
 		} else {
 			// Not logged in
-			if (uri.endsWith(LOGIN) || uri.endsWith(REGISTER) || uri.endsWith(HOME) || uri.endsWith(ROOT)) {
+			if (uri.endsWith(LOGIN) || uri.endsWith(REGISTER) || uri.endsWith(CHECK_AVAILABILITY)
+					|| uri.startsWith(req.getContextPath() + UPLOADS) || uri.endsWith(HOME) || uri.endsWith(ROOT)) {
 				chain.doFilter(request, response);
 			} else {
 				res.sendRedirect(req.getContextPath() + LOGIN);
@@ -0,0 +1,67 @@
+package com.college.filter;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+
+import com.college.config.ReadConsistency;
+
+/**
+ * Carries the read-your-writes pin of a session between requests.
+ * <p>
+ * Before the request is handled, the pin stored in the session is made
+ * available to {@link ReadConsistency}; afterwards, a pin set by a write during
+ * the request is stored back so later requests of the same session keep
+ * reading from the primary.
+ * </p>
+ */
+@WebFilter(asyncSupported = true, urlPatterns = "/*")
+public class ReadConsistencyFilter implements Filter {
+
+	// Session attribute holding the time until which reads go to the primary
+	private static final String PRIMARY_UNTIL = "dbPrimaryUntil";
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		HttpServletRequest req = (HttpServletRequest) request;
+
+		HttpSession session = req.getSession(false);
+		Long before = session != null ? (Long) session.getAttribute(PRIMARY_UNTIL) : null;
+		ReadConsistency.begin(before);
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			Long after = ReadConsistency.end();
+			if (after != null && !after.equals(before)) {
+				storePin(req, after);
+			}
+		}
+	}
+
+	/**
+	 * Stores a pin in the session of the request, if it still has one. Also used
+	 * by work that finishes a request on another thread.
+	 *
+	 * @param req          the request whose session receives the pin
+	 * @param primaryUntil the time until which reads go to the primary
+	 */
+	public static void storePin(HttpServletRequest req, Long primaryUntil) {
+		HttpSession session = req.getSession(false);
+		if (session == null) {
+			return;
+		}
+		try {
+			session.setAttribute(PRIMARY_UNTIL, primaryUntil);
+		} catch (IllegalStateException e) {
+			// Session was invalidated during the request, e.g. on logout
+		}
+	}
+}
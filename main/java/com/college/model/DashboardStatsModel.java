@@ -0,0 +1,67 @@
+package com.college.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Student counts shown on the admin dashboard: the overall total and the number
+ * of students enrolled in each program.
+ */
+public class DashboardStatsModel {
+
+	private long totalStudents;
+	private List<ProgramCount> programCounts = new ArrayList<>();
+
+	public DashboardStatsModel() {
+	}
+
+	public long getTotalStudents() {
+		return totalStudents;
+	}
+
+	public void setTotalStudents(long totalStudents) {
+		this.totalStudents = totalStudents;
+	}
+
+	public List<ProgramCount> getProgramCounts() {
+		return programCounts;
+	}
+
+	public void setProgramCounts(List<ProgramCount> programCounts) {
+		this.programCounts = programCounts;
+	}
+
+	/**
+	 * Adds the count for one program and includes it in the total.
+	 *
+	 * @param program      the program
+	 * @param studentCount number of students enrolled in the program
+	 */
+	public void addProgramCount(ProgramModel program, long studentCount) {
+		programCounts.add(new ProgramCount(program, studentCount));
+		totalStudents += studentCount;
+	}
+
+	/**
+	 * Number of students enrolled in a single program.
+	 */
+	public static class ProgramCount {
+
+		private final ProgramModel program;
+		private final long studentCount;
+
+		public ProgramCount(ProgramModel program, long studentCount) {
+			this.program = program;
+			this.studentCount = studentCount;
+		}
+
+		public ProgramModel getProgram() {
+			return program;
+		}
+
+		public long getStudentCount() {
+			return studentCount;
+		}
+	}
+
+}
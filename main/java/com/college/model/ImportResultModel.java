@@ -0,0 +1,105 @@
+package com.college.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk student import: how many rows were read and imported, and
+ * why each rejected row failed. Only the first {@link #MAX_LISTED_ERRORS}
+ * rejected rows are kept; the rest are only counted, so a file of bad rows
+ * cannot fill the heap.
+ */
+public class ImportResultModel {
+
+	/** Number of rejected rows listed with their reason */
+	public static final int MAX_LISTED_ERRORS = 1_000;
+
+	private int rowsRead;
+	private int imported;
+	private int failed;
+	private List<RowError> errors = new ArrayList<>();
+
+	public ImportResultModel() {
+	}
+
+	public int getRowsRead() {
+		return rowsRead;
+	}
+
+	public void setRowsRead(int rowsRead) {
+		this.rowsRead = rowsRead;
+	}
+
+	public void incrementRowsRead() {
+		rowsRead++;
+	}
+
+	public int getImported() {
+		return imported;
+	}
+
+	public void setImported(int imported) {
+		this.imported = imported;
+	}
+
+	public void addImported(int count) {
+		imported += count;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	/**
+	 * @return the number of rejected rows beyond those listed in
+	 *         {@link #getErrors()}
+	 */
+	public int getUnlistedErrors() {
+		return failed - errors.size();
+	}
+
+	public List<RowError> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<RowError> errors) {
+		this.errors = errors;
+		this.failed = errors.size();
+	}
+
+	public void addError(int line, String username, String message) {
+		failed++;
+		if (errors.size() < MAX_LISTED_ERRORS) {
+			errors.add(new RowError(line, username, message));
+		}
+	}
+
+	/**
+	 * A rejected row of the import file.
+	 */
+	public static class RowError {
+
+		private final int line;
+		private final String username;
+		private final String message;
+
+		public RowError(int line, String username, String message) {
+			this.line = line;
+			this.username = username;
+			this.message = message;
+		}
+
+		public int getLine() {
+			return line;
+		}
+
+		public String getUsername() {
+			return username;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.college.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated student listing.
+ * <p>
+ * Cursors are student ids: the next page starts after {@code nextCursor} and
+ * the previous page ends before {@code previousCursor}.
+ * </p>
+ */
+public class StudentPageModel {
+
+	private List<StudentModel> students;
+	private int pageSize;
+	private Integer nextCursor;
+	private Integer previousCursor;
+	private long totalCount = -1;
+
+	public StudentPageModel() {
+	}
+
+	public StudentPageModel(List<StudentModel> students, int pageSize, Integer nextCursor, Integer previousCursor) {
+		this.students = students;
+		this.pageSize = pageSize;
+		this.nextCursor = nextCursor;
+		this.previousCursor = previousCursor;
+	}
+
+	public List<StudentModel> getStudents() {
+		return students;
+	}
+
+	public void setStudents(List<StudentModel> students) {
+		this.students = students;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	public void setPageSize(int pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	public Integer getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(Integer nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	public Integer getPreviousCursor() {
+		return previousCursor;
+	}
+
+	public void setPreviousCursor(Integer previousCursor) {
+		this.previousCursor = previousCursor;
+	}
+
+	public boolean isHasNext() {
+		return nextCursor != null;
+	}
+
+	public boolean isHasPrevious() {
+		return previousCursor != null;
+	}
+
+	/**
+	 * @return the total number of students, or -1 if it was not requested
+	 */
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	public void setTotalCount(long totalCount) {
+		this.totalCount = totalCount;
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.college.model;
+
+import java.util.List;
+
+/**
+ * One page of ranked student search results.
+ * <p>
+ * Pages are numbered from 1. {@code totalMatches} counts every student
+ * matching the query, not only those on the page.
+ * </p>
+ */
+public class StudentSearchResultModel {
+
+	private String query;
+	private List<StudentModel> students;
+	private int page;
+	private int pageSize;
+	private int totalMatches;
+	private boolean ready = true;
+
+	public StudentSearchResultModel() {
+	}
+
+	public StudentSearchResultModel(String query, List<StudentModel> students, int page, int pageSize,
+			int totalMatches) {
+		this.query = query;
+		this.students = students;
+		this.page = page;
+		this.pageSize = pageSize;
+		this.totalMatches = totalMatches;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	public void setQuery(String query) {
+		this.query = query;
+	}
+
+	public List<StudentModel> getStudents() {
+		return students;
+	}
+
+	public void setStudents(List<StudentModel> students) {
+		this.students = students;
+	}
+
+	public int getPage() {
+		return page;
+	}
+
+	public void setPage(int page) {
+		this.page = page;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	public void setPageSize(int pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	public int getTotalMatches() {
+		return totalMatches;
+	}
+
+	public void setTotalMatches(int totalMatches) {
+		this.totalMatches = totalMatches;
+	}
+
+	public boolean isHasNext() {
+		return (long) page * pageSize < totalMatches;
+	}
+
+	public boolean isHasPrevious() {
+		return page > 1;
+	}
+
+	/**
+	 * @return false while the search index is still being built at startup
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	public void setReady(boolean ready) {
+		this.ready = ready;
+	}
+
+}
@@ -0,0 +1,336 @@
+package com.college.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.college.config.DbConfig;
+import com.college.util.BloomFilter;
+
+/**
+ * Answers whether a username or email is still free to register.
+ * <p>
+ * A {@link BloomFilter} of every taken username and email is built at startup
+ * and extended on each registration. When the filter says a value was never
+ * added it is free, and no query is run; only a "maybe" is confirmed with an
+ * indexed point query. Until the first build has finished every check goes to
+ * the database.
+ * </p>
+ * <p>
+ * The answer is advisory: two registrations may both be told a value is free.
+ * The unique indexes on {@code username} and {@code email} decide, and the
+ * second insert fails.
+ * </p>
+ * <p>
+ * A Bloom filter cannot forget values, so a deleted or changed account keeps
+ * answering "maybe" and costs one query until the filter is rebuilt. A rebuild
+ * runs in the background once such stale entries reach a tenth of the filter,
+ * or once registrations outgrow the size it was built for. The minimum size is
+ * {@code -Dcollege.availability.expectedEntries}.
+ * </p>
+ */
+public class AccountAvailability {
+
+	private static final Logger LOGGER = Logger.getLogger(AccountAvailability.class.getName());
+
+	private static final AccountAvailability INSTANCE = new AccountAvailability();
+
+	private static final double FALSE_POSITIVE_RATE = 0.01;
+	// Room left for registrations before a rebuild is needed, as a multiple of
+	// the current number of entries
+	private static final int GROWTH_HEADROOM = 2;
+	// Share of stale entries that triggers a rebuild
+	private static final double STALE_REBUILD_RATIO = 0.1;
+
+	// Usernames and emails share one filter under different prefixes
+	private static final String USERNAME_KEY = "u:";
+	private static final String EMAIL_KEY = "e:";
+
+	private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+	private final AtomicLong staleEntries = new AtomicLong();
+	private final LongAdder filterAnswers = new LongAdder();
+	private final LongAdder databaseQueries = new LongAdder();
+
+	private volatile Filter filter;
+	// Filter being built, which also receives the registrations made meanwhile
+	private volatile BloomFilter building;
+	private ExecutorService executor;
+
+	private AccountAvailability() {
+	}
+
+	/**
+	 * @return the shared availability checker
+	 */
+	public static AccountAvailability getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Builds the filter in the background. Called once at application startup.
+	 */
+	public synchronized void start() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "account-availability-build");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduleRebuild();
+		}
+	}
+
+	/**
+	 * Stops background rebuilds. Called when the application is undeployed.
+	 */
+	public synchronized void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	/**
+	 * @param username the username to check
+	 * @return true if no account uses the username, false if one does; null if
+	 *         a database error occurs
+	 */
+	public Boolean isUsernameAvailable(String username) {
+		return isAvailable(USERNAME_KEY, username, SqlStatement.USERNAME_EXISTS);
+	}
+
+	/**
+	 * @param email the email address to check
+	 * @return true if no account uses the email, false if one does; null if a
+	 *         database error occurs
+	 */
+	public Boolean isEmailAvailable(String email) {
+		return isAvailable(EMAIL_KEY, email, SqlStatement.EMAIL_EXISTS);
+	}
+
+	/**
+	 * Records the username and email of an account just written to the
+	 * database.
+	 *
+	 * @param username the username, or null if it did not change
+	 * @param email    the email, or null if it did not change
+	 */
+	public void added(String username, String email) {
+		int count = add(USERNAME_KEY, username) + add(EMAIL_KEY, email);
+		Filter current = filter;
+		if (current != null && current.entries.addAndGet(count) > current.capacity) {
+			scheduleRebuild();
+		}
+	}
+
+	/**
+	 * Records that accounts were deleted or had their username or email changed,
+	 * leaving stale entries in the filter.
+	 *
+	 * @param count the number of affected accounts
+	 */
+	public void removed(int count) {
+		Filter current = filter;
+		if (count > 0 && current != null
+				&& staleEntries.addAndGet(count) > current.entries.get() * STALE_REBUILD_RATIO) {
+			scheduleRebuild();
+		}
+	}
+
+	/**
+	 * Records an update of one account's username or email. Values that did not
+	 * change are ignored, so editing only other fields leaves no stale entry
+	 * and does not bring the next rebuild forward.
+	 *
+	 * @param oldUsername the username before the update, or null if unknown or
+	 *                    not updated
+	 * @param newUsername the username written, or null if not updated
+	 * @param oldEmail    the email before the update, or null if unknown
+	 * @param newEmail    the email written
+	 */
+	public void changed(String oldUsername, String newUsername, String oldEmail, String newEmail) {
+		boolean usernameChanged = !sameKey(oldUsername, newUsername);
+		boolean emailChanged = !sameKey(oldEmail, newEmail);
+		if (usernameChanged || emailChanged) {
+			added(usernameChanged ? newUsername : null, emailChanged ? newEmail : null);
+			removed(1);
+		}
+	}
+
+	/**
+	 * Reads the current username and email of an account, on the connection
+	 * about to update it.
+	 *
+	 * @param dbConn    the connection
+	 * @param studentId the account
+	 * @return the username and email, or nulls if the account does not exist
+	 * @throws SQLException if the query fails
+	 */
+	static String[] readIdentifiers(Connection dbConn, int studentId) throws SQLException {
+		try (PreparedStatement stmt = dbConn.prepareStatement(SqlStatement.STUDENT_IDENTIFIERS.getSql())) {
+			stmt.setInt(1, studentId);
+			try (ResultSet result = stmt.executeQuery()) {
+				if (!result.next()) {
+					return new String[2];
+				}
+				return new String[] { result.getString("username"), result.getString("email") };
+			}
+		}
+	}
+
+	/**
+	 * @return the number of checks answered by the filter alone
+	 */
+	public long getFilterAnswers() {
+		return filterAnswers.sum();
+	}
+
+	/**
+	 * @return the number of checks that needed a database query
+	 */
+	public long getDatabaseQueries() {
+		return databaseQueries.sum();
+	}
+
+	private Boolean isAvailable(String prefix, String value, SqlStatement existsQuery) {
+		if (value == null || value.trim().isEmpty()) {
+			return false;
+		}
+		Filter current = filter;
+		if (current != null && !current.bloom.mightContain(prefix + normalize(value))) {
+			filterAnswers.increment();
+			return true;
+		}
+
+		databaseQueries.increment();
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(existsQuery.getSql())) {
+			stmt.setString(1, value.trim());
+			try (ResultSet result = stmt.executeQuery()) {
+				return !result.next();
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	private int add(String prefix, String value) {
+		if (value == null || value.trim().isEmpty()) {
+			return 0;
+		}
+		String key = prefix + normalize(value);
+		// Read the filter being built before the current one. The account is
+		// already in the database, so if no build is running yet, the next
+		// build's scan will see it; if one just finished, its filter is the
+		// current one by the time it is read, since it is swapped in before
+		// building is cleared.
+		BloomFilter next = building;
+		Filter current = filter;
+		if (next != null) {
+			next.add(key);
+		}
+		if (current != null) {
+			current.bloom.add(key);
+		}
+		return 1;
+	}
+
+	private synchronized void scheduleRebuild() {
+		if (executor != null && rebuildScheduled.compareAndSet(false, true)) {
+			executor.execute(() -> {
+				try {
+					rebuild();
+				} finally {
+					rebuildScheduled.set(false);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Builds a new filter from the student table and swaps it in.
+	 */
+	private void rebuild() {
+		try (Connection dbConn = DbConfig.getDbConnection()) {
+			long students;
+			try (PreparedStatement stmt = dbConn.prepareStatement(SqlStatement.STUDENT_COUNT.getSql());
+					ResultSet result = stmt.executeQuery()) {
+				students = result.next() ? result.getLong("total") : 0;
+			}
+			long capacity = Math.max(Long.getLong("college.availability.expectedEntries", 100_000),
+					students * 2 * GROWTH_HEADROOM);
+
+			BloomFilter next = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+			building = next;
+			staleEntries.set(0);
+
+			long entries = 0;
+			try (PreparedStatement stmt = dbConn.prepareStatement(SqlStatement.ACCOUNT_IDENTIFIERS.getSql(),
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+				stmt.setFetchSize(DbConfig.getFetchSize());
+				try (ResultSet result = stmt.executeQuery()) {
+					while (result.next()) {
+						entries += addTo(next, USERNAME_KEY, result.getString("username"));
+						entries += addTo(next, EMAIL_KEY, result.getString("email"));
+					}
+				}
+			}
+			filter = new Filter(next, capacity, entries);
+			LOGGER.log(Level.INFO, "Account availability filter built with {0} entries in {1} bytes",
+					new Object[] { entries, next.getSizeInBytes() });
+		} catch (SQLException e) {
+			LOGGER.log(Level.WARNING, "Could not build the account availability filter", e);
+		} finally {
+			building = null;
+		}
+	}
+
+	private static int addTo(BloomFilter bloom, String prefix, String value) {
+		if (value == null || value.trim().isEmpty()) {
+			return 0;
+		}
+		bloom.add(prefix + normalize(value));
+		return 1;
+	}
+
+	private static boolean sameKey(String before, String after) {
+		if (before == null || after == null) {
+			return before == after;
+		}
+		return normalize(before).equals(normalize(after));
+	}
+
+	/**
+	 * Lower-cases and trims a value, so values differing only in case share
+	 * filter entries. This can only add "maybe" answers, which the database
+	 * settles.
+	 */
+	private static String normalize(String value) {
+		return value.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * A built filter with the number of entries it was sized for and holds.
+	 */
+	private static final class Filter {
+		private final BloomFilter bloom;
+		private final long capacity;
+		private final AtomicLong entries;
+
+		private Filter(BloomFilter bloom, long capacity, long entries) {
+			this.bloom = bloom;
+			this.capacity = capacity;
+			this.entries = new AtomicLong(entries);
+		}
+	}
+}
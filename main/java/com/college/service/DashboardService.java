@@ -1,5 +1,6 @@
 package com.college.service;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -7,106 +8,242 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.college.config.DbConfig;
+import com.college.model.DashboardStatsModel;
 import com.college.model.ProgramModel;
 import com.college.model.StudentModel;
+import com.college.model.StudentPageModel;
 
 /**
  * Service class for interacting with the database to retrieve dashboard-related
- * data. This class handles database connections and performs queries to fetch
- * student information.
+ * data. Each operation borrows a pooled connection from {@link DbConfig} and
+ * returns it when done. Read-only listings and counts may be served by a read
+ * replica; writes go to the primary and are recorded with
+ * {@link DbConfig#recordWrite()} so the session then reads its own changes.
+ * Writes are also applied to the {@link StudentSearchIndex} and the
+ * {@link AccountAvailability} filter.
  */
 public class DashboardService {
 
-	private Connection dbConn;
-	private boolean isConnectionError = false;
+	// Largest IN list sent in one statement by the bulk operations
+	private static final int MAX_IN_LIST_SIZE = 512;
 
 	/**
-	 * Constructor that initializes the database connection. Sets the connection
-	 * error flag if the connection fails.
+	 * Receives the students of a streaming query one at a time.
 	 */
-	public DashboardService() {
-		try {
-			dbConn = DbConfig.getDbConnection();
-		} catch (SQLException | ClassNotFoundException ex) {
-			// Log and handle exceptions related to database connection
-			ex.printStackTrace();
-			isConnectionError = true;
-		}
+	public interface StudentHandler {
+		void handle(StudentModel student) throws IOException;
 	}
 
 	/**
 	 * Retrieves all student information from the database.
+	 * <p>
+	 * Students and their programs are read in a single JOIN over a forward-only,
+	 * read-only cursor, fetching {@link DbConfig#getFetchSize()} rows per round
+	 * trip.
+	 * </p>
 	 * 
 	 * @return A list of StudentModel objects containing student data. Returns null
 	 *         if there is a connection error or if an exception occurs during query
 	 *         execution.
 	 */
 	public List<StudentModel> getAllStudentsInfo() {
-		if (isConnectionError) {
-			System.out.println("Connection Error!");
+		// SQL query to fetch student details together with their program
+		String query = SqlStatement.STUDENT_LIST.getSql();
+		try (Connection dbConn = DbConfig.getReadConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+						ResultSet.CONCUR_READ_ONLY)) {
+			stmt.setFetchSize(DbConfig.getFetchSize());
+			try (ResultSet result = stmt.executeQuery()) {
+				List<StudentModel> studentList = new ArrayList<>();
+
+				while (result.next()) {
+					studentList.add(mapStudentSummary(result));
+				}
+				return studentList;
+			}
+		} catch (SQLException e) {
+			// Log and handle exceptions related to student query execution
+			e.printStackTrace();
 			return null;
 		}
+	}
 
-		// SQL query to fetch student details
-		String query = "SELECT student_id, first_name, last_name, program_id, email, number FROM student";
-		try (PreparedStatement stmt = dbConn.prepareStatement(query)) {
-			ResultSet result = stmt.executeQuery();
-			List<StudentModel> studentList = new ArrayList<>();
+	/**
+	 * Streams every student, with its program, to a handler one row at a time.
+	 * <p>
+	 * Rows are read from the same forward-only JOIN as
+	 * {@link #getAllStudentsInfo()} but are never collected, so memory use stays
+	 * constant regardless of the number of students.
+	 * </p>
+	 * 
+	 * @param handler receives each student in id order
+	 * @return the number of students streamed, or -1 if a database error occurs
+	 * @throws IOException if the handler fails, for example because the client
+	 *                     disconnected
+	 */
+	public long streamAllStudents(StudentHandler handler) throws IOException {
+		String query = SqlStatement.STUDENT_LIST.getSql();
+		try (Connection dbConn = DbConfig.getReadConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+						ResultSet.CONCUR_READ_ONLY)) {
+			stmt.setFetchSize(DbConfig.getFetchSize());
+			long count = 0;
+			try (ResultSet result = stmt.executeQuery()) {
+				while (result.next()) {
+					handler.handle(mapStudentSummary(result));
+					count++;
+				}
+			}
+			return count;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return -1;
+		}
+	}
 
-			while (result.next()) {
-				// SQL query to fetch program name based on program_id
-				String programQuery = "SELECT program_id, name FROM program WHERE program_id = ?";
-				try (PreparedStatement programStmt = dbConn.prepareStatement(programQuery)) {
-					programStmt.setInt(1, result.getInt("program_id"));
-					ResultSet programResult = programStmt.executeQuery();
-
-					ProgramModel programModel = new ProgramModel();
-					if (programResult.next()) {
-						// Set program name in the ProgramModel
-						programModel.setName(programResult.getString("name"));
-						programModel.setProgramId(programResult.getInt("program_id"));
-					}
+	/**
+	 * Streams the searchable fields of every student with an id greater than
+	 * {@code afterId}, in id order, to a handler.
+	 * <p>
+	 * Used to build the {@link StudentSearchIndex}. The rows are read
+	 * from the primary so students registered a moment ago are included. The
+	 * students carry their username and a program with only its id set.
+	 * </p>
+	 * 
+	 * @param afterId only students with a greater id are streamed; 0 for all
+	 * @param handler receives each student in id order
+	 * @return the number of students streamed, or -1 if a database error occurs
+	 * @throws IOException if the handler fails
+	 */
+	public long streamSearchableStudents(int afterId, StudentHandler handler) throws IOException {
+		String query = SqlStatement.STUDENT_SEARCH_SOURCE.getSql();
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+						ResultSet.CONCUR_READ_ONLY)) {
+			stmt.setInt(1, afterId);
+			stmt.setFetchSize(DbConfig.getFetchSize());
+			long count = 0;
+			try (ResultSet result = stmt.executeQuery()) {
+				while (result.next()) {
+					ProgramModel program = new ProgramModel();
+					program.setProgramId(result.getInt("program_id"));
+					StudentModel student = new StudentModel(result.getInt("student_id"), result.getString("first_name"),
+							result.getString("last_name"), program, result.getString("email"),
+							result.getString("number"));
+					student.setUserName(result.getString("username"));
+					handler.handle(student);
+					count++;
+				}
+			}
+			return count;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return -1;
+		}
+	}
 
-					// Create and add StudentModel to the list
-					studentList.add(new StudentModel(result.getInt("student_id"), // Student ID
-							result.getString("first_name"), // First Name
-							result.getString("last_name"), // Last Name
-							programModel, // Associated Program
-							result.getString("email"), // Email
-							result.getString("number") // Phone Number
-					));
-
-					programResult.close(); // Close ResultSet to avoid resource leaks
-				} catch (SQLException e) {
-					// Log and handle exceptions related to program query execution
-					e.printStackTrace();
-					// Continue to process other students or handle this error appropriately
+	/**
+	 * Retrieves one page of students using keyset pagination on student_id.
+	 * <p>
+	 * Each page is an index range scan starting at the cursor, so its cost does
+	 * not grow with how deep into the table the page is. Pass {@code afterId} to
+	 * move forward, {@code beforeId} to move backward, or neither for the first
+	 * page.
+	 * </p>
+	 * 
+	 * @param afterId      return students with an id greater than this, or null
+	 * @param beforeId     return students with an id less than this, or null
+	 * @param pageSize     maximum number of students on the page
+	 * @param includeTotal whether to also count all students
+	 * @return the requested page, or null if an exception occurs
+	 */
+	public StudentPageModel getStudentsPage(Integer afterId, Integer beforeId, int pageSize, boolean includeTotal) {
+		boolean backward = afterId == null && beforeId != null;
+
+		String query = (backward ? SqlStatement.STUDENT_PAGE_BEFORE : SqlStatement.STUDENT_PAGE_AFTER).getSql();
+
+		StudentPageModel page;
+		try (Connection dbConn = DbConfig.getReadConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(query)) {
+			stmt.setInt(1, backward ? beforeId : (afterId == null ? 0 : afterId));
+			// Fetch one extra row to find out whether another page exists
+			stmt.setInt(2, pageSize + 1);
+
+			List<StudentModel> students = new ArrayList<>(pageSize + 1);
+			try (ResultSet result = stmt.executeQuery()) {
+				while (result.next()) {
+					students.add(mapStudentSummary(result));
 				}
 			}
-			return studentList;
+
+			boolean hasMore = students.size() > pageSize;
+			if (hasMore) {
+				students.remove(students.size() - 1);
+			}
+			if (backward) {
+				Collections.reverse(students);
+			}
+
+			Integer nextCursor = null;
+			Integer previousCursor = null;
+			if (!students.isEmpty()) {
+				int firstId = students.get(0).getId();
+				int lastId = students.get(students.size() - 1).getId();
+				// Going backward we came from a later page, so one follows
+				nextCursor = (backward || hasMore) ? lastId : null;
+				previousCursor = backward ? (hasMore ? firstId : null) : (afterId != null ? firstId : null);
+			}
+
+			page = new StudentPageModel(students, pageSize, nextCursor, previousCursor);
 		} catch (SQLException e) {
-			// Log and handle exceptions related to student query execution
 			e.printStackTrace();
 			return null;
 		}
+
+		// Counted separately, after the page's connection has been returned
+		if (includeTotal) {
+			String total = getTotalStudents();
+			page.setTotalCount(total == null || total.isEmpty() ? -1 : Long.parseLong(total));
+		}
+		return page;
 	}
 
-	public StudentModel getSpecificStudentInfo(int studentId) {
-		if (isConnectionError) {
-			System.out.println("Connection Error!");
-			return null;
+	/**
+	 * Maps the current row of a student listing query to a StudentModel. The
+	 * program is the shared instance from the {@link ProgramCatalogue}.
+	 * 
+	 * @param result the result set positioned on a student row
+	 * @return the mapped student
+	 * @throws SQLException if a column cannot be read
+	 */
+	StudentModel mapStudentSummary(ResultSet result) throws SQLException {
+		int programId = result.getInt("program_id");
+		ProgramModel program = ProgramCatalogue.getInstance().findById(programId);
+		if (program == null) {
+			// Program missing from the catalogue, fall back to the joined name
+			program = new ProgramModel(result.getString("program_name"));
+			program.setProgramId(programId);
 		}
 
+		return new StudentModel(result.getInt("student_id"), // Student ID
+				result.getString("first_name"), // First Name
+				result.getString("last_name"), // Last Name
+				program, // Associated Program
+				result.getString("email"), // Email
+				result.getString("number") // Phone Number
+		);
+	}
+
+	public StudentModel getSpecificStudentInfo(int studentId) {
 		// SQL query to join student and program tables
-		String query = "SELECT s.student_id, s.first_name, s.last_name, s.username, s.dob, s.gender, "
-				+ "s.email, s.number, s.program_id, s.image_path, "
-				+ "p.name AS program_name, p.type AS program_type, p.category AS program_category " + "FROM student s "
-				+ "JOIN program p ON s.program_id = p.program_id " + "WHERE s.student_id = ?";
+		String query = SqlStatement.STUDENT_DETAIL.getSql();
 
-		try (PreparedStatement stmt = dbConn.prepareStatement(query)) {
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(query)) {
 			stmt.setInt(1, studentId);
 			ResultSet result = stmt.executeQuery();
 			StudentModel student = null;
@@ -123,12 +260,13 @@ public class DashboardService {
 				String number = result.getString("number");
 				String imageUrl = result.getString("image_path");
 
-				// Create ProgramModel instance
-				ProgramModel program = new ProgramModel();
-				program.setProgramId(result.getInt("program_id"));
-				program.setName(result.getString("program_name"));
-				program.setType(result.getString("program_type"));
-				program.setCategory(result.getString("program_category"));
+				// Resolve the shared ProgramModel instance
+				ProgramModel program = ProgramCatalogue.getInstance().findById(result.getInt("program_id"));
+				if (program == null) {
+					program = new ProgramModel(result.getString("program_name"), result.getString("program_type"),
+							result.getString("program_category"));
+					program.setProgramId(result.getInt("program_id"));
+				}
 
 				// Create StudentModel instance
 				student = new StudentModel(id, firstName, lastName, userName, dob, gender, email, number, null, program,
@@ -145,15 +283,10 @@ public class DashboardService {
 	}
 
 	public List<StudentModel> getRecentStudents() {
-		if (isConnectionError) {
-			System.out.println("Connection Error!");
-			return null;
-		}
-
 		// SQL query to fetch student details
-		String query = "SELECT student_id, first_name, last_name, email, number "
-				+ "FROM student ORDER BY student_id DESC LIMIT 3";
-		try (PreparedStatement stmt = dbConn.prepareStatement(query)) {
+		String query = SqlStatement.STUDENT_RECENT.getSql();
+		try (Connection dbConn = DbConfig.getReadConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(query)) {
 			ResultSet result = stmt.executeQuery();
 			List<StudentModel> studentList = new ArrayList<>();
 
@@ -177,12 +310,13 @@ public class DashboardService {
 	}
 
 	public boolean updateStudent(StudentModel student) {
-		if (isConnectionError)
-			return false;
+		// Resolve the program before borrowing a connection for the update
+		int programId = getProgramId(student.getProgram().getName());
 
-		String updateQuery = "UPDATE student SET first_name = ?, last_name = ?, " + "username = ?, dob = ?, gender = ?,"
-				+ "email = ?, number = ?, program_id = ?, image_path = ? WHERE student_id = ?";
-		try (PreparedStatement stmt = dbConn.prepareStatement(updateQuery)) {
+		String updateQuery = SqlStatement.STUDENT_UPDATE.getSql();
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(updateQuery)) {
+			String[] previous = AccountAvailability.readIdentifiers(dbConn, student.getId());
 			stmt.setString(1, student.getFirstName());
 			stmt.setString(2, student.getLastName());
 			stmt.setString(3, student.getUserName());
@@ -190,12 +324,18 @@ public class DashboardService {
 			stmt.setString(5, student.getGender());
 			stmt.setString(6, student.getEmail());
 			stmt.setString(7, student.getNumber());
-			stmt.setInt(8, getProgramId(student.getProgram().getName()));
-			stmt.setString(9, student.getLastName());
+			stmt.setInt(8, programId);
+			stmt.setString(9, student.getImageUrl());
 
 			stmt.setInt(10, student.getId());
 
 			int rowsUpdated = stmt.executeUpdate();
+			DbConfig.recordWrite();
+			if (rowsUpdated > 0) {
+				StudentSearchIndex.getInstance().put(student, programId);
+				AccountAvailability.getInstance().changed(previous[0], student.getUserName(), previous[1],
+						student.getEmail());
+			}
 			return rowsUpdated > 0;
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -204,14 +344,15 @@ public class DashboardService {
 	}
 
 	public boolean deleteStudent(int studentId) {
-		if (isConnectionError)
-			return false;
-
-		String deleteQuery = "DELETE FROM student WHERE student_id = ?";
-		try (PreparedStatement stmt = dbConn.prepareStatement(deleteQuery)) {
+		String deleteQuery = SqlStatement.STUDENT_DELETE.getSql();
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(deleteQuery)) {
 			stmt.setInt(1, studentId);
 
 			int rowsDeleted = stmt.executeUpdate();
+			DbConfig.recordWrite();
+			StudentSearchIndex.getInstance().remove(studentId);
+			AccountAvailability.getInstance().removed(rowsDeleted);
 			return rowsDeleted > 0;
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -219,90 +360,137 @@ public class DashboardService {
 		}
 	}
 
-	public String getProgramName(int id) {
-		if (isConnectionError)
-			return null;
-
-		String deleteQuery = "select name from program where program_id = ?";
-		try (PreparedStatement stmt = dbConn.prepareStatement(deleteQuery)) {
-			stmt.setInt(1, id);
-
-			ResultSet result = stmt.executeQuery();
-			if (result.next())
-				return result.getString("name");
-			else
-				return "";
-		} catch (SQLException e) {
-			e.printStackTrace();
-			return null;
+	/**
+	 * Deletes several students with set-based DELETE statements in one
+	 * transaction.
+	 * 
+	 * @param studentIds the ids of the students to delete
+	 * @return the number of students deleted, or -1 if the operation failed and
+	 *         was rolled back
+	 */
+	public int deleteStudents(List<Integer> studentIds) {
+		int deleted = updateInChunks(SqlStatement.STUDENT_DELETE_IN, null, studentIds);
+		if (deleted >= 0) {
+			StudentSearchIndex.getInstance().removeAll(studentIds);
+			AccountAvailability.getInstance().removed(deleted);
 		}
+		return deleted;
 	}
 
-	public int getProgramId(String name) {
-		if (isConnectionError)
-			return -1;
-
-		String deleteQuery = "select program_id from program where name  = ?";
-		try (PreparedStatement stmt = dbConn.prepareStatement(deleteQuery)) {
-			stmt.setString(1, name);
+	/**
+	 * Moves several students to another program with set-based UPDATE
+	 * statements in one transaction.
+	 * 
+	 * @param studentIds the ids of the students to move
+	 * @param programId  the id of the target program
+	 * @return the number of students moved, or -1 if the operation failed and was
+	 *         rolled back
+	 */
+	public int reassignStudents(List<Integer> studentIds, int programId) {
+		int moved = updateInChunks(SqlStatement.STUDENT_SET_PROGRAM_IN, programId, studentIds);
+		if (moved >= 0) {
+			StudentSearchIndex.getInstance().moveToProgram(studentIds, programId);
+		}
+		return moved;
+	}
 
-			ResultSet result = stmt.executeQuery();
-			if (result.next())
-				return result.getInt("program_id");
-			else
-				return 0;
+	/**
+	 * Moves every student of one program to another program in a single UPDATE.
+	 * 
+	 * @param fromProgramId the id of the program to empty
+	 * @param toProgramId   the id of the target program
+	 * @return the number of students moved, or -1 if the operation failed
+	 */
+	public int reassignProgram(int fromProgramId, int toProgramId) {
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(SqlStatement.STUDENT_MOVE_PROGRAM.getSql())) {
+			stmt.setInt(1, toProgramId);
+			stmt.setInt(2, fromProgramId);
+			int moved = stmt.executeUpdate();
+			DbConfig.recordWrite();
+			StudentSearchIndex.getInstance().moveProgram(fromProgramId, toProgramId);
+			return moved;
 		} catch (SQLException e) {
 			e.printStackTrace();
 			return -1;
 		}
 	}
 
-	public String getTotalStudents() {
-		if (isConnectionError) {
-			return null;
+	/**
+	 * Runs an IN list statement over the ids in chunks of at most
+	 * {@link #MAX_IN_LIST_SIZE}, all in one transaction.
+	 * 
+	 * @param statement  the statement with an IN list placeholder
+	 * @param leadingArg a value bound before the IN list, or null for none
+	 * @param studentIds the ids for the IN list
+	 * @return the total number of affected rows, or -1 if the transaction was
+	 *         rolled back
+	 */
+	private int updateInChunks(SqlStatement statement, Integer leadingArg, List<Integer> studentIds) {
+		if (studentIds.isEmpty()) {
+			return 0;
 		}
 
-		String countQuery = "SELECT COUNT(*) AS total FROM student;";
-		try (PreparedStatement stmt = dbConn.prepareStatement(countQuery)) {
-
-			ResultSet result = stmt.executeQuery();
-			if (result.next()) {
-				return result.getString("total");
-			} else {
-				return "";
+		try (Connection dbConn = DbConfig.getDbConnection()) {
+			dbConn.setAutoCommit(false);
+			try {
+				int affected = 0;
+				for (int from = 0; from < studentIds.size(); from += MAX_IN_LIST_SIZE) {
+					List<Integer> chunk = studentIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, studentIds.size()));
+					int size = SqlStatement.inListSize(chunk.size());
+
+					try (PreparedStatement stmt = dbConn.prepareStatement(statement.getSql(size))) {
+						int index = 1;
+						if (leadingArg != null) {
+							stmt.setInt(index++, leadingArg);
+						}
+						for (int i = 0; i < size; i++) {
+							// Pad the IN list by repeating the last id
+							stmt.setInt(index++, chunk.get(Math.min(i, chunk.size() - 1)));
+						}
+						affected += stmt.executeUpdate();
+					}
+				}
+				dbConn.commit();
+				DbConfig.recordWrite();
+				return affected;
+			} catch (SQLException e) {
+				dbConn.rollback();
+				throw e;
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
-			return null;
+			return -1;
 		}
 	}
 
-	public String getComputingStudents() {
-		if (isConnectionError) {
-			return null;
-		}
+	/**
+	 * Resolves a program name from the {@link ProgramCatalogue}.
+	 * 
+	 * @param id the program id
+	 * @return the program name, or an empty string if there is no such program
+	 */
+	public String getProgramName(int id) {
+		ProgramModel program = ProgramCatalogue.getInstance().findById(id);
+		return program != null ? program.getName() : "";
+	}
 
-		String countQuery = "SELECT COUNT(*) AS total FROM student WHERE program_id = 1;";
-		try (PreparedStatement stmt = dbConn.prepareStatement(countQuery)) {
-			ResultSet result = stmt.executeQuery();
-			if (result.next()) {
-				return result.getString("total");
-			} else {
-				return "";
-			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-			return null;
-		}
+	/**
+	 * Resolves a program id from the {@link ProgramCatalogue}.
+	 * 
+	 * @param name the program name
+	 * @return the program id, or 0 if there is no such program
+	 */
+	public int getProgramId(String name) {
+		ProgramModel program = ProgramCatalogue.getInstance().findByName(name);
+		return program != null ? program.getProgramId() : 0;
 	}
 
-	public String getMultimediaStudents() {
-		if (isConnectionError) {
-			return null;
-		}
+	public String getTotalStudents() {
+		String countQuery = SqlStatement.STUDENT_COUNT.getSql();
+		try (Connection dbConn = DbConfig.getReadConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(countQuery)) {
 
-		String countQuery = "SELECT COUNT(*) AS total FROM student WHERE program_id = 2;";
-		try (PreparedStatement stmt = dbConn.prepareStatement(countQuery)) {
 			ResultSet result = stmt.executeQuery();
 			if (result.next()) {
 				return result.getString("total");
@@ -315,19 +503,29 @@ public class DashboardService {
 		}
 	}
 
-	public String getNetworkingStudents() {
-		if (isConnectionError) {
-			return null;
-		}
-
-		String countQuery = "SELECT COUNT(*) AS total FROM student WHERE program_id = 3;";
-		try (PreparedStatement stmt = dbConn.prepareStatement(countQuery)) {
-			ResultSet result = stmt.executeQuery();
-			if (result.next()) {
-				return result.getString("total");
-			} else {
-				return "";
+	/**
+	 * Counts the students of every program in a single grouped query. Programs
+	 * without students are included with a count of zero, so a newly added
+	 * program shows up without code changes.
+	 * 
+	 * @return the dashboard statistics, or null if an exception occurs
+	 */
+	public DashboardStatsModel getDashboardStats() {
+		String countQuery = SqlStatement.PROGRAM_STUDENT_COUNTS.getSql();
+		try (Connection dbConn = DbConfig.getReadConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(countQuery);
+				ResultSet result = stmt.executeQuery()) {
+			DashboardStatsModel stats = new DashboardStatsModel();
+			while (result.next()) {
+				ProgramModel program = ProgramCatalogue.getInstance().findById(result.getInt("program_id"));
+				if (program == null) {
+					program = new ProgramModel(result.getString("name"), result.getString("type"),
+							result.getString("category"));
+					program.setProgramId(result.getInt("program_id"));
+				}
+				stats.addProgramCount(program, result.getLong("total"));
 			}
+			return stats;
 		} catch (SQLException e) {
 			e.printStackTrace();
 			return null;
@@ -4,76 +4,110 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.college.config.CryptoExecutor;
 import com.college.config.DbConfig;
 import com.college.model.StudentModel;
 import com.college.util.PasswordUtil;
 
 /**
- * Service class for handling login operations. Connects to the database,
+ * Service class for handling login operations. Borrows a pooled connection,
  * verifies user credentials, and returns login status.
+ * <p>
+ * The connection is returned to the pool before the password is checked, and
+ * the key derivation runs on the {@link CryptoExecutor} rather than the request
+ * thread. After a successful login a legacy or under-cost stored password is
+ * replaced by a fresh hash at the configured cost.
+ * </p>
  */
 public class LoginService {
 
-	private Connection dbConn;
-	private boolean isConnectionError = false;
-
-	/**
-	 * Constructor initializes the database connection. Sets the connection error
-	 * flag if the connection fails.
-	 */
-	public LoginService() {
-		try {
-			dbConn = DbConfig.getDbConnection();
-		} catch (SQLException | ClassNotFoundException ex) {
-			ex.printStackTrace();
-			isConnectionError = true;
-		}
-	}
-
 	/**
 	 * Validates the user credentials against the database records.
 	 *
 	 * @param studentModel the StudentModel object containing user credentials
 	 * @return true if the user credentials are valid, false otherwise; null if a
 	 *         connection error occurs
+	 * @throws RejectedExecutionException if too many passwords are being checked
+	 *                                    and the user should try again shortly
 	 */
 	public Boolean loginUser(StudentModel studentModel) {
-		if (isConnectionError) {
-			System.out.println("Connection Error!");
-			return null;
-		}
-
-		String query = "SELECT username, password FROM student WHERE username = ?";
-		try (PreparedStatement stmt = dbConn.prepareStatement(query)) {
+		String query = SqlStatement.LOGIN_CREDENTIALS.getSql();
+		String dbUsername;
+		String dbPassword;
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(query)) {
 			stmt.setString(1, studentModel.getUserName());
-			ResultSet result = stmt.executeQuery();
-
-			if (result.next()) {
-				return validatePassword(result, studentModel);
+			try (ResultSet result = stmt.executeQuery()) {
+				if (!result.next()) {
+					return false;
+				}
+				dbUsername = result.getString("username");
+				dbPassword = result.getString("password");
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
 			return null;
 		}
 
-		return false;
+		if (!validatePassword(dbUsername, dbPassword, studentModel)) {
+			return false;
+		}
+		if (PasswordUtil.needsRehash(dbPassword)) {
+			rehashPassword(dbUsername, dbPassword, studentModel.getPassword());
+		}
+		return true;
 	}
 
 	/**
 	 * Validates the password retrieved from the database.
 	 *
-	 * @param result       the ResultSet containing the username and password from
-	 *                     the database
+	 * @param dbUsername   the username stored in the database
+	 * @param dbPassword   the stored password hash or legacy ciphertext
 	 * @param studentModel the StudentModel object containing user credentials
 	 * @return true if the passwords match, false otherwise
-	 * @throws SQLException if a database access error occurs
 	 */
-	private boolean validatePassword(ResultSet result, StudentModel studentModel) throws SQLException {
-		String dbUsername = result.getString("username");
-		String dbPassword = result.getString("password");
+	private boolean validatePassword(String dbUsername, String dbPassword, StudentModel studentModel) {
+		if (!dbUsername.equals(studentModel.getUserName())) {
+			return false;
+		}
+
+		Boolean matches = CryptoExecutor
+				.execute(() -> PasswordUtil.verify(studentModel.getPassword(), dbPassword, dbUsername));
+		return matches != null && matches;
+	}
 
-		return dbUsername.equals(studentModel.getUserName())
-				&& PasswordUtil.decrypt(dbPassword, dbUsername).equals(studentModel.getPassword());
+	/**
+	 * Stores a fresh hash of a password that was just verified. Failures are
+	 * logged and leave the old entry in place; the upgrade is retried on the next
+	 * login, and is skipped outright while the crypto executor is saturated.
+	 *
+	 * @param username    the username of the account
+	 * @param oldPassword the stored entry that was verified
+	 * @param password    the plain text password
+	 */
+	private void rehashPassword(String username, String oldPassword, String password) {
+		String newPassword;
+		try {
+			newPassword = CryptoExecutor.execute(() -> PasswordUtil.hash(password));
+		} catch (RejectedExecutionException e) {
+			return;
+		}
+		if (newPassword == null) {
+			return;
+		}
+
+		String query = SqlStatement.LOGIN_REHASH.getSql();
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(query)) {
+			stmt.setString(1, newPassword);
+			stmt.setString(2, username);
+			stmt.setString(3, oldPassword);
+			stmt.executeUpdate();
+			DbConfig.recordWrite();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,249 @@
+package com.college.service;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limit for login attempts, checked before any database or password work.
+ * The address buckets also limit the public availability check, which would
+ * otherwise tell anyone which usernames and emails are registered.
+ * <p>
+ * Each username and each client address has a token bucket; an attempt takes
+ * one token from both, and is refused when either is empty. A bucket holds up
+ * to {@code capacity} tokens and regains one every {@code refill} period, so
+ * short bursts pass and sustained guessing is slowed to the refill rate. The
+ * defaults (5 per username, one more every 12 seconds; 200 per address, one
+ * more every 200 milliseconds) can be changed with
+ * {@code -Dcollege.login.userCapacity}, {@code college.login.userRefillMillis},
+ * {@code college.login.addressCapacity} and
+ * {@code college.login.addressRefillMillis}. The address budget is far above
+ * the per-username one because a campus NAT puts many students behind one
+ * address; it only stops guessing spread across many usernames.
+ * </p>
+ * <p>
+ * A bucket's tokens and last refill time are packed into one {@link AtomicLong}
+ * and updated by compare-and-set, so checks never lock. Buckets live in striped
+ * maps bounded to {@code -Dcollege.login.maxEntries} keys per kind. Once a
+ * stripe is full, new keys share that stripe's overflow bucket until the
+ * background sweep removes idle entries, which are those that have refilled
+ * completely and so carry no state worth keeping.
+ * </p>
+ */
+public class LoginThrottle {
+
+	private static final LoginThrottle INSTANCE = new LoginThrottle();
+
+	// How often idle buckets are swept
+	private static final long SWEEP_INTERVAL_SECONDS = 60;
+	// Longer usernames are cut so a key cannot be used to inflate memory
+	private static final int MAX_KEY_LENGTH = 64;
+
+	private final BucketTable users = new BucketTable(Integer.getInteger("college.login.userCapacity", 5),
+			Long.getLong("college.login.userRefillMillis", 12_000));
+	private final BucketTable addresses = new BucketTable(Integer.getInteger("college.login.addressCapacity", 200),
+			Long.getLong("college.login.addressRefillMillis", 200));
+	private final long baseNanos = System.nanoTime();
+
+	private ScheduledExecutorService scheduler;
+	private ScheduledFuture<?> sweepTask;
+
+	private LoginThrottle() {
+	}
+
+	/**
+	 * @return the shared throttle instance
+	 */
+	public static LoginThrottle getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Schedules the sweep of idle buckets. Called once at application startup.
+	 */
+	public synchronized void start() {
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "login-throttle-sweep");
+				thread.setDaemon(true);
+				return thread;
+			});
+			sweepTask = scheduler.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS,
+					TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Stops the sweep. Called when the application is undeployed.
+	 */
+	public synchronized void stop() {
+		if (scheduler != null) {
+			sweepTask.cancel(false);
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Records a login attempt if both the username and the address have tokens
+	 * left.
+	 *
+	 * @param username the submitted username, may be null
+	 * @param address  the client address
+	 * @return 0 if the attempt may proceed, otherwise the number of milliseconds
+	 *         until the next attempt would be allowed
+	 */
+	public long tryAcquire(String username, String address) {
+		long now = now();
+		long addressWait = addresses.tryAcquire(normalize(address), now);
+		if (addressWait > 0) {
+			return addressWait;
+		}
+		return users.tryAcquire(normalize(username), now);
+	}
+
+	/**
+	 * Records a request from an address against the address bucket only, for
+	 * public lookups that reveal which accounts exist, such as the
+	 * availability check.
+	 *
+	 * @param address the client address
+	 * @return 0 if the request may proceed, otherwise the number of milliseconds
+	 *         until the next request would be allowed
+	 */
+	public long tryAcquireAddress(String address) {
+		return addresses.tryAcquire(normalize(address), now());
+	}
+
+	/**
+	 * @return the number of usernames and addresses currently tracked
+	 */
+	public long getTrackedKeys() {
+		return users.size() + addresses.size();
+	}
+
+	/**
+	 * Removes buckets that have refilled completely.
+	 */
+	void sweep() {
+		long now = now();
+		users.sweep(now);
+		addresses.sweep(now);
+	}
+
+	private long now() {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - baseNanos);
+	}
+
+	private static String normalize(String key) {
+		if (key == null) {
+			return "";
+		}
+		String normalized = key.trim().toLowerCase(Locale.ROOT);
+		return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+	}
+
+	/**
+	 * Buckets of one kind of key, spread over independently bounded stripes.
+	 */
+	private static final class BucketTable {
+		private static final int STRIPES = 16;
+
+		private final long capacity;
+		private final long refillMillis;
+		private final int maxPerStripe;
+		private final ConcurrentHashMap<String, Bucket>[] stripes;
+		private final Bucket[] overflow;
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		BucketTable(int capacity, long refillMillis) {
+			this.capacity = Math.max(1, Math.min(capacity, Bucket.MAX_TOKENS)) * Bucket.SCALE;
+			this.refillMillis = Math.max(1, refillMillis);
+			this.maxPerStripe = Math.max(1, Integer.getInteger("college.login.maxEntries", 100_000) / STRIPES);
+			this.stripes = new ConcurrentHashMap[STRIPES];
+			this.overflow = new Bucket[STRIPES];
+			for (int i = 0; i < STRIPES; i++) {
+				stripes[i] = new ConcurrentHashMap<>();
+				overflow[i] = new Bucket(this.capacity, 0);
+			}
+		}
+
+		long tryAcquire(String key, long now) {
+			int index = (key.hashCode() ^ (key.hashCode() >>> 16)) & (STRIPES - 1);
+			ConcurrentHashMap<String, Bucket> stripe = stripes[index];
+			Bucket bucket = stripe.get(key);
+			if (bucket == null) {
+				if (stripe.size() >= maxPerStripe) {
+					bucket = overflow[index];
+				} else {
+					Bucket created = new Bucket(capacity, now);
+					Bucket existing = stripe.putIfAbsent(key, created);
+					bucket = existing != null ? existing : created;
+				}
+			}
+			return bucket.tryAcquire(now, capacity, refillMillis);
+		}
+
+		void sweep(long now) {
+			for (ConcurrentHashMap<String, Bucket> stripe : stripes) {
+				stripe.values().removeIf(bucket -> bucket.isFull(now, capacity, refillMillis));
+			}
+		}
+
+		long size() {
+			long size = 0;
+			for (ConcurrentHashMap<String, Bucket> stripe : stripes) {
+				size += stripe.size();
+			}
+			return size;
+		}
+	}
+
+	/**
+	 * Token bucket whose state is a single long: the time of the last refill in
+	 * milliseconds in the high bits and the tokens, in thousandths, in the low
+	 * bits.
+	 */
+	private static final class Bucket {
+		static final long SCALE = 1_000;
+		static final int MAX_TOKENS = 1_000;
+		private static final int TOKEN_BITS = 20;
+		private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+		private final AtomicLong state;
+
+		Bucket(long tokens, long now) {
+			state = new AtomicLong((now << TOKEN_BITS) | tokens);
+		}
+
+		long tryAcquire(long now, long capacity, long refillMillis) {
+			while (true) {
+				long current = state.get();
+				long tokens = available(current, now, capacity, refillMillis);
+				if (tokens < SCALE) {
+					// Round up so the caller never retries a moment too early
+					return Math.max(1, ((SCALE - tokens) * refillMillis + SCALE - 1) / SCALE);
+				}
+				long next = (Math.max(now, current >>> TOKEN_BITS) << TOKEN_BITS) | (tokens - SCALE);
+				if (state.compareAndSet(current, next)) {
+					return 0;
+				}
+			}
+		}
+
+		boolean isFull(long now, long capacity, long refillMillis) {
+			return available(state.get(), now, capacity, refillMillis) >= capacity;
+		}
+
+		private static long available(long state, long now, long capacity, long refillMillis) {
+			long elapsed = Math.max(0, now - (state >>> TOKEN_BITS));
+			long refilled = elapsed >= refillMillis * (capacity / SCALE) ? capacity
+					: (state & TOKEN_MASK) + elapsed * SCALE / refillMillis;
+			return Math.min(capacity, refilled);
+		}
+	}
+}
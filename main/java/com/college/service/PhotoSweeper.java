@@ -0,0 +1,124 @@
+package com.college.service;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.college.config.DbConfig;
+import com.college.util.PhotoStore;
+
+/**
+ * Deletes stored student photos that no student refers to any more.
+ * <p>
+ * Requests never delete a photo: the same content may be stored for several
+ * accounts at once, so a file created for a registration that then failed may
+ * already be in use by another. Such files, and photos replaced or left by
+ * deleted students, are removed here instead by
+ * {@link PhotoStore#sweep(String, long, java.util.function.Function)}, which
+ * checks each candidate against {@code image_path}. The sweep runs every
+ * {@code -Dcollege.images.sweepHours} (24 by default) and only considers
+ * photos not stored for {@code -Dcollege.images.sweepGraceHours} (24 by
+ * default), far longer than any request takes to save its record.
+ * </p>
+ */
+public class PhotoSweeper {
+
+	private static final Logger LOGGER = Logger.getLogger(PhotoSweeper.class.getName());
+
+	private static final PhotoSweeper INSTANCE = new PhotoSweeper();
+
+	private static final String FOLDER = "student";
+
+	private final long intervalHours = Math.max(1, Long.getLong("college.images.sweepHours", 24));
+	private final long graceMillis = TimeUnit.HOURS
+			.toMillis(Math.max(1, Long.getLong("college.images.sweepGraceHours", 24)));
+
+	private ScheduledExecutorService scheduler;
+
+	private PhotoSweeper() {
+	}
+
+	/**
+	 * @return the shared sweeper instance
+	 */
+	public static PhotoSweeper getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Schedules the periodic sweep. Called once at application startup.
+	 */
+	public synchronized void start() {
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "photo-sweep");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(this::sweep, intervalHours, intervalHours, TimeUnit.HOURS);
+		}
+	}
+
+	/**
+	 * Stops the periodic sweep. Called when the application is undeployed.
+	 */
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Deletes the unreferenced photos once.
+	 *
+	 * @return the number of photos deleted, or -1 if the sweep failed
+	 */
+	public int sweep() {
+		try {
+			int deleted = PhotoStore.getInstance().sweep(FOLDER, graceMillis, this::findImageKeys);
+			if (deleted > 0) {
+				LOGGER.log(Level.INFO, "Deleted {0} unused photos", deleted);
+			}
+			return deleted;
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Could not sweep unused photos", e);
+			return -1;
+		}
+	}
+
+	/**
+	 * Reads the photo keys in use that start with a shard prefix. The prefix
+	 * is hex digits only, so it needs no escaping in the LIKE pattern, and the
+	 * lookup is a range scan of {@code idx_student_image_path}.
+	 *
+	 * @param prefix the first four hex digits of the keys
+	 * @return the keys in use, or null if a database error occurs
+	 */
+	private Set<String> findImageKeys(String prefix) {
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(SqlStatement.STUDENT_IMAGE_KEYS.getSql())) {
+			stmt.setString(1, prefix + "%");
+			Set<String> keys = new HashSet<>();
+			try (ResultSet result = stmt.executeQuery()) {
+				while (result.next()) {
+					keys.add(result.getString("image_path"));
+				}
+			}
+			return keys;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+}
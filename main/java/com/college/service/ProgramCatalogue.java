@@ -0,0 +1,244 @@
+package com.college.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.college.config.DbConfig;
+import com.college.model.ProgramModel;
+
+/**
+ * Shared, read-mostly cache of the program table.
+ * <p>
+ * The catalogue is held in an immutable snapshot that is replaced as a whole on
+ * refresh, so lookups never lock and never touch the database. Every service
+ * resolves programs through this class and therefore shares the same
+ * {@link ProgramModel} instances, which must be treated as read-only.
+ * </p>
+ */
+public class ProgramCatalogue {
+
+	private static final ProgramCatalogue INSTANCE = new ProgramCatalogue();
+
+	// How often the catalogue is reloaded in the background
+	private static final long REFRESH_INTERVAL_MINUTES = 10;
+	// Minimum time between reloads triggered by a lookup miss
+	private static final long MISS_REFRESH_INTERVAL_MS = 30_000;
+
+	private volatile Snapshot snapshot;
+	private volatile long lastRefreshMillis;
+	private ScheduledExecutorService scheduler;
+	private ScheduledFuture<?> refreshTask;
+
+	private ProgramCatalogue() {
+	}
+
+	/**
+	 * @return the shared catalogue instance
+	 */
+	public static ProgramCatalogue getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Loads the catalogue and schedules periodic refreshes. Called once at
+	 * application startup.
+	 */
+	public synchronized void start() {
+		refresh();
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "program-catalogue-refresh");
+				thread.setDaemon(true);
+				return thread;
+			});
+			refreshTask = scheduler.scheduleWithFixedDelay(this::refresh, REFRESH_INTERVAL_MINUTES,
+					REFRESH_INTERVAL_MINUTES, TimeUnit.MINUTES);
+		}
+	}
+
+	/**
+	 * Stops the periodic refresh. Called when the application is undeployed.
+	 */
+	public synchronized void stop() {
+		if (scheduler != null) {
+			refreshTask.cancel(false);
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Reloads the catalogue from the database and swaps in the new snapshot. The
+	 * previous snapshot stays in use if the reload fails.
+	 *
+	 * @return true if the catalogue was reloaded
+	 */
+	public boolean refresh() {
+		String query = SqlStatement.PROGRAM_ALL.getSql();
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement stmt = dbConn.prepareStatement(query);
+				ResultSet result = stmt.executeQuery()) {
+			List<ProgramModel> programs = new ArrayList<>();
+			while (result.next()) {
+				ProgramModel program = new ProgramModel(result.getString("name"), result.getString("type"),
+						result.getString("category"));
+				program.setProgramId(result.getInt("program_id"));
+				programs.add(program);
+			}
+			snapshot = new Snapshot(reuseUnchanged(programs));
+			return true;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return false;
+		} finally {
+			lastRefreshMillis = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Discards the cached programs and reloads them immediately. Call after
+	 * changing the program table.
+	 */
+	public void invalidate() {
+		refresh();
+	}
+
+	/**
+	 * Looks up a program by id.
+	 *
+	 * @param programId the program id
+	 * @return the shared program instance, or null if there is no such program
+	 */
+	public ProgramModel findById(int programId) {
+		ProgramModel program = current().byId.get(programId);
+		if (program == null && refreshAfterMiss()) {
+			program = current().byId.get(programId);
+		}
+		return program;
+	}
+
+	/**
+	 * Looks up a program by name, ignoring case.
+	 *
+	 * @param name the program name
+	 * @return the shared program instance, or null if there is no such program
+	 */
+	public ProgramModel findByName(String name) {
+		if (name == null) {
+			return null;
+		}
+		String key = name.trim().toLowerCase(Locale.ROOT);
+		ProgramModel program = current().byName.get(key);
+		if (program == null && refreshAfterMiss()) {
+			program = current().byName.get(key);
+		}
+		return program;
+	}
+
+	/**
+	 * @return every program, ordered by id
+	 */
+	public List<ProgramModel> getAll() {
+		return current().all;
+	}
+
+	/**
+	 * Returns the current snapshot, loading it on first use if the catalogue was
+	 * not started.
+	 */
+	private Snapshot current() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			synchronized (this) {
+				if (snapshot == null) {
+					// Retry a failed initial load no more often than after a miss
+					if (lastRefreshMillis == 0) {
+						refresh();
+					} else {
+						refreshAfterMiss();
+					}
+				}
+				current = snapshot;
+			}
+		}
+		return current != null ? current : Snapshot.EMPTY;
+	}
+
+	/**
+	 * Reloads the catalogue after a lookup miss, at most once per
+	 * {@link #MISS_REFRESH_INTERVAL_MS}, so that newly added programs are found.
+	 *
+	 * @return true if a reload happened
+	 */
+	private boolean refreshAfterMiss() {
+		if (System.currentTimeMillis() - lastRefreshMillis < MISS_REFRESH_INTERVAL_MS) {
+			return false;
+		}
+		synchronized (this) {
+			if (System.currentTimeMillis() - lastRefreshMillis < MISS_REFRESH_INTERVAL_MS) {
+				return false;
+			}
+			return refresh();
+		}
+	}
+
+	/**
+	 * Keeps existing instances for programs whose data did not change, so models
+	 * already handed out stay identical to the ones in the new snapshot.
+	 */
+	private List<ProgramModel> reuseUnchanged(List<ProgramModel> loaded) {
+		Snapshot previous = snapshot;
+		if (previous == null) {
+			return loaded;
+		}
+		List<ProgramModel> merged = new ArrayList<>(loaded.size());
+		for (ProgramModel program : loaded) {
+			ProgramModel existing = previous.byId.get(program.getProgramId());
+			merged.add(existing != null && sameData(existing, program) ? existing : program);
+		}
+		return merged;
+	}
+
+	private static boolean sameData(ProgramModel a, ProgramModel b) {
+		return Objects.equals(a.getName(), b.getName()) && Objects.equals(a.getType(), b.getType())
+				&& Objects.equals(a.getCategory(), b.getCategory());
+	}
+
+	/**
+	 * Immutable view of the program table.
+	 */
+	private static final class Snapshot {
+		private static final Snapshot EMPTY = new Snapshot(Collections.emptyList());
+
+		private final List<ProgramModel> all;
+		private final Map<Integer, ProgramModel> byId;
+		private final Map<String, ProgramModel> byName;
+
+		private Snapshot(List<ProgramModel> programs) {
+			Map<Integer, ProgramModel> ids = new HashMap<>();
+			Map<String, ProgramModel> names = new HashMap<>();
+			for (ProgramModel program : programs) {
+				ids.put(program.getProgramId(), program);
+				if (program.getName() != null) {
+					names.put(program.getName().trim().toLowerCase(Locale.ROOT), program);
+				}
+			}
+			this.all = Collections.unmodifiableList(new ArrayList<>(programs));
+			this.byId = Collections.unmodifiableMap(ids);
+			this.byName = Collections.unmodifiableMap(names);
+		}
+	}
+}
@@ -1,12 +1,19 @@
 package com.college.service;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import com.college.config.DbConfig;
+import com.college.model.ProgramModel;
 import com.college.model.StudentModel;
 
 /**
@@ -15,61 +22,167 @@ import com.college.model.StudentModel;
  */
 public class RegisterService {
 
-	private Connection dbConn;
-
-	/**
-	 * Constructor initializes the database connection.
-	 */
-	public RegisterService() {
-		try {
-			this.dbConn = DbConfig.getDbConnection();
-		} catch (SQLException | ClassNotFoundException ex) {
-			System.err.println("Database connection error: " + ex.getMessage());
-			ex.printStackTrace();
-		}
-	}
-
 	/**
 	 * Registers a new student in the database.
 	 *
 	 * @param studentModel the student details to be registered
-	 * @return Boolean indicating the success of the operation
+	 * @return true if the student was registered, false if the username or email
+	 *         is already taken, or null if a database error occurs
 	 */
 	public Boolean addStudent(StudentModel studentModel) {
-		if (dbConn == null) {
-			System.err.println("Database connection is not available.");
-			return null;
-		}
-
-		String programQuery = "SELECT program_id FROM program WHERE name = ?";
-		String insertQuery = "INSERT INTO student (first_name, last_name, username, dob, gender, email, number, password, program_id, image_path) "
-				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+		String insertQuery = SqlStatement.STUDENT_INSERT.getSql();
 
-		try (PreparedStatement programStmt = dbConn.prepareStatement(programQuery);
-				PreparedStatement insertStmt = dbConn.prepareStatement(insertQuery)) {
-
-			// Fetch program ID
-			programStmt.setString(1, studentModel.getProgram().getName());
-			ResultSet result = programStmt.executeQuery();
-			int programId = result.next() ? result.getInt("program_id") : 1;
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement insertStmt = dbConn.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
 
 			// Insert student details
-			insertStmt.setString(1, studentModel.getFirstName());
-			insertStmt.setString(2, studentModel.getLastName());
-			insertStmt.setString(3, studentModel.getUserName());
-			insertStmt.setDate(4, Date.valueOf(studentModel.getDob()));
-			insertStmt.setString(5, studentModel.getGender());
-			insertStmt.setString(6, studentModel.getEmail());
-			insertStmt.setString(7, studentModel.getNumber());
-			insertStmt.setString(8, studentModel.getPassword());
-			insertStmt.setInt(9, programId);
-			insertStmt.setString(10, studentModel.getImageUrl());
+			bindStudent(insertStmt, studentModel);
 
-			return insertStmt.executeUpdate() > 0;
+			boolean inserted = insertStmt.executeUpdate() > 0;
+			DbConfig.recordWrite();
+			if (inserted) {
+				AccountAvailability.getInstance().added(studentModel.getUserName(), studentModel.getEmail());
+				indexInserted(insertStmt, Collections.singletonList(studentModel));
+			}
+			return inserted;
 		} catch (SQLException e) {
+			if (isUniqueViolation(e)) {
+				// Taken by a registration that passed the availability check at the same time
+				return false;
+			}
 			System.err.println("Error during student registration: " + e.getMessage());
 			e.printStackTrace();
 			return null;
 		}
 	}
+
+	/**
+	 * Registers several students in one JDBC batch and one transaction.
+	 * <p>
+	 * If the batch fails, it is rolled back and the students are inserted one by
+	 * one so that every rejected student gets its own error message while the
+	 * others are still registered.
+	 * </p>
+	 *
+	 * @param students the students to register, with passwords already encrypted
+	 * @return one entry per student: null if it was inserted, otherwise the error
+	 *         message; null if the database is unavailable
+	 */
+	public List<String> addStudents(List<StudentModel> students) {
+		String insertQuery = SqlStatement.STUDENT_INSERT.getSql();
+
+		try (Connection dbConn = DbConfig.getDbConnection()) {
+			dbConn.setAutoCommit(false);
+			try (PreparedStatement insertStmt = dbConn.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
+				for (StudentModel student : students) {
+					bindStudent(insertStmt, student);
+					insertStmt.addBatch();
+				}
+				insertStmt.executeBatch();
+				dbConn.commit();
+				DbConfig.recordWrite();
+				for (StudentModel student : students) {
+					AccountAvailability.getInstance().added(student.getUserName(), student.getEmail());
+				}
+				indexInserted(insertStmt, students);
+				return new ArrayList<>(Collections.nCopies(students.size(), (String) null));
+			} catch (BatchUpdateException e) {
+				dbConn.rollback();
+			}
+
+			// Retry row by row to find out which students were rejected
+			dbConn.setAutoCommit(true);
+			List<String> errors = new ArrayList<>(students.size());
+			try (PreparedStatement insertStmt = dbConn.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
+				for (StudentModel student : students) {
+					try {
+						bindStudent(insertStmt, student);
+						insertStmt.executeUpdate();
+						errors.add(null);
+						AccountAvailability.getInstance().added(student.getUserName(), student.getEmail());
+						indexInserted(insertStmt, Collections.singletonList(student));
+					} catch (SQLException e) {
+						errors.add(e.getMessage());
+					}
+				}
+			}
+			DbConfig.recordWrite();
+			return errors;
+		} catch (SQLException e) {
+			System.err.println("Error during bulk student registration: " + e.getMessage());
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Adds just inserted students to the search index under their generated ids.
+	 * <p>
+	 * Ids are handed out at insert time but become visible at commit, so a
+	 * registration may commit before an import that took lower ids. The rows
+	 * are therefore indexed from the keys of their own insert rather than by
+	 * reading the ids above the highest indexed one. The statement is not
+	 * cached by the pool, because the cache does not key on generated keys.
+	 * Students whose keys cannot be read are left to the periodic rebuild.
+	 * </p>
+	 *
+	 * @param insertStmt the executed insert, prepared to return generated keys
+	 * @param students   the inserted students, in insert order
+	 */
+	private void indexInserted(PreparedStatement insertStmt, List<StudentModel> students) {
+		try (ResultSet keys = insertStmt.getGeneratedKeys()) {
+			for (StudentModel student : students) {
+				if (!keys.next()) {
+					return;
+				}
+				student.setId(keys.getInt(1));
+				StudentSearchIndex.getInstance().put(student, resolveProgramId(student));
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * @param e an error of an insert
+	 * @return true if the insert broke a unique index, such as the username's
+	 */
+	private static boolean isUniqueViolation(SQLException e) {
+		// SQLSTATE class 23 is an integrity constraint violation
+		return e instanceof SQLIntegrityConstraintViolationException
+				|| (e.getSQLState() != null && e.getSQLState().startsWith("23"));
+	}
+
+	/**
+	 * Sets the insert parameters for a student.
+	 *
+	 * @param insertStmt the prepared insert statement
+	 * @param student    the student to insert
+	 * @throws SQLException if a parameter cannot be set
+	 */
+	private void bindStudent(PreparedStatement insertStmt, StudentModel student) throws SQLException {
+		int programId = resolveProgramId(student);
+
+		insertStmt.setString(1, student.getFirstName());
+		insertStmt.setString(2, student.getLastName());
+		insertStmt.setString(3, student.getUserName());
+		insertStmt.setDate(4, Date.valueOf(student.getDob()));
+		insertStmt.setString(5, student.getGender());
+		insertStmt.setString(6, student.getEmail());
+		insertStmt.setString(7, student.getNumber());
+		insertStmt.setString(8, student.getPassword());
+		insertStmt.setInt(9, programId);
+		insertStmt.setString(10, student.getImageUrl());
+	}
+
+	/**
+	 * Resolves the program ID of a student from the shared catalogue.
+	 *
+	 * @param student the student to insert
+	 * @return the program's id, or 1 if the program is not known
+	 */
+	private int resolveProgramId(StudentModel student) {
+		ProgramModel program = ProgramCatalogue.getInstance().findByName(student.getProgram().getName());
+		return program != null ? program.getProgramId() : 1;
+	}
 }
@@ -0,0 +1,132 @@
+package com.college.service;
+
+/**
+ * Registry of every SQL statement used by the service layer.
+ * <p>
+ * Keeping each statement text in one place means the same string is always
+ * passed to {@code prepareStatement}, so the per-connection statement cache in
+ * {@link com.college.config.ConnectionPool} can reuse the prepared statement
+ * across calls.
+ * </p>
+ */
+public enum SqlStatement {
+
+	// Student listings
+	STUDENT_LIST("SELECT s.student_id, s.first_name, s.last_name, s.email, s.number, "
+			+ "s.program_id, p.name AS program_name " + "FROM student s "
+			+ "LEFT JOIN program p ON s.program_id = p.program_id " + "ORDER BY s.student_id"),
+
+	STUDENT_PAGE_AFTER("SELECT s.student_id, s.first_name, s.last_name, s.email, s.number, "
+			+ "s.program_id, p.name AS program_name " + "FROM student s "
+			+ "LEFT JOIN program p ON s.program_id = p.program_id "
+			+ "WHERE s.student_id > ? ORDER BY s.student_id ASC LIMIT ?"),
+
+	STUDENT_PAGE_BEFORE("SELECT s.student_id, s.first_name, s.last_name, s.email, s.number, "
+			+ "s.program_id, p.name AS program_name " + "FROM student s "
+			+ "LEFT JOIN program p ON s.program_id = p.program_id "
+			+ "WHERE s.student_id < ? ORDER BY s.student_id DESC LIMIT ?"),
+
+	STUDENT_RECENT("SELECT student_id, first_name, last_name, email, number "
+			+ "FROM student ORDER BY student_id DESC LIMIT 3"),
+
+	STUDENT_DETAIL("SELECT s.student_id, s.first_name, s.last_name, s.username, s.dob, s.gender, "
+			+ "s.email, s.number, s.program_id, s.image_path, "
+			+ "p.name AS program_name, p.type AS program_type, p.category AS program_category " + "FROM student s "
+			+ "JOIN program p ON s.program_id = p.program_id " + "WHERE s.student_id = ?"),
+
+	// Search index source, read in id order from a starting id
+	STUDENT_SEARCH_SOURCE("SELECT student_id, first_name, last_name, username, email, number, program_id "
+			+ "FROM student WHERE student_id > ? ORDER BY student_id"),
+
+	// Counts
+	STUDENT_COUNT("SELECT COUNT(*) AS total FROM student"),
+
+	PROGRAM_STUDENT_COUNTS("SELECT p.program_id, p.name, p.type, p.category, COUNT(s.student_id) AS total "
+			+ "FROM program p " + "LEFT JOIN student s ON s.program_id = p.program_id "
+			+ "GROUP BY p.program_id, p.name, p.type, p.category " + "ORDER BY p.program_id"),
+
+	// Student writes
+	STUDENT_INSERT("INSERT INTO student (first_name, last_name, username, dob, gender, email, number, password, "
+			+ "program_id, image_path) " + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"),
+
+	// A null image_path keeps the current photo
+	STUDENT_UPDATE("UPDATE student SET first_name = ?, last_name = ?, " + "username = ?, dob = ?, gender = ?,"
+			+ "email = ?, number = ?, program_id = ?, image_path = COALESCE(?, image_path) WHERE student_id = ?"),
+
+	STUDENT_UPDATE_CONTACT("UPDATE student SET first_name = ?, last_name = ?, program_id = ?, "
+			+ "email = ?, number = ? WHERE student_id = ?"),
+
+	STUDENT_DELETE("DELETE FROM student WHERE student_id = ?"),
+
+	// Set-based bulk writes; %s is replaced by the IN list placeholders
+	STUDENT_DELETE_IN("DELETE FROM student WHERE student_id IN (%s)"),
+
+	STUDENT_SET_PROGRAM_IN("UPDATE student SET program_id = ? WHERE student_id IN (%s)"),
+
+	STUDENT_MOVE_PROGRAM("UPDATE student SET program_id = ? WHERE program_id = ?"),
+
+	// Account availability; both lookups must be served by an index
+	ACCOUNT_IDENTIFIERS("SELECT username, email FROM student"),
+
+	STUDENT_IDENTIFIERS("SELECT username, email FROM student WHERE student_id = ?"),
+
+	USERNAME_EXISTS("SELECT 1 FROM student WHERE username = ? LIMIT 1"),
+
+	EMAIL_EXISTS("SELECT 1 FROM student WHERE email = ? LIMIT 1"),
+
+	// Photo sweep; a range scan of idx_student_image_path
+	STUDENT_IMAGE_KEYS("SELECT image_path FROM student WHERE image_path LIKE ?"),
+
+	// Login
+	LOGIN_CREDENTIALS("SELECT username, password FROM student WHERE username = ?"),
+
+	// Only replaces the password that was verified, so a concurrent change wins
+	LOGIN_REHASH("UPDATE student SET password = ? WHERE username = ? AND password = ?"),
+
+	// Programs
+	PROGRAM_ALL("SELECT program_id, name, type, category FROM program ORDER BY program_id");
+
+	private final String sql;
+
+	SqlStatement(String sql) {
+		this.sql = sql;
+	}
+
+	/**
+	 * @return the SQL text of this statement
+	 */
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * Returns the SQL text with its IN list expanded to the given number of
+	 * placeholders.
+	 * <p>
+	 * Callers should pass one of a few fixed sizes (see
+	 * {@link #inListSize(int)}) so the expanded statements stay cacheable.
+	 * </p>
+	 *
+	 * @param placeholders number of {@code ?} in the IN list
+	 * @return the expanded SQL text
+	 */
+	public String getSql(int placeholders) {
+		StringBuilder list = new StringBuilder(placeholders * 2);
+		for (int i = 0; i < placeholders; i++) {
+			list.append(i == 0 ? "?" : ",?");
+		}
+		return String.format(sql, list);
+	}
+
+	/**
+	 * Rounds an IN list length up to the next power of two, so only a handful of
+	 * distinct statements are ever prepared. Unused slots are filled by repeating
+	 * the last value.
+	 *
+	 * @param size the number of values
+	 * @return the IN list length to prepare
+	 */
+	public static int inListSize(int size) {
+		return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+	}
+}
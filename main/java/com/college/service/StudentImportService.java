@@ -0,0 +1,254 @@
+package com.college.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.college.model.ImportResultModel;
+import com.college.model.ProgramModel;
+import com.college.model.StudentModel;
+import com.college.util.CsvUtil;
+import com.college.util.FormRules;
+import com.college.util.FormValidator;
+import com.college.util.PasswordUtil;
+import com.college.util.ValidationUtil;
+
+/**
+ * Imports students in bulk from a CSV file.
+ * <p>
+ * The file is read line by line and processed in chunks, so memory use does not
+ * depend on the file size. Each chunk is validated with the registration rules,
+ * its passwords are hashed in parallel across all cores and the valid rows
+ * are inserted through {@link RegisterService#addStudents(List)} in a single
+ * batched transaction.
+ * </p>
+ * <p>
+ * The first line must be a header naming the columns firstName, lastName,
+ * username, dob, gender, email, phoneNumber, subject and password, in any order.
+ * </p>
+ */
+public class StudentImportService {
+
+	// Rows inserted per batch and transaction
+	private static final int CHUNK_SIZE = 500;
+
+	// Column names as validated; the header may use any case
+	private static final String[] COLUMNS = { "firstName", "lastName", "username", "dob", "gender", "email",
+			"phoneNumber", "subject", "password" };
+
+	// Registration rules, plus a subject that must exist in the catalogue
+	private static final FormValidator ROW_RULES = FormRules.studentRules("Student must be at least 16 years old.")
+			.required("password", "Password is required.")
+			.rule("password", ValidationUtil::isValidPassword,
+					"Password must be at least 8 characters long, with 1 uppercase letter, 1 number, and 1 symbol.")
+			.rule("subject", subject -> ProgramCatalogue.getInstance().findByName(subject) != null,
+					"Unknown subject.")
+			.build();
+
+	// Shared pool for the PBKDF2 work of password hashing, created on first use.
+	// It is kept apart from CryptoExecutor, whose short queue is sized for logins
+	// and would reject a chunk of rows.
+	private static ExecutorService cryptoExecutor;
+
+	private final RegisterService registerService;
+
+	public StudentImportService() {
+		this.registerService = new RegisterService();
+	}
+
+	public StudentImportService(RegisterService registerService) {
+		this.registerService = registerService;
+	}
+
+	/**
+	 * Reads and imports every student in the CSV input.
+	 *
+	 * @param reader the CSV input
+	 * @return the import summary with one error per rejected row
+	 * @throws IOException if the input cannot be read or has no valid header
+	 */
+	public ImportResultModel importStudents(BufferedReader reader) throws IOException {
+		ImportResultModel result = new ImportResultModel();
+
+		String headerLine = reader.readLine();
+		if (headerLine == null) {
+			throw new IOException("The file is empty.");
+		}
+		Map<String, Integer> columns = readHeader(headerLine);
+
+		List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+		int lineNumber = 1;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.trim().isEmpty()) {
+				continue;
+			}
+			result.incrementRowsRead();
+
+			List<String> fields = CsvUtil.parseLine(line);
+			String username = field(fields, columns, "username");
+			String error = validateRow(fields, columns);
+			if (error != null) {
+				result.addError(lineNumber, username, error);
+				continue;
+			}
+
+			chunk.add(new PendingRow(lineNumber, toStudent(fields, columns), field(fields, columns, "password")));
+			if (chunk.size() == CHUNK_SIZE) {
+				importChunk(chunk, result);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			importChunk(chunk, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Maps the expected column names to their positions, matching the header
+	 * case-insensitively.
+	 */
+	private Map<String, Integer> readHeader(String headerLine) throws IOException {
+		List<String> names = CsvUtil.parseLine(headerLine);
+		Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < names.size(); i++) {
+			for (String column : COLUMNS) {
+				if (column.equalsIgnoreCase(names.get(i).trim())) {
+					columns.put(column, i);
+				}
+			}
+		}
+		for (String column : COLUMNS) {
+			if (!columns.containsKey(column)) {
+				throw new IOException("Missing column in header: " + column);
+			}
+		}
+		return columns;
+	}
+
+	private String field(List<String> fields, Map<String, Integer> columns, String column) {
+		int index = columns.get(column);
+		return index < fields.size() ? fields.get(index) : null;
+	}
+
+	/**
+	 * Applies the registration rules to one row.
+	 *
+	 * @return all errors of the row as one message, or null if the row is valid
+	 */
+	private String validateRow(List<String> fields, Map<String, Integer> columns) {
+		return ROW_RULES.validate(column -> field(fields, columns, column)).getMessage();
+	}
+
+	private StudentModel toStudent(List<String> fields, Map<String, Integer> columns) {
+		ProgramModel program = ProgramCatalogue.getInstance().findByName(field(fields, columns, "subject"));
+		return new StudentModel(field(fields, columns, "firstName"), field(fields, columns, "lastName"),
+				field(fields, columns, "username"), LocalDate.parse(field(fields, columns, "dob")),
+				field(fields, columns, "gender").toLowerCase(Locale.ROOT), field(fields, columns, "email"),
+				field(fields, columns, "phoneNumber"), null, program, null);
+	}
+
+	/**
+	 * Hashes the passwords of a chunk in parallel and inserts the chunk.
+	 */
+	private void importChunk(List<PendingRow> chunk, ImportResultModel result) throws IOException {
+		ExecutorService executor = getCryptoExecutor();
+		List<Future<String>> hashed = new ArrayList<>(chunk.size());
+		for (PendingRow row : chunk) {
+			Callable<String> task = () -> PasswordUtil.hash(row.password);
+			hashed.add(executor.submit(task));
+		}
+
+		List<PendingRow> ready = new ArrayList<>(chunk.size());
+		for (int i = 0; i < chunk.size(); i++) {
+			PendingRow row = chunk.get(i);
+			String password = awaitPassword(hashed.get(i));
+			if (password == null) {
+				result.addError(row.line, row.student.getUserName(), "Could not hash the password.");
+			} else {
+				row.student.setPassword(password);
+				ready.add(row);
+			}
+		}
+		if (ready.isEmpty()) {
+			return;
+		}
+
+		List<StudentModel> students = new ArrayList<>(ready.size());
+		for (PendingRow row : ready) {
+			students.add(row.student);
+		}
+
+		List<String> errors = registerService.addStudents(students);
+		for (int i = 0; i < ready.size(); i++) {
+			PendingRow row = ready.get(i);
+			if (errors == null) {
+				result.addError(row.line, row.student.getUserName(), "Database unavailable. Row was not imported.");
+			} else if (errors.get(i) != null) {
+				result.addError(row.line, row.student.getUserName(), errors.get(i));
+			} else {
+				result.addImported(1);
+			}
+		}
+	}
+
+	/**
+	 * Stops the hashing pool. Called when the application is undeployed, so its
+	 * threads do not keep the web application's class loader alive.
+	 */
+	public static synchronized void shutdown() {
+		if (cryptoExecutor != null) {
+			cryptoExecutor.shutdownNow();
+			cryptoExecutor = null;
+		}
+	}
+
+	private static synchronized ExecutorService getCryptoExecutor() {
+		if (cryptoExecutor == null) {
+			cryptoExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+				Thread thread = new Thread(runnable, "import-crypto");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return cryptoExecutor;
+	}
+
+	private String awaitPassword(Future<String> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Import interrupted", e);
+		} catch (ExecutionException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * A validated row waiting to be inserted.
+	 */
+	private static final class PendingRow {
+		private final int line;
+		private final StudentModel student;
+		private final String password;
+
+		private PendingRow(int line, StudentModel student, String password) {
+			this.line = line;
+			this.student = student;
+			this.password = password;
+		}
+	}
+}
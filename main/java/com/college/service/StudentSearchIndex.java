@@ -0,0 +1,663 @@
+package com.college.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.college.model.ProgramModel;
+import com.college.model.StudentModel;
+import com.college.model.StudentSearchResultModel;
+
+/**
+ * In-memory inverted index over the students' names, username, email and phone
+ * number, used by the admin search and its type-ahead suggestions.
+ * <p>
+ * Every word of a searchable field is indexed under its prefixes of the
+ * lengths in {@link #GRAM_LENGTHS}, together with a precomputed score. A query
+ * is answered by intersecting the posting lists of its words, so searching
+ * never touches the database. Matches are ranked by how completely and in
+ * which field each query word matched.
+ * </p>
+ * <p>
+ * The index is built from {@link DashboardService} at startup and rebuilt
+ * every hour. In between, the services keep it current: registrations,
+ * updates and deletes are applied directly, registrations under the ids
+ * generated by their inserts.
+ * </p>
+ */
+public class StudentSearchIndex {
+
+	private static final Logger LOGGER = Logger.getLogger(StudentSearchIndex.class.getName());
+
+	private static final StudentSearchIndex INSTANCE = new StudentSearchIndex();
+
+	// Prefix lengths stored as index terms; a query word of another length is
+	// looked up under its longest indexed prefix and checked against the terms
+	private static final int[] GRAM_LENGTHS = { 1, 2, 3, 4, 6, 8 };
+	// Query words beyond this are ignored
+	private static final int MAX_QUERY_WORDS = 5;
+	// Deepest result a query may page to
+	private static final int MAX_RESULTS = 1_000;
+	private static final long REBUILD_INTERVAL_MINUTES = 60;
+
+	// Weight of a match in each field; an exact word match counts double
+	private static final int WEIGHT_USERNAME = 4;
+	private static final int WEIGHT_EMAIL = 4;
+	private static final int WEIGHT_NAME = 3;
+	private static final int WEIGHT_NUMBER = 2;
+	private static final int WEIGHT_EMAIL_PART = 1;
+
+	// Orders matches by descending score, then ascending id
+	private static final Comparator<Match> RANKING = Comparator.comparingDouble((Match match) -> -match.score)
+			.thenComparingInt(match -> match.id);
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final DashboardService dashboardService = new DashboardService();
+
+	// Guarded by lock
+	private Index index = new Index();
+	// Changes made while a rebuild reads the table, replayed onto the new index
+	private List<Consumer<Index>> pendingChanges;
+
+	private volatile boolean ready;
+	private ScheduledExecutorService scheduler;
+
+	private StudentSearchIndex() {
+	}
+
+	/**
+	 * @return the shared index instance
+	 */
+	public static StudentSearchIndex getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Builds the index in the background and schedules the periodic rebuild.
+	 * Called once at application startup.
+	 */
+	public synchronized void start() {
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "student-search-index");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(this::rebuild, 0, REBUILD_INTERVAL_MINUTES, TimeUnit.MINUTES);
+		}
+	}
+
+	/**
+	 * Stops the background work. Called when the application is undeployed.
+	 */
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * @return whether the initial build has finished
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Searches for students matching every word of the query.
+	 *
+	 * @param query    the words to search for, each matched as a prefix
+	 * @param page     the page to return, starting at 1
+	 * @param pageSize the number of students per page
+	 * @return the requested page of ranked results
+	 */
+	public StudentSearchResultModel search(String query, int page, int pageSize) {
+		int offset = (int) Math.min((long) (page - 1) * pageSize, MAX_RESULTS);
+		int[] total = new int[1];
+		List<Document> matches = findTopMatches(query, Math.min(offset + pageSize, MAX_RESULTS), total);
+
+		List<StudentModel> students = new ArrayList<>(pageSize);
+		for (int i = offset; i < matches.size(); i++) {
+			students.add(matches.get(i).toStudent());
+		}
+
+		StudentSearchResultModel result = new StudentSearchResultModel(query, students, page, pageSize,
+				Math.min(total[0], MAX_RESULTS));
+		result.setReady(ready);
+		return result;
+	}
+
+	/**
+	 * Returns the best matches of a partially typed query for type-ahead.
+	 *
+	 * @param query the text typed so far
+	 * @param limit the maximum number of suggestions
+	 * @return the best matching students, best first
+	 */
+	public List<StudentModel> suggest(String query, int limit) {
+		List<StudentModel> students = new ArrayList<>(limit);
+		for (Document document : findTopMatches(query, limit, new int[1])) {
+			students.add(document.toStudent());
+		}
+		return students;
+	}
+
+	/**
+	 * Adds or replaces a student. Fields the model does not carry, such as the
+	 * username after a contact update, keep their indexed values.
+	 *
+	 * @param student   the student as just written to the database
+	 * @param programId the id of the student's program
+	 */
+	public void put(StudentModel student, int programId) {
+		apply(index -> index.put(Document.of(student, programId, index.documents.get(student.getId()))));
+	}
+
+	/**
+	 * Removes a deleted student.
+	 *
+	 * @param studentId the id of the deleted student
+	 */
+	public void remove(int studentId) {
+		apply(index -> index.removeAll(Collections.singleton(studentId)));
+	}
+
+	/**
+	 * Removes several deleted students.
+	 *
+	 * @param studentIds the ids of the deleted students
+	 */
+	public void removeAll(Collection<Integer> studentIds) {
+		Set<Integer> ids = new HashSet<>(studentIds);
+		apply(index -> index.removeAll(ids));
+	}
+
+	/**
+	 * Records that students were moved to another program.
+	 *
+	 * @param studentIds the ids of the moved students
+	 * @param programId  the id of their new program
+	 */
+	public void moveToProgram(Collection<Integer> studentIds, int programId) {
+		List<Integer> ids = new ArrayList<>(studentIds);
+		apply(index -> {
+			for (Integer id : ids) {
+				index.setProgram(id, programId);
+			}
+		});
+	}
+
+	/**
+	 * Records that every student of one program was moved to another.
+	 *
+	 * @param fromProgramId the id of the emptied program
+	 * @param toProgramId   the id of the target program
+	 */
+	public void moveProgram(int fromProgramId, int toProgramId) {
+		apply(index -> {
+			for (Document document : new ArrayList<>(index.documents.values())) {
+				if (document.programId == fromProgramId) {
+					index.setProgram(document.id, toProgramId);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Applies a change to the live index and, during a rebuild, remembers it for
+	 * the rebuilt index.
+	 */
+	private void apply(Consumer<Index> change) {
+		lock.writeLock().lock();
+		try {
+			change.accept(index);
+			if (pendingChanges != null) {
+				pendingChanges.add(change);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Rebuilds the whole index from the database and swaps it in.
+	 */
+	private void rebuild() {
+		lock.writeLock().lock();
+		try {
+			pendingChanges = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		Index rebuilt = new Index();
+		long count = -1;
+		try {
+			count = dashboardService.streamSearchableStudents(0,
+					student -> rebuilt.put(Document.of(student, student.getProgram().getProgramId(), null)));
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Could not build the student search index", e);
+		}
+
+		lock.writeLock().lock();
+		try {
+			if (count >= 0) {
+				for (Consumer<Index> change : pendingChanges) {
+					change.accept(rebuilt);
+				}
+				index = rebuilt;
+				ready = true;
+			}
+			pendingChanges = null;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the best matches of a query.
+	 * <p>
+	 * Each query word is looked up under its longest indexed prefix. The
+	 * shortest of these posting lists drives the scan, and its ids are looked up
+	 * in the other lists, which are sorted by id. A word that is exactly an
+	 * indexed prefix uses the score stored in the posting; a longer word is
+	 * checked against the candidate's terms.
+	 * </p>
+	 *
+	 * @param query the query text
+	 * @param limit the number of matches to return
+	 * @param total receives the number of all matches
+	 * @return up to {@code limit} matches, best first
+	 */
+	private List<Document> findTopMatches(String query, int limit, int[] total) {
+		String[] words = splitQuery(query);
+		if (words.length == 0 || limit <= 0) {
+			return Collections.emptyList();
+		}
+
+		PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+		int matches = 0;
+
+		lock.readLock().lock();
+		try {
+			PostingList[] lists = new PostingList[words.length];
+			boolean[] exact = new boolean[words.length];
+			for (int w = 0; w < words.length; w++) {
+				int length = gramLength(words[w].length());
+				lists[w] = index.postings.get(words[w].substring(0, length));
+				if (lists[w] == null) {
+					return Collections.emptyList();
+				}
+				exact[w] = length == words[w].length();
+			}
+
+			int driver = 0;
+			for (int w = 1; w < words.length; w++) {
+				if (lists[w].size < lists[driver].size) {
+					driver = w;
+				}
+			}
+
+			// Ids are scanned in ascending order, so each list is searched from
+			// where the previous lookup ended
+			int[] from = new int[words.length];
+			PostingList scan = lists[driver];
+			candidates: for (int i = 0; i < scan.size; i++) {
+				int id = scan.ids[i];
+				Document document = null;
+				double score = 0;
+				for (int w = 0; w < words.length; w++) {
+					int position = i;
+					if (w != driver) {
+						position = lists[w].find(id, from[w]);
+						if (position < 0) {
+							from[w] = -position - 1;
+							continue candidates;
+						}
+						from[w] = position;
+					}
+					if (exact[w]) {
+						score += lists[w].scores[position];
+					} else {
+						if (document == null) {
+							document = index.documents.get(id);
+						}
+						double wordScore = document.prefixScore(words[w]);
+						if (wordScore == 0) {
+							continue candidates;
+						}
+						score += wordScore;
+					}
+				}
+
+				matches++;
+				Match worst = best.peek();
+				if (best.size() < limit || score > worst.score || (score == worst.score && id < worst.id)) {
+					best.add(new Match(id, score));
+					if (best.size() > limit) {
+						best.poll();
+					}
+				}
+			}
+
+			total[0] = matches;
+			Match[] ranked = best.toArray(new Match[0]);
+			Arrays.sort(ranked, RANKING);
+			List<Document> documents = new ArrayList<>(ranked.length);
+			for (Match match : ranked) {
+				documents.add(index.documents.get(match.id));
+			}
+			return documents;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the longest indexed prefix length not above a word length.
+	 */
+	private static int gramLength(int wordLength) {
+		int length = 1;
+		for (int gram : GRAM_LENGTHS) {
+			if (gram <= wordLength) {
+				length = gram;
+			}
+		}
+		return length;
+	}
+
+	private static String[] splitQuery(String query) {
+		if (query == null) {
+			return new String[0];
+		}
+		String trimmed = query.trim().toLowerCase(Locale.ROOT);
+		if (trimmed.isEmpty()) {
+			return new String[0];
+		}
+		List<String> words = new ArrayList<>();
+		for (String word : trimmed.split("\\s+")) {
+			// Drop surrounding punctuation, such as the brackets of a suggestion
+			word = word.replaceAll("^[^\\p{L}\\p{N}]+|[^\\p{L}\\p{N}]+$", "");
+			if (!word.isEmpty() && words.size() < MAX_QUERY_WORDS) {
+				words.add(word);
+			}
+		}
+		return words.toArray(new String[0]);
+	}
+
+	/**
+	 * The documents and posting lists of one version of the index.
+	 */
+	private static final class Index {
+		private final Map<Integer, Document> documents = new HashMap<>();
+		private final Map<String, PostingList> postings = new HashMap<>();
+
+		private void put(Document document) {
+			Document previous = documents.put(document.id, document);
+			if (previous != null) {
+				for (String gram : previous.gramScores().keySet()) {
+					PostingList list = postings.get(gram);
+					list.remove(previous.id);
+					if (list.size == 0) {
+						postings.remove(gram);
+					}
+				}
+			}
+			for (Map.Entry<String, Float> gram : document.gramScores().entrySet()) {
+				postings.computeIfAbsent(gram.getKey(), key -> new PostingList()).add(document.id, gram.getValue());
+			}
+		}
+
+		private void removeAll(Set<Integer> ids) {
+			Set<String> affected = new HashSet<>();
+			for (Integer id : ids) {
+				Document removed = documents.remove(id);
+				if (removed != null) {
+					affected.addAll(removed.gramScores().keySet());
+				}
+			}
+			// Each affected list is compacted once, however many students it lost
+			for (String gram : affected) {
+				PostingList list = postings.get(gram);
+				list.removeIds(ids);
+				if (list.size == 0) {
+					postings.remove(gram);
+				}
+			}
+		}
+
+		private void setProgram(int id, int programId) {
+			Document document = documents.get(id);
+			if (document != null && document.programId != programId) {
+				// The terms are unchanged, so the postings stay as they are
+				documents.put(id, document.withProgram(programId));
+			}
+		}
+	}
+
+	/**
+	 * The ids indexed under one prefix, in ascending order, each with the score
+	 * of its best term starting with that prefix.
+	 */
+	private static final class PostingList {
+		private int[] ids = new int[2];
+		private float[] scores = new float[2];
+		private int size;
+
+		private void add(int id, float score) {
+			int position = size == 0 || ids[size - 1] < id ? -size - 1 : find(id, 0);
+			if (position >= 0) {
+				scores[position] = score;
+				return;
+			}
+			position = -position - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				scores = Arrays.copyOf(scores, size * 2);
+			}
+			System.arraycopy(ids, position, ids, position + 1, size - position);
+			System.arraycopy(scores, position, scores, position + 1, size - position);
+			ids[position] = id;
+			scores[position] = score;
+			size++;
+		}
+
+		private void remove(int id) {
+			int position = find(id, 0);
+			if (position >= 0) {
+				System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+				System.arraycopy(scores, position + 1, scores, position, size - position - 1);
+				size--;
+			}
+		}
+
+		private void removeIds(Set<Integer> removed) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (!removed.contains(ids[i])) {
+					ids[kept] = ids[i];
+					scores[kept] = scores[i];
+					kept++;
+				}
+			}
+			size = kept;
+		}
+
+		/**
+		 * Binary search from a starting position.
+		 *
+		 * @return the position of the id, or {@code -(insertion point) - 1}
+		 */
+		private int find(int id, int fromIndex) {
+			return Arrays.binarySearch(ids, fromIndex, size, id);
+		}
+	}
+
+	/**
+	 * An indexed student: its display fields and its lower-cased terms with
+	 * their weights.
+	 */
+	private static final class Document {
+		private final int id;
+		private final String firstName;
+		private final String lastName;
+		private final String userName;
+		private final String email;
+		private final String number;
+		private final int programId;
+		private final String[] terms;
+		private final int[] weights;
+
+		private Document(int id, String firstName, String lastName, String userName, String email, String number,
+				int programId) {
+			this.id = id;
+			this.firstName = firstName;
+			this.lastName = lastName;
+			this.userName = userName;
+			this.email = email;
+			this.number = number;
+			this.programId = programId;
+
+			// Highest weight per distinct term
+			Map<String, Integer> termWeights = new LinkedHashMap<>();
+			addWords(termWeights, firstName, WEIGHT_NAME);
+			addWords(termWeights, lastName, WEIGHT_NAME);
+			addTerm(termWeights, userName, WEIGHT_USERNAME);
+			addTerm(termWeights, email, WEIGHT_EMAIL);
+			if (email != null) {
+				addWords(termWeights, email.substring(0, Math.max(0, email.indexOf('@'))), WEIGHT_EMAIL_PART);
+			}
+			addTerm(termWeights, number, WEIGHT_NUMBER);
+
+			this.terms = termWeights.keySet().toArray(new String[0]);
+			this.weights = new int[terms.length];
+			for (int i = 0; i < terms.length; i++) {
+				weights[i] = termWeights.get(terms[i]);
+			}
+		}
+
+		private Document(Document document, int programId) {
+			this.id = document.id;
+			this.firstName = document.firstName;
+			this.lastName = document.lastName;
+			this.userName = document.userName;
+			this.email = document.email;
+			this.number = document.number;
+			this.programId = programId;
+			this.terms = document.terms;
+			this.weights = document.weights;
+		}
+
+		/**
+		 * Builds a document from a student, falling back to the previous
+		 * document for fields the student does not carry.
+		 */
+		private static Document of(StudentModel student, int programId, Document previous) {
+			return new Document(student.getId(), student.getFirstName(), student.getLastName(),
+					student.getUserName() != null || previous == null ? student.getUserName() : previous.userName,
+					student.getEmail(), student.getNumber(), programId);
+		}
+
+		private Document withProgram(int newProgramId) {
+			return new Document(this, newProgramId);
+		}
+
+		private static void addWords(Map<String, Integer> termWeights, String value, int weight) {
+			if (value == null) {
+				return;
+			}
+			for (String word : value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+				addTerm(termWeights, word, weight);
+			}
+		}
+
+		private static void addTerm(Map<String, Integer> termWeights, String term, int weight) {
+			if (term == null || term.isEmpty()) {
+				return;
+			}
+			termWeights.merge(term.toLowerCase(Locale.ROOT), weight, Math::max);
+		}
+
+		/**
+		 * Returns every indexed prefix of the document's terms with the score a
+		 * query word equal to that prefix gets.
+		 */
+		private Map<String, Float> gramScores() {
+			Map<String, Float> grams = new HashMap<>();
+			for (int i = 0; i < terms.length; i++) {
+				for (int length : GRAM_LENGTHS) {
+					if (length > terms[i].length()) {
+						break;
+					}
+					grams.merge(terms[i].substring(0, length), (float) score(i, length), Math::max);
+				}
+			}
+			return grams;
+		}
+
+		/**
+		 * Scores a query word against the document's terms.
+		 *
+		 * @return the score of the best term starting with the word, or 0 if none
+		 *         does
+		 */
+		private double prefixScore(String word) {
+			double best = 0;
+			for (int i = 0; i < terms.length; i++) {
+				if (terms[i].startsWith(word)) {
+					best = Math.max(best, score(i, word.length()));
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * A complete match scores twice the term weight, a prefix between one and
+		 * one and a half times depending on how much of the term it covers.
+		 */
+		private double score(int term, int matchedLength) {
+			int length = terms[term].length();
+			return matchedLength == length ? 2.0 * weights[term]
+					: weights[term] * (1 + 0.5 * matchedLength / length);
+		}
+
+		private StudentModel toStudent() {
+			ProgramModel program = ProgramCatalogue.getInstance().findById(programId);
+			StudentModel student = new StudentModel(id, firstName, lastName, program, email, number);
+			student.setUserName(userName);
+			return student;
+		}
+	}
+
+	/**
+	 * A matching student id with its score for the current query.
+	 */
+	private static final class Match {
+		private final int id;
+		private final double score;
+
+		private Match(int id, double score) {
+			this.id = id;
+			this.score = score;
+		}
+	}
+}
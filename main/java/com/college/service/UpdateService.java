@@ -2,37 +2,20 @@ package com.college.service;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import com.college.config.DbConfig;
+import com.college.model.ProgramModel;
 import com.college.model.StudentModel;
 
 /**
  * Service class for updating student information in the database.
  * 
  * This class provides methods to update student details and fetch program IDs
- * from the database. It manages database connections and handles SQL
- * exceptions.
+ * from the database. Each operation borrows a pooled connection and handles
+ * SQL exceptions.
  */
 public class UpdateService {
-	private Connection dbConn;
-	private boolean isConnectionError = false;
-
-	/**
-	 * Constructor initializes the database connection. Sets the connection error
-	 * flag if the connection fails.
-	 */
-	public UpdateService() {
-		try {
-			dbConn = DbConfig.getDbConnection();
-		} catch (SQLException | ClassNotFoundException ex) {
-			// Log and handle exceptions related to database connection
-			ex.printStackTrace();
-			isConnectionError = true;
-		}
-	}
-
 	/**
 	 * Updates student information in the database.
 	 * 
@@ -41,10 +24,6 @@ public class UpdateService {
 	 *         if there is a connection error or an exception occurs.
 	 */
 	public Boolean updateStudentInfo(StudentModel student) {
-		if (isConnectionError) {
-			return null;
-		}
-
 		int programId = getProgramId(student.getProgram().getName());
 		if (programId == 0) {
 			// Handle case where the program is not found in the database
@@ -52,10 +31,11 @@ public class UpdateService {
 			return false; // or return null if you want to handle this in the controller
 		}
 
-		String updateSQL = "UPDATE student SET first_name = ?, last_name = ?, program_id = ?, "
-				+ "email = ?, number = ? WHERE student_id = ?";
+		String updateSQL = SqlStatement.STUDENT_UPDATE_CONTACT.getSql();
 
-		try (PreparedStatement preparedStatement = dbConn.prepareStatement(updateSQL)) {
+		try (Connection dbConn = DbConfig.getDbConnection();
+				PreparedStatement preparedStatement = dbConn.prepareStatement(updateSQL)) {
+			String[] previous = AccountAvailability.readIdentifiers(dbConn, student.getId());
 			preparedStatement.setString(1, student.getFirstName());
 			preparedStatement.setString(2, student.getLastName());
 			preparedStatement.setInt(3, programId);
@@ -64,6 +44,12 @@ public class UpdateService {
 			preparedStatement.setInt(6, student.getId());
 
 			int rowsAffected = preparedStatement.executeUpdate();
+			DbConfig.recordWrite();
+			if (rowsAffected > 0) {
+				StudentSearchIndex.getInstance().put(student, programId);
+				// The username cannot be changed here
+				AccountAvailability.getInstance().changed(null, null, previous[1], student.getEmail());
+			}
 			return rowsAffected > 0;
 		} catch (SQLException e) {
 			// Log and handle SQL exceptions
@@ -73,27 +59,14 @@ public class UpdateService {
 	}
 
 	/**
-	 * Retrieves the program ID for a given program name.
+	 * Retrieves the program ID for a given program name from the
+	 * {@link ProgramCatalogue}.
 	 * 
 	 * @param programName The name of the program.
-	 * @return The ID of the program. Returns 0 if the program is not found or an
-	 *         exception occurs.
+	 * @return The ID of the program. Returns 0 if the program is not found.
 	 */
 	private int getProgramId(String programName) {
-		String selectSQL = "SELECT program_id FROM program WHERE name = ?";
-
-		try (PreparedStatement preparedStatement = dbConn.prepareStatement(selectSQL)) {
-			preparedStatement.setString(1, programName);
-			ResultSet result = preparedStatement.executeQuery();
-
-			if (result.next()) {
-				return result.getInt("program_id");
-			}
-		} catch (SQLException e) {
-			// Log and handle SQL exceptions
-			e.printStackTrace();
-		}
-
-		return 0;
+		ProgramModel program = ProgramCatalogue.getInstance().findByName(programName);
+		return program != null ? program.getProgramId() : 0;
 	}
 }
@@ -0,0 +1,100 @@
+package com.college.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings.
+ * <p>
+ * Answers "definitely absent" or "maybe present": a string that was added is
+ * always reported as present, and a string that was not is reported as present
+ * with about the false positive rate the filter was sized for. Strings cannot
+ * be removed. Bits are set with compare-and-set, so adds and lookups never
+ * lock.
+ * </p>
+ */
+public class BloomFilter {
+
+	private static final double LN2 = Math.log(2);
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashCount;
+
+	/**
+	 * Creates a filter sized for an expected number of strings.
+	 *
+	 * @param expectedEntries   the number of strings the filter should hold
+	 * @param falsePositiveRate the wanted false positive rate at that size
+	 */
+	public BloomFilter(long expectedEntries, double falsePositiveRate) {
+		long entries = Math.max(1, expectedEntries);
+		long optimalBits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (LN2 * LN2));
+		int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) >>> 6));
+		this.bits = new AtomicLongArray(words);
+		this.bitCount = (long) words << 6;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * LN2));
+	}
+
+	/**
+	 * @param value the string to add
+	 */
+	public void add(String value) {
+		long hash = hash(value);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			long bit = index(h1 + (long) i * h2);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current = bits.get(word);
+			while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+				current = bits.get(word);
+			}
+		}
+	}
+
+	/**
+	 * @param value the string to look up
+	 * @return false if the string was never added, true if it may have been
+	 */
+	public boolean mightContain(String value) {
+		long hash = hash(value);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			long bit = index(h1 + (long) i * h2);
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the size of the bit array in bytes
+	 */
+	public long getSizeInBytes() {
+		return bitCount >>> 3;
+	}
+
+	private long index(long combinedHash) {
+		// Clear the sign bit so the modulo is never negative
+		return (combinedHash & Long.MAX_VALUE) % bitCount;
+	}
+
+	/**
+	 * 64-bit FNV-1a over the characters, with a final mix so both halves are
+	 * usable as independent hashes.
+	 */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,86 @@
+package com.college.util;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+
+/**
+ * Holds reusable JCA objects for the password code.
+ * <p>
+ * Looking up a {@link Cipher} or {@link SecretKeyFactory} walks the provider
+ * list and allocates a new engine, and every new {@link SecureRandom} seeds
+ * itself. These objects are therefore created once and reused: one shared
+ * SecureRandom, which is thread safe, and one Cipher and SecretKeyFactory per
+ * thread, since neither may be used by two threads at once. Password work runs
+ * on the fixed pools of the crypto executor and the bulk import, so the
+ * per-thread instances stay few and are reused for the life of those threads.
+ * </p>
+ */
+public final class CryptoProvider {
+
+	private static final String AES_GCM = "AES/GCM/NoPadding";
+	private static final String PBKDF2 = "PBKDF2WithHmacSHA256";
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private static final ThreadLocal<Cipher> CIPHERS = ThreadLocal.withInitial(() -> {
+		try {
+			return Cipher.getInstance(AES_GCM);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(AES_GCM + " is not available", e);
+		}
+	});
+
+	private static final ThreadLocal<SecretKeyFactory> KEY_FACTORIES = ThreadLocal.withInitial(() -> {
+		try {
+			return SecretKeyFactory.getInstance(PBKDF2);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(PBKDF2 + " is not available", e);
+		}
+	});
+
+	private CryptoProvider() {
+	}
+
+	/**
+	 * @param numBytes the number of bytes
+	 * @return a new array of secure random bytes
+	 */
+	public static byte[] randomBytes(int numBytes) {
+		byte[] bytes = new byte[numBytes];
+		RANDOM.nextBytes(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Fills an existing array with secure random bytes, for callers that
+	 * write random material straight into a larger buffer.
+	 *
+	 * @param bytes the array to fill
+	 */
+	public static void nextBytes(byte[] bytes) {
+		RANDOM.nextBytes(bytes);
+	}
+
+	/**
+	 * Returns the calling thread's AES/GCM cipher. It must be initialised before
+	 * each use and must not be handed to another thread.
+	 *
+	 * @return the cipher of the calling thread
+	 */
+	public static Cipher aesGcm() {
+		return CIPHERS.get();
+	}
+
+	/**
+	 * Returns the calling thread's PBKDF2-HMAC-SHA256 key factory. It must not be
+	 * handed to another thread.
+	 *
+	 * @return the key factory of the calling thread
+	 */
+	public static SecretKeyFactory pbkdf2() {
+		return KEY_FACTORIES.get();
+	}
+}
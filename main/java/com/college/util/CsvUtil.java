@@ -0,0 +1,93 @@
+package com.college.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for reading and writing comma-separated values.
+ * <p>
+ * Fields may be wrapped in double quotes to contain commas; a doubled quote
+ * inside a quoted field stands for a literal quote. Quoted fields spanning
+ * several lines are not supported.
+ * </p>
+ */
+public class CsvUtil {
+
+	/**
+	 * Splits a single CSV line into its fields.
+	 *
+	 * @param line the line to parse
+	 * @return the fields of the line, with surrounding whitespace trimmed
+	 */
+	public static List<String> parseLine(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"') {
+					if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+						field.append('"');
+						i++;
+					} else {
+						quoted = false;
+					}
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString().trim());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString().trim());
+		return fields;
+	}
+
+	/**
+	 * Quotes a value for a CSV field if it contains a comma, quote or line break.
+	 *
+	 * @param value the value to escape, may be null
+	 * @return the escaped field
+	 */
+	public static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		boolean needsQuotes = false;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+				needsQuotes = true;
+				break;
+			}
+		}
+		return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+	}
+
+	/**
+	 * Escapes a value like {@link #escape(String)} for a file that will be
+	 * opened in a spreadsheet. A value starting with {@code =}, {@code +},
+	 * {@code -}, {@code @}, a tab or a carriage return would be run as a
+	 * formula, so it is prefixed with {@code '}, which makes the spreadsheet
+	 * show it as text.
+	 *
+	 * @param value the value to escape, may be null
+	 * @return the escaped field
+	 */
+	public static String escapeForSpreadsheet(String value) {
+		if (value != null && !value.isEmpty()) {
+			char first = value.charAt(0);
+			if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+				value = "'" + value;
+			}
+		}
+		return escape(value);
+	}
+}
@@ -0,0 +1,65 @@
+package com.college.util;
+
+/**
+ * Validation rules of the student forms, declared once and shared by every
+ * request. Messages are shown to the user as they are.
+ */
+public final class FormRules {
+
+	/** Field under which the registration form's image file name is validated */
+	public static final String IMAGE = "image";
+
+	/**
+	 * Self-registration: the student fields, a password typed twice and a
+	 * profile picture.
+	 */
+	public static final FormValidator REGISTRATION = studentRules("You must be at least 16 years old to register.")
+			.required("password", "Password is required.")
+			.rule("password", ValidationUtil::isValidPassword,
+					"Password must be at least 8 characters long, with 1 uppercase letter, 1 number, and 1 symbol.")
+			.required("retypePassword", "Please retype the password.")
+			.sameAs("retypePassword", "password", "Passwords do not match.")
+			.required(IMAGE, "Invalid image format. Only jpg, jpeg, png, and gif are allowed.")
+			.rule(IMAGE, ValidationUtil::isValidImageFileName,
+					"Invalid image format. Only jpg, jpeg, png, and gif are allowed.")
+			.build();
+
+	/**
+	 * Admin update of a student: the student fields without the password, and
+	 * an optional new profile picture.
+	 */
+	public static final FormValidator STUDENT_UPDATE = studentRules("You must be at least 16 years old.")
+			.rule(IMAGE, ValidationUtil::isValidImageFileName,
+					"Invalid image format. Only jpg, jpeg, png, and gif are allowed.")
+			.build();
+
+	private FormRules() {
+	}
+
+	/**
+	 * Starts a rule set with the fields every student form has: name, username,
+	 * date of birth, gender, email, phone number and subject.
+	 *
+	 * @param ageMessage the error for a student younger than 16
+	 * @return a builder to which form-specific rules can be added
+	 */
+	public static FormValidator.Builder studentRules(String ageMessage) {
+		return FormValidator.builder()
+				.required("firstName", "First name is required.")
+				.required("lastName", "Last name is required.")
+				.required("username", "Username is required.")
+				.rule("username", ValidationUtil::isAlphanumericStartingWithLetter,
+						"Username must start with a letter and contain only letters and numbers.")
+				.required("dob", "Date of birth is required.")
+				.rule("dob", ValidationUtil::isIsoDate, "Invalid date format. Please use YYYY-MM-DD.")
+				.rule("dob", ValidationUtil::isAgeAtLeast16, ageMessage)
+				.required("gender", "Gender is required.")
+				.rule("gender", ValidationUtil::isValidGender, "Gender must be 'male' or 'female'.")
+				.required("email", "Email is required.")
+				.rule("email", ValidationUtil::isValidEmail, "Invalid email format.")
+				.required("phoneNumber", "Phone number is required.")
+				.rule("phoneNumber", ValidationUtil::isValidPhoneNumber,
+						"Phone number must be 10 digits and start with 98.")
+				.required("subject", "Subject is required.");
+	}
+}
@@ -0,0 +1,215 @@
+package com.college.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Declarative, reusable set of validation rules for one form.
+ * <p>
+ * Rules are declared once per form with the {@link Builder} and the validator
+ * is shared by every request. {@link #validate(FieldSource)} checks all fields
+ * in one pass and collects the first failing rule of each field, so a user sees
+ * every problem of a submission at once. Rules of a field run in declaration
+ * order and stop at the first failure; a missing required value skips the
+ * field's other rules. A valid submission allocates nothing; an invalid one
+ * allocates only its result.
+ * </p>
+ *
+ * <pre>
+ * FormValidator validator = FormValidator.builder()
+ * 		.required("username", "Username is required.")
+ * 		.rule("username", ValidationUtil::isAlphanumericStartingWithLetter, "Invalid username.")
+ * 		.build();
+ * ValidationResult result = validator.validate(request::getParameter);
+ * </pre>
+ */
+public final class FormValidator {
+
+	/**
+	 * Supplies a submitted value by field name, for example
+	 * {@code request::getParameter}.
+	 */
+	public interface FieldSource {
+		String get(String field);
+	}
+
+	private static final int REQUIRED = 0;
+	private static final int CHECK = 1;
+	private static final int SAME_AS = 2;
+
+	private final String[] fields;
+	// Parallel arrays, one entry per rule, grouped by field in field order
+	private final int[] ruleFields;
+	private final int[] ruleKinds;
+	private final Predicate<String>[] checks;
+	private final String[] otherFields;
+	private final String[] messages;
+
+	// Shared result of every valid submission
+	private final ValidationResult valid;
+
+	private FormValidator(Builder builder) {
+		this.fields = builder.fields.toArray(new String[0]);
+		this.valid = new ValidationResult(fields);
+		int count = builder.rules.size();
+		this.ruleFields = new int[count];
+		this.ruleKinds = new int[count];
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Predicate<String>[] predicates = new Predicate[count];
+		this.checks = predicates;
+		this.otherFields = new String[count];
+		this.messages = new String[count];
+
+		// Group the rules by field, keeping their declaration order within a field
+		int next = 0;
+		for (int field = 0; field < fields.length; field++) {
+			for (Rule rule : builder.rules) {
+				if (rule.field == field) {
+					ruleFields[next] = rule.field;
+					ruleKinds[next] = rule.kind;
+					checks[next] = rule.check;
+					otherFields[next] = rule.otherField;
+					messages[next] = rule.message;
+					next++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return a builder for a new rule set
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Validates a submission.
+	 *
+	 * @param form the submitted values
+	 * @return the first error of each invalid field
+	 */
+	public ValidationResult validate(FieldSource form) {
+		ValidationResult result = null;
+		int rule = 0;
+		for (int field = 0; field < fields.length; field++) {
+			String value = form.get(fields[field]);
+			boolean present = !ValidationUtil.isNullOrEmpty(value);
+			for (; rule < ruleFields.length && ruleFields[rule] == field; rule++) {
+				if (result != null && result.hasError(field)) {
+					continue;
+				}
+				boolean passed;
+				switch (ruleKinds[rule]) {
+				case REQUIRED:
+					passed = present;
+					break;
+				case CHECK:
+					// Missing optional values are not checked further
+					passed = !present || checks[rule].test(value);
+					break;
+				default:
+					passed = !present || value.equals(form.get(otherFields[rule]));
+					break;
+				}
+				if (!passed) {
+					if (result == null) {
+						result = new ValidationResult(fields);
+					}
+					result.reject(field, messages[rule]);
+				}
+			}
+		}
+		return result != null ? result : valid;
+	}
+
+	/**
+	 * @return the validated field names in order
+	 */
+	public String[] getFields() {
+		return fields.clone();
+	}
+
+	/**
+	 * Collects the fields and rules of a form.
+	 */
+	public static final class Builder {
+		private final List<String> fields = new ArrayList<>();
+		private final List<Rule> rules = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Requires a non-blank value.
+		 *
+		 * @param field   the field name
+		 * @param message the error when the value is missing
+		 * @return this builder
+		 */
+		public Builder required(String field, String message) {
+			rules.add(new Rule(indexOf(field), REQUIRED, null, null, message));
+			return this;
+		}
+
+		/**
+		 * Requires a present value to pass a check. Missing values pass unless
+		 * the field is also {@link #required(String, String) required}.
+		 *
+		 * @param field   the field name
+		 * @param check   the check of the value
+		 * @param message the error when the check fails
+		 * @return this builder
+		 */
+		public Builder rule(String field, Predicate<String> check, String message) {
+			rules.add(new Rule(indexOf(field), CHECK, check, null, message));
+			return this;
+		}
+
+		/**
+		 * Requires a present value to equal the value of another field.
+		 *
+		 * @param field      the field name
+		 * @param otherField the field it must repeat
+		 * @param message    the error when the values differ
+		 * @return this builder
+		 */
+		public Builder sameAs(String field, String otherField, String message) {
+			rules.add(new Rule(indexOf(field), SAME_AS, null, otherField, message));
+			return this;
+		}
+
+		/**
+		 * @return the validator, which is immutable and thread safe
+		 */
+		public FormValidator build() {
+			return new FormValidator(this);
+		}
+
+		private int indexOf(String field) {
+			int index = fields.indexOf(field);
+			if (index < 0) {
+				fields.add(field);
+				index = fields.size() - 1;
+			}
+			return index;
+		}
+	}
+
+	private static final class Rule {
+		private final int field;
+		private final int kind;
+		private final Predicate<String> check;
+		private final String otherField;
+		private final String message;
+
+		private Rule(int field, int kind, Predicate<String> check, String otherField, String message) {
+			this.field = field;
+			this.kind = kind;
+			this.check = check;
+			this.otherField = otherField;
+			this.message = message;
+		}
+	}
+}
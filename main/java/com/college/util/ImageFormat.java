@@ -0,0 +1,58 @@
+package com.college.util;
+
+/**
+ * Image formats accepted for uploaded photos, recognised by their leading
+ * "magic" bytes rather than by the file name the client sent.
+ */
+public enum ImageFormat {
+	JPEG("jpg", new int[] { 0xFF, 0xD8, 0xFF }),
+	PNG("png", new int[] { 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A }),
+	GIF("gif", new int[] { 'G', 'I', 'F', '8' });
+
+	/** Number of leading bytes needed to recognise every format */
+	public static final int HEADER_LENGTH = 8;
+
+	private final String extension;
+	private final int[] signature;
+
+	ImageFormat(String extension, int[] signature) {
+		this.extension = extension;
+		this.signature = signature;
+	}
+
+	/**
+	 * @return the file extension photos of this format are stored with
+	 */
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Recognises a format from the first bytes of a file.
+	 *
+	 * @param header the first bytes
+	 * @param length the number of valid bytes in {@code header}
+	 * @return the format, or null if the bytes start none of the accepted
+	 *         formats
+	 */
+	public static ImageFormat detect(byte[] header, int length) {
+		for (ImageFormat format : values()) {
+			if (format.matches(header, length)) {
+				return format;
+			}
+		}
+		return null;
+	}
+
+	private boolean matches(byte[] header, int length) {
+		if (length < signature.length) {
+			return false;
+		}
+		for (int i = 0; i < signature.length; i++) {
+			if ((header[i] & 0xFF) != signature[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,328 @@
+package com.college.util;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Produces the downscaled variants of uploaded images in the background.
+ * <p>
+ * An upload only stores the original and queues it here, so the request does
+ * not wait for any image work. A worker decodes the original once, at the
+ * smallest resolution the largest variant needs, and writes each
+ * {@link Variant} as a compressed JPEG in a sub-folder named after the
+ * variant, scaling every variant down from the one before it. Pages ask for
+ * the {@link Status} of an image and use a variant once it is
+ * {@link Status#READY}, falling back to the original until then.
+ * </p>
+ * <p>
+ * Workers are bounded by {@code -Dcollege.image.threads} (default half the
+ * cores) and {@code -Dcollege.image.queue} queued images. An image that does
+ * not fit in the queue, or was stored before this pipeline existed, is queued
+ * again the next time its status is asked for. Originals above
+ * {@code -Dcollege.image.maxPixels} are not decoded.
+ * </p>
+ */
+public class ImagePipeline {
+
+	private static final Logger LOGGER = Logger.getLogger(ImagePipeline.class.getName());
+
+	private static final ImagePipeline INSTANCE = new ImagePipeline();
+
+	private static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+	private static final int DEFAULT_QUEUE = 256;
+	private static final long DEFAULT_MAX_PIXELS = 50_000_000;
+	private static final float JPEG_QUALITY = 0.8f;
+	private static final String VARIANT_EXTENSION = ".jpg";
+
+	/**
+	 * Sizes an image is made available in, largest first.
+	 */
+	public enum Variant {
+		PROFILE("profile", 480), LIST("list", 160), THUMBNAIL("thumbnail", 64);
+
+		private final String folder;
+		private final int size;
+
+		Variant(String folder, int size) {
+			this.folder = folder;
+			this.size = size;
+		}
+
+		/**
+		 * @return the sub-folder of the original's folder holding this variant
+		 */
+		public String getFolder() {
+			return folder;
+		}
+
+		/**
+		 * @return the longest side of this variant in pixels
+		 */
+		public int getSize() {
+			return size;
+		}
+	}
+
+	/**
+	 * Processing state of one image.
+	 */
+	public enum Status {
+		QUEUED, PROCESSING, READY, FAILED
+	}
+
+	// Keyed by the absolute path of the original
+	private final ConcurrentHashMap<Path, Status> statuses = new ConcurrentHashMap<>();
+	private final long maxPixels = Long.getLong("college.image.maxPixels", DEFAULT_MAX_PIXELS);
+
+	private ThreadPoolExecutor executor;
+
+	private ImagePipeline() {
+	}
+
+	/**
+	 * @return the shared image pipeline
+	 */
+	public static ImagePipeline getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts the workers. Called once at application startup.
+	 */
+	public synchronized void start() {
+		if (executor == null) {
+			// Decoded images stay in memory rather than in temporary files
+			ImageIO.setUseCache(false);
+			int threads = Math.max(1, Integer.getInteger("college.image.threads", DEFAULT_THREADS));
+			int queue = Math.max(1, Integer.getInteger("college.image.queue", DEFAULT_QUEUE));
+			AtomicInteger counter = new AtomicInteger();
+			executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(queue), runnable -> {
+						Thread thread = new Thread(runnable, "image-pipeline-" + counter.incrementAndGet());
+						thread.setDaemon(true);
+						thread.setPriority(Thread.NORM_PRIORITY - 1);
+						return thread;
+					});
+		}
+	}
+
+	/**
+	 * Stops the workers, abandoning queued images. Called when the application
+	 * is undeployed.
+	 */
+	public synchronized void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	/**
+	 * Queues an original for processing.
+	 *
+	 * @param original the stored original
+	 * @return true if the image was queued or is already being processed, false
+	 *         if the queue is full or the pipeline is stopped
+	 */
+	public boolean submit(Path original) {
+		Path key = original.toAbsolutePath().normalize();
+		Status previous = statuses.get(key);
+		if (previous == Status.QUEUED || previous == Status.PROCESSING) {
+			return true;
+		}
+		boolean claimed = previous == null ? statuses.putIfAbsent(key, Status.QUEUED) == null
+				: statuses.replace(key, previous, Status.QUEUED);
+		if (!claimed) {
+			// Another request queued it meanwhile
+			return true;
+		}
+		try {
+			ThreadPoolExecutor current = executor;
+			if (current == null) {
+				throw new RejectedExecutionException("Image pipeline is not running");
+			}
+			current.execute(() -> process(key));
+			return true;
+		} catch (RejectedExecutionException e) {
+			// Forget the image so the next status lookup queues it again
+			statuses.remove(key, Status.QUEUED);
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the state of an original's variants. An original that has no
+	 * variants yet and is not being processed is queued.
+	 *
+	 * @param original the stored original
+	 * @return the state, or null if the original does not exist
+	 */
+	public Status getStatus(Path original) {
+		Path key = original.toAbsolutePath().normalize();
+		Status status = statuses.get(key);
+		if (status != null) {
+			return status;
+		}
+		// The smallest variant is written last, so it marks a complete set
+		if (Files.exists(getVariantPath(key, Variant.THUMBNAIL))) {
+			statuses.put(key, Status.READY);
+			return Status.READY;
+		}
+		if (!Files.isRegularFile(key)) {
+			return null;
+		}
+		submit(key);
+		return statuses.getOrDefault(key, Status.QUEUED);
+	}
+
+	/**
+	 * Forgets the state of an original that was deleted, so it is processed
+	 * again if the same photo is stored later.
+	 *
+	 * @param original the deleted original
+	 */
+	public void forget(Path original) {
+		statuses.remove(original.toAbsolutePath().normalize());
+	}
+
+	/**
+	 * @param original the stored original
+	 * @param variant  the wanted variant
+	 * @return where the variant of the original is written
+	 */
+	public static Path getVariantPath(Path original, Variant variant) {
+		return original.resolveSibling(variant.getFolder())
+				.resolve(getVariantFileName(original.getFileName().toString()));
+	}
+
+	/**
+	 * @param imageName the file name of the original
+	 * @return the file name of its variants, in the folder of each variant
+	 */
+	public static String getVariantFileName(String imageName) {
+		return imageName + VARIANT_EXTENSION;
+	}
+
+	private void process(Path original) {
+		statuses.put(original, Status.PROCESSING);
+		try {
+			BufferedImage image = decode(original);
+			for (Variant variant : Variant.values()) {
+				image = scale(image, variant.getSize());
+				write(image, getVariantPath(original, variant));
+			}
+			statuses.put(original, Status.READY);
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Could not create the variants of " + original, e);
+			statuses.put(original, Status.FAILED);
+		}
+	}
+
+	/**
+	 * Decodes the first image of a file, skipping rows and columns the largest
+	 * variant does not need.
+	 */
+	private BufferedImage decode(Path original) throws IOException {
+		try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+			Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+			if (readers == null || !readers.hasNext()) {
+				throw new IOException("Unsupported image format");
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(in, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				if ((long) width * height > maxPixels) {
+					throw new IOException("Image of " + width + "x" + height + " pixels is too large");
+				}
+				// Keep at least twice the largest variant so downscaling stays smooth
+				int step = Math.max(1, Math.max(width, height) / (Variant.PROFILE.getSize() * 2));
+				ImageReadParam param = reader.getDefaultReadParam();
+				param.setSourceSubsampling(step, step, 0, 0);
+				return reader.read(0, param);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Scales an image to fit a square of the given size, without enlarging it,
+	 * onto an opaque white background.
+	 */
+	private static BufferedImage scale(BufferedImage source, int maxSize) {
+		int width = source.getWidth();
+		int height = source.getHeight();
+		double ratio = Math.min(1.0, (double) maxSize / Math.max(width, height));
+		int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+		int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+		if (source.getType() == BufferedImage.TYPE_INT_RGB && width == targetWidth && height == targetHeight) {
+			return source;
+		}
+
+		BufferedImage current = source;
+		do {
+			// Bilinear sampling is only accurate down to half size, so halve in steps
+			int stepWidth = Math.max(targetWidth, current.getWidth() / 2);
+			int stepHeight = Math.max(targetHeight, current.getHeight() / 2);
+			BufferedImage next = new BufferedImage(stepWidth, stepHeight, BufferedImage.TYPE_INT_RGB);
+			Graphics2D graphics = next.createGraphics();
+			try {
+				graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				graphics.drawImage(current, 0, 0, stepWidth, stepHeight, Color.WHITE, null);
+			} finally {
+				graphics.dispose();
+			}
+			current = next;
+		} while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+		return current;
+	}
+
+	/**
+	 * Writes an image as a JPEG, replacing the target only once it is complete.
+	 */
+	private static void write(BufferedImage image, Path target) throws IOException {
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), ".variant", ".tmp");
+		try {
+			ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+			try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+				ImageWriteParam param = writer.getDefaultWriteParam();
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(JPEG_QUALITY);
+				writer.setOutput(out);
+				writer.write(null, new IIOImage(image, null, null), param);
+			} finally {
+				writer.dispose();
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+}
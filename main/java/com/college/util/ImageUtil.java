@@ -1,7 +1,10 @@
 package com.college.util;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 import jakarta.servlet.http.Part;
 
@@ -9,11 +12,19 @@ import jakarta.servlet.http.Part;
  * Utility class for handling image file uploads.
  * <p>
  * This class provides methods for extracting the file name from a {@link Part}
- * object and uploading the image file to a specified directory on the server.
+ * object and uploading the image file to the {@link PhotoStore}.
+ * Uploaded originals are handed to the {@link ImagePipeline}, which creates
+ * their smaller variants in the background.
  * </p>
  */
 public class ImageUtil {
 
+	/** Largest image accepted, in bytes */
+	public static final int MAX_IMAGE_SIZE = 10 * 1024 * 1024;
+
+	/** Largest form carrying one image, in bytes */
+	public static final int MAX_IMAGE_REQUEST_SIZE = MAX_IMAGE_SIZE + 1024 * 1024;
+
 	/**
 	 * Extracts the file name from the given {@link Part} object based on the
 	 * "content-disposition" header.
@@ -57,45 +68,136 @@ public class ImageUtil {
 	}
 
 	/**
-	 * Uploads the image file from the given {@link Part} object to a specified
-	 * directory on the server.
+	 * Uploads the image file from the given {@link Part} object to the
+	 * {@link PhotoStore}.
 	 * 
 	 * <p>
-	 * This method ensures that the directory where the file will be saved exists
-	 * and creates it if necessary. It writes the uploaded file to the server's file
-	 * system. Returns {@code true} if the upload is successful, and {@code false}
-	 * otherwise.
+	 * The file is stored under a key derived from its content, so the name the
+	 * client sent is not used at all and an identical photo is stored once. Its
+	 * format is checked from its first bytes and its size while it is copied. A
+	 * newly stored photo is queued for its variants, without waiting for them.
 	 * </p>
 	 * 
-	 * @param part the {@link Part} object representing the uploaded image file.
-	 * @return {@code true} if the file was successfully uploaded, {@code false}
-	 *         otherwise.
+	 * @param part       the {@link Part} object representing the uploaded image
+	 *                   file.
+	 * @param saveFolder the folder of the store, for example "student".
+	 * @return the content key to save in {@code image_path}, or {@code null} if
+	 *         the upload failed.
+	 * @throws UploadRejectedException if the file is not an accepted image or is
+	 *                                 too large; the message explains why.
 	 */
-	public boolean uploadImage(Part part, String rootPath, String saveFolder) {
-		String savePath = getSavePath(saveFolder);
-		File fileSaveDir = new File(savePath);
-
-		// Ensure the directory exists
-		if (!fileSaveDir.exists()) {
-			if (!fileSaveDir.mkdir()) {
-				return false; // Failed to create the directory
-			}
+	public String uploadImage(Part part, String saveFolder) throws UploadRejectedException {
+		PhotoStore.StoredPhoto photo = storeImage(part, saveFolder);
+		if (photo == null) {
+			return null; // Upload failed
 		}
+		publishImage(photo);
+		return photo.getKey();
+	}
+
+	/**
+	 * Stores the image file from the given {@link Part} object like
+	 * {@link #uploadImage(Part, String)}, but does not queue its variants yet.
+	 * The caller saves the record using it and then
+	 * {@link #publishImage(PhotoStore.StoredPhoto) publishes} the photo. A photo
+	 * whose record is not saved is left to the photo sweep, as the same content
+	 * may meanwhile have been stored for another record.
+	 * 
+	 * @param part       the {@link Part} object representing the uploaded image
+	 *                   file.
+	 * @param saveFolder the folder of the store, for example "student".
+	 * @return the stored photo, or {@code null} if the upload failed.
+	 * @throws UploadRejectedException if the file is not an accepted image or is
+	 *                                 too large; the message explains why.
+	 */
+	public PhotoStore.StoredPhoto storeImage(Part part, String saveFolder) throws UploadRejectedException {
+		try (InputStream content = part.getInputStream()) {
+			return PhotoStore.getInstance().store(saveFolder, content, MAX_IMAGE_SIZE);
+		} catch (UploadRejectedException e) {
+			throw e;
+		} catch (IOException e) {
+			e.printStackTrace(); // Log the exception
+			return null; // Upload failed
+		}
+	}
+
+	/**
+	 * Stores the image file of a completed {@link UploadSessions upload session}
+	 * and leaves the session open, so the form can be submitted again with the
+	 * same upload if saving the record fails. The caller removes the session
+	 * once the record is saved. A session whose file is not an accepted image is
+	 * removed at once.
+	 * 
+	 * @param uploadId   the id of the upload session.
+	 * @param saveFolder the folder of the store, for example "student".
+	 * @return the stored photo, or {@code null} if the upload failed.
+	 * @throws UploadRejectedException if the session is unknown or incomplete,
+	 *                                 or its file is not an accepted image.
+	 */
+	public PhotoStore.StoredPhoto storeImage(String uploadId, String saveFolder) throws UploadRejectedException {
+		UploadSessions sessions = UploadSessions.getInstance();
+		InputStream content;
 		try {
-			// Get the image name
-			String imageName = getImageNameFromPart(part);
-			// Create the file path
-			String filePath = savePath + "/" + imageName;
-			// Write the file to the server
-			part.write(filePath);
-			return true; // Upload successful
+			content = sessions.openCompleted(uploadId);
+		} catch (UploadRejectedException e) {
+			throw e;
 		} catch (IOException e) {
 			e.printStackTrace(); // Log the exception
-			return false; // Upload failed
+			return null; // Upload failed
 		}
+
+		try (content) {
+			return PhotoStore.getInstance().store(saveFolder, content, MAX_IMAGE_SIZE);
+		} catch (UploadRejectedException e) {
+			// Sending the same file again cannot succeed
+			sessions.remove(uploadId);
+			throw e;
+		} catch (IOException e) {
+			e.printStackTrace(); // Log the exception
+			return null; // Upload failed
+		}
+	}
+
+	/**
+	 * Queues a photo stored for a saved record for its variants, if it is new.
+	 * 
+	 * @param photo the stored photo.
+	 */
+	public void publishImage(PhotoStore.StoredPhoto photo) {
+		if (photo.isCreated()) {
+			// Create the variants in the background; pages use the original until then
+			ImagePipeline.getInstance().submit(photo.getPath());
+		}
+	}
+
+	/**
+	 * Returns the URL of an image in the given size, relative to the context
+	 * path.
+	 * 
+	 * <p>
+	 * The variant is used once the {@link ImagePipeline} has created it; until
+	 * then, or if it cannot be created, the URL of the original is returned.
+	 * </p>
+	 * 
+	 * @param saveFolder the folder the image was uploaded to
+	 * @param imageKey   the content key or file name saved in {@code image_path}
+	 * @param variant    the wanted size
+	 * @return the URL of the image, or null if there is no image
+	 */
+	public String getImageUrl(String saveFolder, String imageKey, ImagePipeline.Variant variant) {
+		Path original = PhotoStore.getInstance().resolve(saveFolder, imageKey);
+		if (original == null) {
+			return null;
+		}
+		// Served by PhotoController, which hides where the store keeps the file
+		String folderUrl = "photos/" + saveFolder + "/";
+		if (ImagePipeline.getInstance().getStatus(original) == ImagePipeline.Status.READY) {
+			return folderUrl + variant.getFolder() + "/" + encode(imageKey);
+		}
+		return folderUrl + encode(imageKey);
 	}
-	
-	public String getSavePath(String saveFolder) {
-		return "C:/Users/Prithivi/eclipse-workspace/islington-student/src/main/webapp/resources/images/"+saveFolder+"/";
+
+	private static String encode(String fileName) {
+		return URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20");
 	}
 }
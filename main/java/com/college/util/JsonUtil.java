@@ -0,0 +1,49 @@
+package com.college.util;
+
+/**
+ * Utility class for writing JSON values without a JSON library.
+ */
+public class JsonUtil {
+
+	/**
+	 * Converts a string into a quoted JSON string literal.
+	 *
+	 * @param value the value to quote, may be null
+	 * @return the JSON literal, or {@code null} if the value is null
+	 */
+	public static String quote(String value) {
+		if (value == null) {
+			return "null";
+		}
+		StringBuilder json = new StringBuilder(value.length() + 2);
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				json.append("\\\"");
+				break;
+			case '\\':
+				json.append("\\\\");
+				break;
+			case '\n':
+				json.append("\\n");
+				break;
+			case '\r':
+				json.append("\\r");
+				break;
+			case '\t':
+				json.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					json.append(String.format("\\u%04x", (int) c));
+				} else {
+					json.append(c);
+				}
+			}
+		}
+		json.append('"');
+		return json.toString();
+	}
+}
@@ -1,127 +1,233 @@
 package com.college.util;
 
-import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
-import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 
+/**
+ * Password storage helpers.
+ * <p>
+ * New passwords are stored as one-way PBKDF2-HMAC-SHA256 hashes that carry
+ * their own parameters:
+ * </p>
+ *
+ * <pre>
+ * $pbkdf2-sha256$i=&lt;iterations&gt;$&lt;base64 salt&gt;$&lt;base64 hash&gt;
+ * </pre>
+ * <p>
+ * The iteration count for new hashes is set per deployment with
+ * {@code -Dcollege.password.iterations}; higher values cost more CPU per login
+ * and make stolen hashes slower to crack. Hashes made with a lower count keep
+ * verifying and are upgraded by {@link #needsRehash(String)} on the next
+ * successful login, as are the older reversible AES-GCM entries produced by
+ * {@link #encrypt(String, String)}.
+ * </p>
+ */
 public class PasswordUtil {
-	private static final String ENCRYPT_ALGO = "AES/GCM/NoPadding";
-
-    private static final int TAG_LENGTH_BIT = 128; // must be one of {128, 120, 112, 104, 96}
-    private static final int IV_LENGTH_BYTE = 12;
-    private static final int SALT_LENGTH_BYTE = 16;
-    private static final Charset UTF_8 = StandardCharsets.UTF_8;
-
-   
-    public static byte[] getRandomNonce(int numBytes) {
-        byte[] nonce = new byte[numBytes];
-        new SecureRandom().nextBytes(nonce);
-        return nonce;
-    }
-
-    // AES secret key
-    public static SecretKey getAESKey(int keysize) throws NoSuchAlgorithmException {
-        KeyGenerator keyGen = KeyGenerator.getInstance("AES");
-        keyGen.init(keysize, SecureRandom.getInstanceStrong());
-        return keyGen.generateKey();
-    }
-
-    // Password derived AES 256 bits secret key
-    public static SecretKey getAESKeyFromPassword(char[] password, byte[] salt){
-           	try {
-           		SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-           		// iterationCount = 65536
-           		// keyLength = 256
-           		KeySpec spec = new PBEKeySpec(password, salt, 65536, 256);
-           		SecretKey secret = new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
-           		return secret;
-       		} catch (NoSuchAlgorithmException ex) {
-       			Logger.getLogger(PasswordUtil.class.getName()).log(Level.SEVERE, null, ex);
-           	} catch (InvalidKeySpecException ex) {
-           		Logger.getLogger(PasswordUtil.class.getName()).log(Level.SEVERE, null, ex);
-           	}
-       		return null;
-    }
-
-    // return a base64 encoded AES encrypted text
-    public static String encrypt(String employee_id, String password){
-    	try {
-		    // 16 bytes salt
-		    byte[] salt = getRandomNonce(SALT_LENGTH_BYTE);
-		
-		    // GCM recommended 12 bytes iv?
-		    byte[] iv = getRandomNonce(IV_LENGTH_BYTE);
-		
-		    // secret key from password
-		    SecretKey aesKeyFromPassword = getAESKeyFromPassword(employee_id.toCharArray(), salt);
-		
-		    Cipher cipher = Cipher.getInstance(ENCRYPT_ALGO);
-		
-		    // ASE-GCM needs GCMParameterSpec
-		    cipher.init(Cipher.ENCRYPT_MODE, aesKeyFromPassword, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
-		
-		    byte[] cipherText = cipher.doFinal(password.getBytes());
-		
-		    // prefix IV and Salt to cipher text
-		    byte[] cipherTextWithIvSalt = ByteBuffer.allocate(iv.length + salt.length + cipherText.length)
-		            .put(iv)
-		            .put(salt)
-		            .put(cipherText)
-		            .array();
-		
-		    // string representation, base64, send this string to other for decryption.
-		    return Base64.getEncoder().encodeToString(cipherTextWithIvSalt);
-    	}catch(Exception ex) {
-    		return null;
-    	}
-
-    }
-
-    
-    public static String decrypt(String encryptedPassword, String username) {
+	private static final String HASH_PREFIX = "$pbkdf2-sha256$i=";
+	private static final int HASH_LENGTH_BIT = 256;
+	public static final int DEFAULT_HASH_ITERATIONS = 310_000;
+	// Floor that a misconfigured deployment cannot go below
+	private static final int MIN_HASH_ITERATIONS = 10_000;
+	private static final int HASH_ITERATIONS = Math.max(MIN_HASH_ITERATIONS,
+			Integer.getInteger("college.password.iterations", DEFAULT_HASH_ITERATIONS));
+
+	private static final int TAG_LENGTH_BIT = 128; // must be one of {128, 120, 112, 104, 96}
+	private static final int IV_LENGTH_BYTE = 12;
+	private static final int SALT_LENGTH_BYTE = 16;
+	private static final int HEADER_LENGTH_BYTE = IV_LENGTH_BYTE + SALT_LENGTH_BYTE;
+	private static final Charset UTF_8 = StandardCharsets.UTF_8;
+
+	public static byte[] getRandomNonce(int numBytes) {
+		return CryptoProvider.randomBytes(numBytes);
+	}
+
+	// AES secret key
+	public static SecretKey getAESKey(int keysize) throws NoSuchAlgorithmException {
+		KeyGenerator keyGen = KeyGenerator.getInstance("AES");
+		keyGen.init(keysize, SecureRandom.getInstanceStrong());
+		return keyGen.generateKey();
+	}
+
+	// Password derived AES 256 bits secret key
+	public static SecretKey getAESKeyFromPassword(char[] password, byte[] salt) {
+		// iterationCount = 65536
+		// keyLength = 256
+		PBEKeySpec spec = new PBEKeySpec(password, salt, 65536, 256);
+		try {
+			SecretKey secret = new SecretKeySpec(CryptoProvider.pbkdf2().generateSecret(spec).getEncoded(), "AES");
+			return secret;
+		} catch (InvalidKeySpecException ex) {
+			Logger.getLogger(PasswordUtil.class.getName()).log(Level.SEVERE, null, ex);
+		} finally {
+			spec.clearPassword();
+		}
+		return null;
+	}
+
+	// Legacy reversible format, kept so entries that predate hashing still verify
+	// return a base64 encoded AES encrypted text
+	public static String encrypt(String employee_id, String password) {
+		try {
+			byte[] plainText = password.getBytes(UTF_8);
+
+			// IV (12 bytes) and salt (16 bytes) are drawn straight into the head of
+			// the output; the cipher text overwrites the rest of the draw
+			byte[] out = new byte[HEADER_LENGTH_BYTE + plainText.length + TAG_LENGTH_BIT / 8];
+			CryptoProvider.nextBytes(out);
+			byte[] salt = Arrays.copyOfRange(out, IV_LENGTH_BYTE, HEADER_LENGTH_BYTE);
+
+			// secret key from password
+			SecretKey aesKeyFromPassword = getAESKeyFromPassword(employee_id.toCharArray(), salt);
+
+			Cipher cipher = CryptoProvider.aesGcm();
+
+			// ASE-GCM needs GCMParameterSpec
+			cipher.init(Cipher.ENCRYPT_MODE, aesKeyFromPassword,
+					new GCMParameterSpec(TAG_LENGTH_BIT, out, 0, IV_LENGTH_BYTE));
+
+			// cipher text and tag follow the IV and salt
+			cipher.doFinal(plainText, 0, plainText.length, out, HEADER_LENGTH_BYTE);
+
+			// string representation, base64, send this string to other for decryption.
+			return Base64.getEncoder().encodeToString(out);
+		} catch (Exception ex) {
+			return null;
+		}
+	}
+
+	public static String decrypt(String encryptedPassword, String username) {
 		try {
-			byte[] decode = Base64.getDecoder().decode(encryptedPassword.getBytes(UTF_8));
-	
-			// get back the iv and salt from the cipher text
-			ByteBuffer bb = ByteBuffer.wrap(decode);
-	
-			byte[] iv = new byte[IV_LENGTH_BYTE];
-			bb.get(iv);
-	
-			byte[] salt = new byte[SALT_LENGTH_BYTE];
-			bb.get(salt);
-	
-			byte[] cipherText = new byte[bb.remaining()];
-			bb.get(cipherText);
-	
+			// layout: IV, salt, cipher text with tag
+			byte[] decode = Base64.getDecoder().decode(encryptedPassword);
+			byte[] salt = Arrays.copyOfRange(decode, IV_LENGTH_BYTE, HEADER_LENGTH_BYTE);
+
 			// get back the aes key from the same password and salt
 			SecretKey aesKeyFromPassword = PasswordUtil.getAESKeyFromPassword(username.toCharArray(), salt);
-	
-			Cipher cipher = Cipher.getInstance(ENCRYPT_ALGO);
-	
-			cipher.init(Cipher.DECRYPT_MODE, aesKeyFromPassword, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
-	
-			byte[] plainText = cipher.doFinal(cipherText);
-		
+
+			Cipher cipher = CryptoProvider.aesGcm();
+
+			cipher.init(Cipher.DECRYPT_MODE, aesKeyFromPassword,
+					new GCMParameterSpec(TAG_LENGTH_BIT, decode, 0, IV_LENGTH_BYTE));
+
+			byte[] plainText = cipher.doFinal(decode, HEADER_LENGTH_BYTE, decode.length - HEADER_LENGTH_BYTE);
+
 			return new String(plainText, UTF_8);
-		}catch(Exception ex) {
+		} catch (Exception ex) {
 			return null;
 		}
+	}
+
+	/**
+	 * Hashes a password with the configured iteration count.
+	 *
+	 * @param password the plain text password
+	 * @return the encoded hash, or null if hashing failed
+	 */
+	public static String hash(String password) {
+		return hash(password, HASH_ITERATIONS);
+	}
+
+	/**
+	 * Hashes a password with a fresh random salt.
+	 *
+	 * @param password   the plain text password
+	 * @param iterations the PBKDF2 iteration count
+	 * @return the encoded hash, or null if hashing failed
+	 */
+	public static String hash(String password, int iterations) {
+		byte[] salt = getRandomNonce(SALT_LENGTH_BYTE);
+		byte[] hash = deriveHash(password, salt, iterations);
+		if (hash == null) {
+			return null;
+		}
+		Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+		return HASH_PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+	}
 
+	/**
+	 * Checks a password against its stored form, which may be a hash or a legacy
+	 * encrypted entry.
+	 *
+	 * @param password the plain text password to check
+	 * @param stored   the stored hash or legacy ciphertext
+	 * @param username the username, the key of legacy entries
+	 * @return true if the password matches
+	 */
+	public static boolean verify(String password, String stored, String username) {
+		if (password == null || stored == null) {
+			return false;
+		}
+		if (!stored.startsWith(HASH_PREFIX)) {
+			String decrypted = decrypt(stored, username);
+			return decrypted != null && MessageDigest.isEqual(decrypted.getBytes(UTF_8), password.getBytes(UTF_8));
+		}
+
+		String[] fields = stored.substring(HASH_PREFIX.length()).split("\\$");
+		if (fields.length != 3) {
+			return false;
+		}
+		try {
+			int iterations = Integer.parseInt(fields[0]);
+			byte[] salt = Base64.getDecoder().decode(fields[1]);
+			byte[] expected = Base64.getDecoder().decode(fields[2]);
+			byte[] actual = deriveHash(password, salt, iterations);
+			return actual != null && MessageDigest.isEqual(expected, actual);
+		} catch (IllegalArgumentException e) {
+			// Malformed iteration count or Base64
+			return false;
+		}
+	}
+
+	/**
+	 * Tells whether a stored password should be replaced by a fresh hash, because
+	 * it is a legacy encrypted entry or was hashed with fewer iterations than
+	 * currently configured.
+	 *
+	 * @param stored the stored hash or legacy ciphertext
+	 * @return true if the password should be rehashed after a successful login
+	 */
+	public static boolean needsRehash(String stored) {
+		if (stored == null || !stored.startsWith(HASH_PREFIX)) {
+			return true;
+		}
+		int end = stored.indexOf('$', HASH_PREFIX.length());
+		try {
+			return end < 0 || Integer.parseInt(stored.substring(HASH_PREFIX.length(), end)) < HASH_ITERATIONS;
+		} catch (NumberFormatException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * @return the iteration count used for new hashes
+	 */
+	public static int getHashIterations() {
+		return HASH_ITERATIONS;
+	}
+
+	private static byte[] deriveHash(String password, byte[] salt, int iterations) {
+		PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_LENGTH_BIT);
+		try {
+			return CryptoProvider.pbkdf2().generateSecret(spec).getEncoded();
+		} catch (InvalidKeySpecException ex) {
+			Logger.getLogger(PasswordUtil.class.getName()).log(Level.SEVERE, null, ex);
+			return null;
+		} finally {
+			spec.clearPassword();
+		}
 	}
- 
 }
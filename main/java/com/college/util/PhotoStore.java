@@ -0,0 +1,417 @@
+package com.college.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Content-addressed store of uploaded photos.
+ * <p>
+ * A photo is recognised as JPEG, PNG or GIF from its first bytes and streamed
+ * to a temporary file while its SHA-256 is computed, then
+ * moved to {@code <folder>/<ab>/<cd>/<hash>.<extension>}, where {@code ab} and
+ * {@code cd} are the first two bytes of the hash. The file name is the
+ * <em>content key</em> stored in {@code image_path}. Two bytes of sharding keep
+ * every directory small even with millions of photos, the client's file name
+ * is never used on disk, and uploading a photo that is already stored only
+ * costs the hashing pass. The extension comes from the recognised format, not
+ * from the client. Photos no record refers to any more are removed by a
+ * {@link #sweep(String, long, Function) sweep} rather than by the request that
+ * stored them.
+ * </p>
+ * <p>
+ * The root directory is {@code -Dcollege.images.root}, by default the
+ * application's {@code resources/images} folder. Photos are served by
+ * {@link com.college.controller.PhotoController}, so the root may be anywhere. Photos stored before content
+ * keys were introduced are still found under their plain file name directly
+ * in the folder.
+ * </p>
+ */
+public class PhotoStore {
+
+	private static final Logger LOGGER = Logger.getLogger(PhotoStore.class.getName());
+
+	private static final PhotoStore INSTANCE = new PhotoStore();
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final int HASH_HEX_LENGTH = 64;
+	private static final int MAX_EXTENSION_LENGTH = 8;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	// Uploads are written here first, on the same file system as the photos
+	private static final String TEMP_FOLDER = ".incoming";
+
+	// Held shared while a photo is stored and exclusively while a sweep deletes
+	// one, so a photo is never deleted between being found and being recorded
+	private final ReentrantReadWriteLock sweepLock = new ReentrantReadWriteLock();
+
+	private volatile Path root;
+
+	private PhotoStore() {
+	}
+
+	/**
+	 * @return the shared photo store
+	 */
+	public static PhotoStore getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Sets the root directory. Called once at application startup.
+	 *
+	 * @param defaultRoot the root to use unless {@code college.images.root} is
+	 *                    set, may be null
+	 */
+	public synchronized void start(String defaultRoot) {
+		String configured = System.getProperty("college.images.root");
+		if (configured == null || configured.isEmpty()) {
+			configured = defaultRoot != null ? defaultRoot
+					: Paths.get(System.getProperty("java.io.tmpdir"), "college-images").toString();
+		}
+		root = Paths.get(configured).toAbsolutePath().normalize();
+		LOGGER.log(Level.INFO, "Storing photos under {0}", root);
+	}
+
+	/**
+	 * @return the root directory of the store
+	 */
+	public Path getRoot() {
+		Path current = root;
+		if (current == null) {
+			start(null);
+			current = root;
+		}
+		return current;
+	}
+
+	/**
+	 * Stores a photo, unless a photo with the same content is already stored.
+	 * <p>
+	 * The format is recognised from the first bytes before anything is written,
+	 * and the copy stops as soon as it exceeds {@code maxSize}, so a rejected
+	 * upload is never read to the end.
+	 * </p>
+	 *
+	 * @param folder  the folder of the store, for example "student"
+	 * @param content the photo; not closed
+	 * @param maxSize the largest photo accepted, in bytes
+	 * @return the result holding the content key
+	 * @throws UploadRejectedException if the photo is not a JPEG, PNG or GIF
+	 *                                 image or is larger than {@code maxSize}
+	 * @throws IOException             if the photo cannot be read or written
+	 */
+	public StoredPhoto store(String folder, InputStream content, long maxSize) throws IOException {
+		byte[] header = content.readNBytes(ImageFormat.HEADER_LENGTH);
+		ImageFormat format = ImageFormat.detect(header, header.length);
+		if (format == null) {
+			throw new UploadRejectedException("Invalid image format. Only jpg, jpeg, png, and gif are allowed.");
+		}
+
+		Path temp = createTempFile();
+		try {
+			MessageDigest digest = newDigest();
+			digest.update(header);
+			long size = header.length;
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				out.write(header);
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int read;
+				while ((read = content.read(buffer)) != -1) {
+					size += read;
+					if (size > maxSize) {
+						throw new UploadRejectedException(
+								"The image is too large. The limit is " + maxSize / (1024 * 1024) + " MB.");
+					}
+					digest.update(buffer, 0, read);
+					out.write(buffer, 0, read);
+				}
+			}
+
+			String key = HexFormat.of().formatHex(digest.digest()) + "." + format.getExtension();
+			Path target = resolve(folder, key);
+			sweepLock.readLock().lock();
+			try {
+				if (refresh(target)) {
+					return new StoredPhoto(key, target, size, false);
+				}
+				Files.createDirectories(target.getParent());
+				try {
+					// Where the move replaces a concurrently stored copy, as
+					// rename(2) does, both have the same bytes
+					Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+				} catch (FileAlreadyExistsException e) {
+					refresh(target);
+					return new StoredPhoto(key, target, size, false);
+				}
+			} finally {
+				sweepLock.readLock().unlock();
+			}
+			return new StoredPhoto(key, target, size, true);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Deletes the photos of a folder that no record refers to.
+	 * <p>
+	 * Photos are never deleted while a request uses them: a record is saved
+	 * after its photo is stored, the same content may be stored for several
+	 * records at once, and a failed save or a replaced photo leaves its file
+	 * unreferenced. Storing a photo, new or already present, stamps its
+	 * modification time, so only photos left untouched for {@code graceMillis}
+	 * are candidates, and a candidate is deleted, together with its variants,
+	 * only if {@code referencedKeys} does not list it and it was not stored
+	 * again meanwhile. Photos stored before content keys were introduced are
+	 * left alone.
+	 * </p>
+	 *
+	 * @param folder         the folder of the store, for example "student"
+	 * @param graceMillis    how long a photo is kept after it was last stored
+	 * @param referencedKeys returns the content keys in use that start with the
+	 *                       given four hex digits, or null if they cannot be read
+	 * @return the number of photos deleted, or -1 if the sweep stopped because
+	 *         the keys in use could not be read
+	 * @throws IOException if the folder cannot be listed
+	 */
+	public int sweep(String folder, long graceMillis, Function<String, Set<String>> referencedKeys)
+			throws IOException {
+		Path folderPath = getRoot().resolve(folder);
+		if (!Files.isDirectory(folderPath)) {
+			return 0;
+		}
+		FileTime cutoff = FileTime.fromMillis(System.currentTimeMillis() - graceMillis);
+		int deleted = 0;
+		for (Path first : listShards(folderPath)) {
+			for (Path second : listShards(first)) {
+				List<Path> candidates = new ArrayList<>();
+				try (DirectoryStream<Path> photos = Files.newDirectoryStream(second, Files::isRegularFile)) {
+					for (Path photo : photos) {
+						if (isContentKey(photo.getFileName().toString())
+								&& Files.getLastModifiedTime(photo).compareTo(cutoff) < 0) {
+							candidates.add(photo);
+						}
+					}
+				}
+				if (candidates.isEmpty()) {
+					continue;
+				}
+
+				Set<String> referenced = referencedKeys
+						.apply(first.getFileName().toString() + second.getFileName().toString());
+				if (referenced == null) {
+					return -1;
+				}
+				for (Path photo : candidates) {
+					if (!referenced.contains(photo.getFileName().toString()) && delete(photo, cutoff)) {
+						deleted++;
+					}
+				}
+			}
+		}
+		return deleted;
+	}
+
+	/**
+	 * Stamps an already stored photo as just stored, so a sweep keeps it.
+	 *
+	 * @return false if the photo is not stored
+	 */
+	private static boolean refresh(Path photo) throws IOException {
+		try {
+			Files.setLastModifiedTime(photo, FileTime.fromMillis(System.currentTimeMillis()));
+			return true;
+		} catch (NoSuchFileException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Deletes an unreferenced photo and its variants, unless it was stored again
+	 * since the sweep started.
+	 */
+	private boolean delete(Path photo, FileTime cutoff) {
+		sweepLock.writeLock().lock();
+		try {
+			if (Files.getLastModifiedTime(photo).compareTo(cutoff) >= 0) {
+				return false;
+			}
+			Files.delete(photo);
+		} catch (IOException e) {
+			LOGGER.log(Level.FINE, "Could not delete unused photo " + photo, e);
+			return false;
+		} finally {
+			sweepLock.writeLock().unlock();
+		}
+		ImagePipeline.getInstance().forget(photo);
+		for (ImagePipeline.Variant variant : ImagePipeline.Variant.values()) {
+			try {
+				Files.deleteIfExists(ImagePipeline.getVariantPath(photo, variant));
+			} catch (IOException e) {
+				LOGGER.log(Level.FINE, "Could not delete a variant of " + photo, e);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Lists the two hex digit shard directories of a directory.
+	 */
+	private static List<Path> listShards(Path directory) throws IOException {
+		List<Path> shards = new ArrayList<>();
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory,
+				entry -> entry.getFileName().toString().matches("[0-9a-f]{2}") && Files.isDirectory(entry))) {
+			for (Path entry : entries) {
+				shards.add(entry);
+			}
+		}
+		return shards;
+	}
+
+	/**
+	 * Returns where a photo is stored. Content keys resolve to their sharded
+	 * location and older plain file names to the folder itself.
+	 *
+	 * @param folder   the folder of the store
+	 * @param imageKey the content key or plain file name stored in
+	 *                 {@code image_path}
+	 * @return the path of the photo, or null if the key could point outside its
+	 *         folder
+	 */
+	public Path resolve(String folder, String imageKey) {
+		if (ValidationUtil.isNullOrEmpty(imageKey) || !isPlainName(folder) || !isPlainName(imageKey)) {
+			return null;
+		}
+		Path folderPath = getRoot().resolve(folder);
+		if (!isContentKey(imageKey)) {
+			return folderPath.resolve(imageKey);
+		}
+		return folderPath.resolve(imageKey.substring(0, 2)).resolve(imageKey.substring(2, 4)).resolve(imageKey);
+	}
+
+	/**
+	 * @param imageKey a value of {@code image_path}
+	 * @return true if the value is a content key rather than a plain file name
+	 */
+	public static boolean isContentKey(String imageKey) {
+		if (imageKey == null || imageKey.length() <= HASH_HEX_LENGTH + 1 || imageKey.charAt(HASH_HEX_LENGTH) != '.') {
+			return false;
+		}
+		for (int i = 0; i < HASH_HEX_LENGTH; i++) {
+			char c = imageKey.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+				return false;
+			}
+		}
+		String extension = imageKey.substring(HASH_HEX_LENGTH + 1);
+		return extension.equals(normalizeExtension(extension));
+	}
+
+	/**
+	 * Lower-cases an extension and maps "jpeg" to "jpg", so one format always
+	 * gets the same key.
+	 *
+	 * @return the extension, or null if it is empty or not alphanumeric
+	 */
+	private static String normalizeExtension(String extension) {
+		if (extension == null || extension.isEmpty() || extension.length() > MAX_EXTENSION_LENGTH) {
+			return null;
+		}
+		for (int i = 0; i < extension.length(); i++) {
+			if (!Character.isLetterOrDigit(extension.charAt(i)) || extension.charAt(i) > 'z') {
+				return null;
+			}
+		}
+		String lower = extension.toLowerCase(Locale.ROOT);
+		return "jpeg".equals(lower) ? "jpg" : lower;
+	}
+
+	/**
+	 * Rejects names that are empty, hidden or contain a path separator.
+	 */
+	private static boolean isPlainName(String name) {
+		return !name.isEmpty() && name.charAt(0) != '.' && name.indexOf('/') < 0 && name.indexOf('\\') < 0
+				&& name.indexOf('\0') < 0;
+	}
+
+	private Path createTempFile() throws IOException {
+		Path tempFolder = getRoot().resolve(TEMP_FOLDER);
+		Files.createDirectories(tempFolder);
+		return Files.createTempFile(tempFolder, "upload", ".tmp");
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform must support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Outcome of storing one photo.
+	 */
+	public static final class StoredPhoto {
+		private final String key;
+		private final Path path;
+		private final long size;
+		private final boolean created;
+
+		private StoredPhoto(String key, Path path, long size, boolean created) {
+			this.key = key;
+			this.path = path;
+			this.size = size;
+			this.created = created;
+		}
+
+		/**
+		 * @return the content key to record in {@code image_path}
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * @return where the photo is stored
+		 */
+		public Path getPath() {
+			return path;
+		}
+
+		/**
+		 * @return the size of the photo in bytes
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * @return true if the photo was new, false if the same content was already
+		 *         stored; two requests storing the same new photo at once may both
+		 *         see true
+		 */
+		public boolean isCreated() {
+			return created;
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.college.util;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an upload is refused because of its content, for example an
+ * unsupported format or a file that is too large. The message can be shown to
+ * the user as it is.
+ */
+public class UploadRejectedException extends IOException {
+	private static final long serialVersionUID = 1L;
+
+	public UploadRejectedException(String message) {
+		super(message);
+	}
+}
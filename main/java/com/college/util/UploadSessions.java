@@ -0,0 +1,390 @@
+package com.college.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Resumable uploads of one file in fixed-size chunks.
+ * <p>
+ * A client opens a session with the file's name and size and then sends the
+ * chunks in any order, each with its CRC32C. Every chunk is checked and written
+ * at its own offset of the session's file, so a chunk can be sent again after
+ * a dropped connection without touching the others, and the client can ask
+ * which chunks have arrived to resume where it stopped. Once all chunks are in,
+ * the form that needs the file refers to it by session id and
+ * {@link #openCompleted(String) reads it}, so the form post itself stays
+ * small.
+ * </p>
+ * <p>
+ * Session files live in the {@link PhotoStore} root, so a completed file moves
+ * into the store on the same file system. Sessions untouched for
+ * {@code -Dcollege.upload.sessionMinutes} are deleted, and sessions that have
+ * not received a chunk already after
+ * {@code -Dcollege.upload.emptySessionSeconds}. At most
+ * {@code -Dcollege.upload.maxSessions} can be open, of which
+ * {@code -Dcollege.upload.maxSessionsPerAddress} per client address, so one
+ * client cannot hold every session. The chunk size is
+ * {@code -Dcollege.upload.chunkSize} bytes. Sessions are kept in memory, so a
+ * restart discards unfinished uploads.
+ * </p>
+ */
+public class UploadSessions {
+
+	private static final Logger LOGGER = Logger.getLogger(UploadSessions.class.getName());
+
+	private static final UploadSessions INSTANCE = new UploadSessions();
+
+	private static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+	private static final int DEFAULT_MAX_SESSIONS = 100;
+	private static final int DEFAULT_MAX_SESSIONS_PER_ADDRESS = 3;
+	private static final long DEFAULT_SESSION_MINUTES = 30;
+	private static final long DEFAULT_EMPTY_SESSION_SECONDS = 120;
+	private static final long SWEEP_INTERVAL_SECONDS = 60;
+	private static final String SESSION_FOLDER = ".uploads";
+	private static final String SESSION_EXTENSION = ".part";
+	private static final int ID_BYTES = 16;
+
+	private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+	private final int chunkSize = Math.max(1024, Integer.getInteger("college.upload.chunkSize", DEFAULT_CHUNK_SIZE));
+	private final int maxSessions = Math.max(1, Integer.getInteger("college.upload.maxSessions", DEFAULT_MAX_SESSIONS));
+	private final int maxSessionsPerAddress = Math.max(1,
+			Integer.getInteger("college.upload.maxSessionsPerAddress", DEFAULT_MAX_SESSIONS_PER_ADDRESS));
+	private final long sessionMillis = TimeUnit.MINUTES
+			.toMillis(Math.max(1, Long.getLong("college.upload.sessionMinutes", DEFAULT_SESSION_MINUTES)));
+	private final long emptySessionMillis = TimeUnit.SECONDS
+			.toMillis(Math.max(1, Long.getLong("college.upload.emptySessionSeconds", DEFAULT_EMPTY_SESSION_SECONDS)));
+
+	private ScheduledExecutorService scheduler;
+	private ScheduledFuture<?> sweepTask;
+
+	private UploadSessions() {
+	}
+
+	/**
+	 * @return the shared upload sessions
+	 */
+	public static UploadSessions getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Deletes files left by a previous run and schedules the expiry of idle
+	 * sessions. Called once at application startup, after the photo store.
+	 */
+	public synchronized void start() {
+		if (scheduler == null) {
+			deleteLeftovers();
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "upload-session-sweep");
+				thread.setDaemon(true);
+				return thread;
+			});
+			sweepTask = scheduler.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS,
+					TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Stops the expiry and discards open sessions. Called when the application
+	 * is undeployed.
+	 */
+	public synchronized void stop() {
+		if (scheduler != null) {
+			sweepTask.cancel(false);
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+		for (String id : sessions.keySet()) {
+			remove(id);
+		}
+	}
+
+	/**
+	 * Opens a session for a file.
+	 *
+	 * @param fileName the name of the file on the client
+	 * @param size     the size of the file in bytes
+	 * @param maxSize  the largest file accepted
+	 * @param address  the address of the client
+	 * @return the new session
+	 * @throws UploadRejectedException if the file is empty or too large, or too
+	 *                                 many sessions are open, in total or for
+	 *                                 the address
+	 * @throws IOException             if the session file cannot be created
+	 */
+	public synchronized Session create(String fileName, long size, long maxSize, String address)
+			throws IOException {
+		if (size <= 0) {
+			throw new UploadRejectedException("The file is empty.");
+		}
+		if (size > maxSize) {
+			throw new UploadRejectedException("The file is too large. The limit is " + maxSize / (1024 * 1024) + " MB.");
+		}
+		if (sessions.size() >= maxSessions) {
+			throw new UploadRejectedException("Too many uploads are in progress. Please try again later.");
+		}
+		long fromAddress = sessions.values().stream().filter(session -> session.address.equals(address)).count();
+		if (fromAddress >= maxSessionsPerAddress) {
+			throw new UploadRejectedException("You have too many uploads in progress. Please finish or cancel one.");
+		}
+
+		String id = HexFormat.of().formatHex(CryptoProvider.randomBytes(ID_BYTES));
+		Path folder = getFolder();
+		Files.createDirectories(folder);
+		Path file = folder.resolve(id + SESSION_EXTENSION);
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		Session session = new Session(id, fileName, size, chunkSize, address, file, channel);
+		sessions.put(id, session);
+		return session;
+	}
+
+	/**
+	 * @param id the session id
+	 * @return the session, or null if it does not exist or has expired
+	 */
+	public Session get(String id) {
+		Session session = id != null ? sessions.get(id) : null;
+		if (session != null) {
+			session.touch();
+		}
+		return session;
+	}
+
+	/**
+	 * Writes one chunk at its offset. Sending a chunk again replaces it.
+	 *
+	 * @param session  the session
+	 * @param index    the chunk number, from 0
+	 * @param data     the chunk's bytes; exactly the chunk's length is read
+	 * @param checksum the CRC32C of the chunk as 8 hex digits
+	 * @throws UploadRejectedException if the index is out of range, the data is
+	 *                                 shorter than the chunk, the checksum does
+	 *                                 not match, or the session has already
+	 *                                 been submitted or removed
+	 * @throws IOException             if the chunk cannot be read or written
+	 */
+	public void writeChunk(Session session, int index, InputStream data, String checksum) throws IOException {
+		if (index < 0 || index >= session.getChunkCount()) {
+			throw new UploadRejectedException("Chunk " + index + " is out of range.");
+		}
+		int length = session.getChunkLength(index);
+		byte[] bytes = data.readNBytes(length);
+		if (bytes.length != length || data.read() != -1) {
+			throw new UploadRejectedException("Chunk " + index + " must be " + length + " bytes long.");
+		}
+		CRC32C crc = new CRC32C();
+		crc.update(bytes, 0, length);
+		if (checksum == null || !checksum.trim().equalsIgnoreCase(String.format("%08x", crc.getValue()))) {
+			throw new UploadRejectedException("Chunk " + index + " does not match its checksum.");
+		}
+
+		// Written under the session's lock, so the file cannot be closed or read
+		// for submission halfway through the chunk
+		synchronized (session.lock) {
+			if (session.state != State.OPEN) {
+				throw new UploadRejectedException("The upload has already ended. Please choose the file again.");
+			}
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			long position = (long) index * session.getChunkSize();
+			while (buffer.hasRemaining()) {
+				position += session.channel.write(buffer, position);
+			}
+			session.receivedChunks.set(index);
+		}
+		session.touch();
+	}
+
+	/**
+	 * Opens the file of a completed session. From then on the session takes no
+	 * more chunks, and it stays until it is {@link #remove(String) removed}, so
+	 * a form that could not be saved can be submitted again with it.
+	 *
+	 * @param id the session id
+	 * @return the file's content
+	 * @throws UploadRejectedException if the session does not exist or chunks
+	 *                                 are missing
+	 * @throws IOException             if the file cannot be read
+	 */
+	public InputStream openCompleted(String id) throws IOException {
+		Session session = get(id);
+		if (session == null) {
+			throw new UploadRejectedException("The uploaded file has expired. Please choose it again.");
+		}
+		synchronized (session.lock) {
+			if (session.state == State.REMOVED) {
+				throw new UploadRejectedException("The uploaded file has expired. Please choose it again.");
+			}
+			if (session.receivedChunks.cardinality() != session.chunkCount) {
+				throw new UploadRejectedException("The file has not been uploaded completely. Please try again.");
+			}
+			session.state = State.SUBMITTED;
+			session.channel.force(false);
+			return Channels.newInputStream(FileChannel.open(session.file, StandardOpenOption.READ));
+		}
+	}
+
+	/**
+	 * Ends a session and deletes its file.
+	 *
+	 * @param id the session id
+	 */
+	public void remove(String id) {
+		Session session = sessions.remove(id);
+		if (session != null) {
+			synchronized (session.lock) {
+				session.state = State.REMOVED;
+				try {
+					session.channel.close();
+					Files.deleteIfExists(session.file);
+				} catch (IOException e) {
+					LOGGER.log(Level.WARNING, "Could not delete upload session " + id, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of open sessions
+	 */
+	public int getOpenSessions() {
+		return sessions.size();
+	}
+
+	/**
+	 * Removes sessions that have not been used for the session lifetime, and
+	 * sooner those that never received a chunk.
+	 */
+	void sweep() {
+		long now = System.currentTimeMillis();
+		for (Session session : sessions.values()) {
+			long lifetime = session.getReceivedChunks().length == 0 ? emptySessionMillis : sessionMillis;
+			if (session.lastUsed < now - lifetime) {
+				remove(session.getId());
+			}
+		}
+	}
+
+	private Path getFolder() {
+		return PhotoStore.getInstance().getRoot().resolve(SESSION_FOLDER);
+	}
+
+	private void deleteLeftovers() {
+		Path folder = getFolder();
+		if (!Files.isDirectory(folder)) {
+			return;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*" + SESSION_EXTENSION)) {
+			for (Path file : files) {
+				Files.deleteIfExists(file);
+			}
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Could not clean up " + folder, e);
+		}
+	}
+
+	/**
+	 * Whether a session still takes chunks.
+	 */
+	private enum State {
+		OPEN, SUBMITTED, REMOVED
+	}
+
+	/**
+	 * One file being uploaded.
+	 */
+	public static final class Session {
+		private final String id;
+		private final String fileName;
+		private final long size;
+		private final int chunkSize;
+		private final int chunkCount;
+		private final String address;
+		private final Path file;
+		private final FileChannel channel;
+		private final Object lock = new Object();
+		// Guarded by lock, as are writes to the channel
+		private final BitSet receivedChunks;
+		private State state = State.OPEN;
+		private volatile long lastUsed = System.currentTimeMillis();
+
+		private Session(String id, String fileName, long size, int chunkSize, String address, Path file,
+				FileChannel channel) {
+			this.id = id;
+			this.fileName = fileName;
+			this.size = size;
+			this.chunkSize = chunkSize;
+			this.chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+			this.address = address != null ? address : "";
+			this.file = file;
+			this.channel = channel;
+			this.receivedChunks = new BitSet(chunkCount);
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getFileName() {
+			return fileName;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public int getChunkSize() {
+			return chunkSize;
+		}
+
+		public int getChunkCount() {
+			return chunkCount;
+		}
+
+		/**
+		 * @return the length of a chunk; only the last one may be shorter
+		 */
+		public int getChunkLength(int index) {
+			return (int) Math.min(chunkSize, size - (long) index * chunkSize);
+		}
+
+		/**
+		 * @return the numbers of the chunks received so far, in order
+		 */
+		public int[] getReceivedChunks() {
+			synchronized (lock) {
+				return receivedChunks.stream().toArray();
+			}
+		}
+
+		/**
+		 * @return true once every chunk has been received
+		 */
+		public boolean isComplete() {
+			synchronized (lock) {
+				return receivedChunks.cardinality() == chunkCount;
+			}
+		}
+
+		private void touch() {
+			lastUsed = System.currentTimeMillis();
+		}
+	}
+}
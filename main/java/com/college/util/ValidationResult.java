@@ -0,0 +1,86 @@
+package com.college.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a {@link FormValidator}: the first error of each invalid field.
+ */
+public final class ValidationResult {
+
+	private final String[] fields;
+	private String[] errors;
+	private int errorCount;
+
+	ValidationResult(String[] fields) {
+		this.fields = fields;
+	}
+
+	/**
+	 * @return true if no field has an error
+	 */
+	public boolean isValid() {
+		return errorCount == 0;
+	}
+
+	/**
+	 * @return the number of invalid fields
+	 */
+	public int getErrorCount() {
+		return errorCount;
+	}
+
+	/**
+	 * @param field the field name
+	 * @return the error of the field, or null if it is valid
+	 */
+	public String getError(String field) {
+		if (errors == null) {
+			return null;
+		}
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].equals(field)) {
+				return errors[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the errors in field order
+	 */
+	public List<String> getErrors() {
+		if (errors == null) {
+			return Collections.emptyList();
+		}
+		List<String> messages = new ArrayList<>(errorCount);
+		for (String error : errors) {
+			if (error != null) {
+				messages.add(error);
+			}
+		}
+		return messages;
+	}
+
+	/**
+	 * @return all errors in field order as one message, or null if valid
+	 */
+	public String getMessage() {
+		return errorCount == 0 ? null : String.join(" ", getErrors());
+	}
+
+	boolean hasError(int field) {
+		return errors != null && errors[field] != null;
+	}
+
+	void reject(int field, String message) {
+		if (errors == null) {
+			errors = new String[fields.length];
+		}
+		if (errors[field] == null) {
+			errors[field] = message;
+			errorCount++;
+		}
+	}
+}
@@ -1,25 +1,52 @@
 package com.college.util;
 
 import java.time.LocalDate;
-import java.time.Period;
-import java.util.regex.Pattern;
 import jakarta.servlet.http.Part;
 
+/**
+ * Field checks shared by the forms and the CSV import.
+ * <p>
+ * The checks scan the characters directly instead of running a regular
+ * expression, so they neither compile a pattern nor allocate a matcher per
+ * call. Each accepts exactly what the expression in its comment accepts.
+ * </p>
+ */
 public class ValidationUtil {
 
+    private static final int MINIMUM_AGE = 16;
+    private static final int MIN_PASSWORD_LENGTH = 8;
+    private static final String PASSWORD_SYMBOLS = "@$!%*?&";
+
     // 1. Validate if a field is null or empty
     public static boolean isNullOrEmpty(String value) {
         return value == null || value.trim().isEmpty();
     }
 
-    // 2. Validate if a string contains only letters
+    // 2. Validate if a string contains only letters: ^[a-zA-Z]+$
     public static boolean isAlphabetic(String value) {
-        return value != null && value.matches("^[a-zA-Z]+$");
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!isAsciiLetter(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    // 3. Validate if a string starts with a letter and is composed of letters and numbers
+    // 3. Validate if a string starts with a letter and is composed of letters and numbers: ^[a-zA-Z][a-zA-Z0-9]*$
     public static boolean isAlphanumericStartingWithLetter(String value) {
-        return value != null && value.matches("^[a-zA-Z][a-zA-Z0-9]*$");
+        if (value == null || value.isEmpty() || !isAsciiLetter(value.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isAsciiLetter(c) && !isAsciiDigit(c)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     // 4. Validate if a string is "male" or "female" (case insensitive)
@@ -27,30 +54,92 @@ public class ValidationUtil {
         return value != null && (value.equalsIgnoreCase("male") || value.equalsIgnoreCase("female"));
     }
 
-    // 5. Validate if a string is a valid email address
+    // 5. Validate if a string is a valid email address: ^[\w-\.]+@([\w-]+\.)+[\w-]{2,4}$
     public static boolean isValidEmail(String email) {
-        String emailRegex = "^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$";
-        return email != null && Pattern.matches(emailRegex, email);
+        if (email == null) {
+            return false;
+        }
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return false;
+        }
+        for (int i = 0; i < at; i++) {
+            char c = email.charAt(i);
+            if (!isWordChar(c) && c != '.') {
+                return false;
+            }
+        }
+
+        // The domain is at least two non-empty labels; the last has 2 to 4 characters
+        int labelStart = at + 1;
+        int labels = 0;
+        for (int i = labelStart; i <= email.length(); i++) {
+            if (i == email.length() || email.charAt(i) == '.') {
+                if (i == labelStart) {
+                    return false;
+                }
+                labels++;
+                if (i == email.length()) {
+                    int lastLength = i - labelStart;
+                    return labels >= 2 && lastLength >= 2 && lastLength <= 4;
+                }
+                labelStart = i + 1;
+            } else if (!isWordChar(email.charAt(i))) {
+                return false;
+            }
+        }
+        return false;
     }
 
-    // 6. Validate if a number is of 10 digits and starts with 98
+    // 6. Validate if a number is of 10 digits and starts with 98: ^98\d{8}$
     public static boolean isValidPhoneNumber(String number) {
-        return number != null && number.matches("^98\\d{8}$");
+        if (number == null || number.length() != 10 || !number.startsWith("98")) {
+            return false;
+        }
+        for (int i = 2; i < number.length(); i++) {
+            if (!isAsciiDigit(number.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    // 7. Validate if a password is composed of at least 1 capital letter, 1 number, and 1 symbol
+    // 7. Validate if a password is composed of at least 1 capital letter, 1 number, and 1 symbol:
+    // ^(?=.*[A-Z])(?=.*\d)(?=.*[@$!%*?&])[A-Za-z\d@$!%*?&]{8,}$
     public static boolean isValidPassword(String password) {
-        String passwordRegex = "^(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$";
-        return password != null && password.matches(passwordRegex);
+        if (password == null || password.length() < MIN_PASSWORD_LENGTH) {
+            return false;
+        }
+        boolean upper = false;
+        boolean digit = false;
+        boolean symbol = false;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (isAsciiDigit(c)) {
+                digit = true;
+            } else if (PASSWORD_SYMBOLS.indexOf(c) >= 0) {
+                symbol = true;
+            } else if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return upper && digit && symbol;
     }
 
     // 8. Validate if a Part's file extension matches with image extensions (jpg, jpeg, png, gif)
     public static boolean isValidImageExtension(Part imagePart) {
-        if (imagePart == null || isNullOrEmpty(imagePart.getSubmittedFileName())) {
+        return imagePart != null && isValidImageFileName(imagePart.getSubmittedFileName());
+    }
+
+    // 8b. Validate if a file name has an image extension (jpg, jpeg, png, gif), ignoring case
+    public static boolean isValidImageFileName(String fileName) {
+        if (isNullOrEmpty(fileName)) {
             return false;
         }
-        String fileName = imagePart.getSubmittedFileName().toLowerCase();
-        return fileName.endsWith(".jpg") || fileName.endsWith(".jpeg") || fileName.endsWith(".png") || fileName.endsWith(".gif");
+        return endsWithIgnoreCase(fileName, ".jpg") || endsWithIgnoreCase(fileName, ".jpeg")
+                || endsWithIgnoreCase(fileName, ".png") || endsWithIgnoreCase(fileName, ".gif");
     }
 
     // 9. Validate if password and retype password match
@@ -63,7 +152,81 @@ public class ValidationUtil {
         if (dob == null) {
             return false;
         }
+        return isAgeAtLeast(dob.getYear(), dob.getMonthValue(), dob.getDayOfMonth(), MINIMUM_AGE);
+    }
+
+    // 11. Validate if a string is a date in the form YYYY-MM-DD, as LocalDate.parse accepts
+    public static boolean isIsoDate(String value) {
+        if (value == null || value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return false;
+        }
+        int year = parseDigits(value, 0, 4);
+        int month = parseDigits(value, 5, 7);
+        int day = parseDigits(value, 8, 10);
+        return year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month);
+    }
+
+    // 12. Validate if a YYYY-MM-DD date of birth is at least 16 years before today
+    public static boolean isAgeAtLeast16(String isoDate) {
+        if (!isIsoDate(isoDate)) {
+            return false;
+        }
+        return isAgeAtLeast(parseDigits(isoDate, 0, 4), parseDigits(isoDate, 5, 7), parseDigits(isoDate, 8, 10),
+                MINIMUM_AGE);
+    }
+
+    // Completed years between the birth date and today, as Period.between counts them
+    private static boolean isAgeAtLeast(int year, int month, int day, int years) {
         LocalDate today = LocalDate.now();
-        return Period.between(dob, today).getYears() >= 16;
+        int age = today.getYear() - year;
+        if (today.getMonthValue() < month || (today.getMonthValue() == month && today.getDayOfMonth() < day)) {
+            age--;
+        }
+        return age >= years;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+        case 2:
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    // Value of the ASCII digits in [start, end), or -1 if any is not a digit
+    private static int parseDigits(String value, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (!isAsciiDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean endsWithIgnoreCase(String value, String suffix) {
+        return value.regionMatches(true, value.length() - suffix.length(), suffix, 0, suffix.length());
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // [\w-]: letters, digits, underscore and hyphen
+    private static boolean isWordChar(char c) {
+        return isAsciiLetter(c) || isAsciiDigit(c) || c == '_' || c == '-';
     }
 }
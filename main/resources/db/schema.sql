@@ -0,0 +1,36 @@
+-- Schema of the islington database, used to bootstrap the embedded backend.
+-- Every statement must be safe to run against an existing database.
+
+CREATE TABLE IF NOT EXISTS program (
+	program_id INT AUTO_INCREMENT PRIMARY KEY,
+	name VARCHAR(50) NOT NULL,
+	type VARCHAR(50),
+	category VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS student (
+	student_id INT AUTO_INCREMENT PRIMARY KEY,
+	first_name VARCHAR(50) NOT NULL,
+	last_name VARCHAR(50) NOT NULL,
+	username VARCHAR(50) NOT NULL UNIQUE,
+	dob DATE,
+	gender VARCHAR(10),
+	email VARCHAR(100),
+	number VARCHAR(15),
+	password VARCHAR(255),
+	program_id INT NOT NULL,
+	image_path VARCHAR(255),
+	FOREIGN KEY (program_id) REFERENCES program (program_id)
+);
+
+-- Enforces one account per email; the availability check before an insert is
+-- only advisory. On an existing MySQL database, resolve the duplicates listed by
+--   SELECT email, COUNT(*) FROM student GROUP BY email HAVING COUNT(*) > 1;
+-- and then run:
+--   ALTER TABLE student DROP INDEX idx_student_email,
+--     ADD UNIQUE INDEX idx_student_email (email);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_student_email ON student (email);
+
+-- Lets the photo sweep find the photos in use by key prefix. On an existing
+-- MySQL database run: CREATE INDEX idx_student_image_path ON student (image_path);
+CREATE INDEX IF NOT EXISTS idx_student_image_path ON student (image_path);
@@ -0,0 +1,7 @@
+-- Reference data loaded into an empty embedded database. Students, whose
+-- passwords must be encrypted, are seeded by EmbeddedDatabase. The programs
+-- are inserted in order so they get the ids 1, 2 and 3.
+
+INSERT INTO program (name, type, category) VALUES ('Computing', 'BSc (Hons)', 'IT');
+INSERT INTO program (name, type, category) VALUES ('Multimedia', 'BSc (Hons)', 'IT');
+INSERT INTO program (name, type, category) VALUES ('Networking', 'BSc (Hons)', 'IT');
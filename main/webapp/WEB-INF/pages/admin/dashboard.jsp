@@ -25,6 +25,8 @@
 						class="icon">💳</span> Students</a></li>
 				<li><a href="${contextPath}/studentUpdate"><span
 						class="icon">✏️</span> Update Student</a></li>
+				<li><a href="${contextPath}/importStudents"><span
+						class="icon">📥</span> Import Students</a></li>
 			</ul>
 			<div class="logout">
 				<form action="${contextPath}/logout" method="post">
@@ -37,20 +39,15 @@
 			<div class="header">
 				<div class="info-box">
 					<h3>Total Students</h3>
-					<p>${empty total ? 0 : total}</p>
-				</div>
-				<div class="info-box">
-					<h3>Computing</h3>
-					<p>${empty computing ? 0 : computing}</p>
-				</div>
-				<div class="info-box">
-					<h3>Multimedia</h3>
-					<p>${empty multimedia ? 0 : multimedia}</p>
-				</div>
-				<div class="info-box">
-					<h3>Networking</h3>
-					<p>${empty networking ? 0 : networking}</p>
+					<p>${empty stats ? 0 : stats.totalStudents}</p>
 				</div>
+				<!-- One box per program in the program table -->
+				<c:forEach var="programCount" items="${stats.programCounts}">
+					<div class="info-box">
+						<h3>${programCount.program.name}</h3>
+						<p>${programCount.studentCount}</p>
+					</div>
+				</c:forEach>
 			</div>
 
 
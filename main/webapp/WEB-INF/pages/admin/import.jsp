@@ -0,0 +1,92 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8"
+	pageEncoding="UTF-8"%>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core"%>
+
+<c:set var="contextPath" value="${pageContext.request.contextPath}" />
+
+<!DOCTYPE html>
+<html>
+<head>
+<meta charset="UTF-8">
+<title>Import Students</title>
+<link rel="stylesheet" type="text/css"
+	href="${pageContext.request.contextPath}/css/dashboard.css" />
+</head>
+<body>
+
+	<div class="container">
+		<div class="sidebar">
+			<ul class="nav">
+				<li><a href="${contextPath}/dashboard"><span class="icon">🏠</span>
+						Dashboard</a></li>
+				<li><a href="${contextPath}/adminOrder"><span class="icon">📊</span>
+						Order List</a></li>
+				<li><a href="${contextPath}/modifyStudents"><span
+						class="icon">💳</span> Students</a></li>
+				<li><a href="${contextPath}/studentUpdate"><span
+						class="icon">✏️</span> Update Student</a></li>
+				<li><a href="${contextPath}/importStudents"><span
+						class="icon">📥</span> Import Students</a></li>
+			</ul>
+			<div class="logout">
+				<form action="${contextPath}/logout" method="post">
+					<input type="submit" class="nav-button" value="Logout" />
+				</form>
+			</div>
+		</div>
+
+		<div class="content">
+			<div class="table-container">
+				<!-- Display error message if available -->
+				<c:if test="${not empty error}">
+					<p class="error-message">${error}</p>
+				</c:if>
+
+				<!-- Display success message if available -->
+				<c:if test="${not empty success}">
+					<p class="success-message">${success}</p>
+				</c:if>
+				<h3>Import Students</h3>
+				<p>Upload a CSV file with the header
+					firstName,lastName,username,dob,gender,email,phoneNumber,subject,password</p>
+				<br />
+				<form action="${contextPath}/importStudents" method="post"
+					enctype="multipart/form-data">
+					<input type="file" name="file" accept=".csv,text/csv" required>
+					<button class="action-btn" type="submit">Import</button>
+				</form>
+
+				<c:if test="${not empty result}">
+					<br />
+					<p>Rows read: ${result.rowsRead}, imported: ${result.imported},
+						rejected: ${result.failed}</p>
+					<c:if test="${result.failed > 0}">
+						<table>
+							<thead>
+								<tr>
+									<th>Line</th>
+									<th>Username</th>
+									<th>Error</th>
+								</tr>
+							</thead>
+							<tbody>
+								<c:forEach var="rowError" items="${result.errors}">
+									<tr>
+										<td>${rowError.line}</td>
+										<td><c:out value="${rowError.username}" /></td>
+										<td><c:out value="${rowError.message}" /></td>
+									</tr>
+								</c:forEach>
+							</tbody>
+						</table>
+						<c:if test="${result.unlistedErrors > 0}">
+							<p>${result.unlistedErrors} more rejected rows are not listed.</p>
+						</c:if>
+					</c:if>
+				</c:if>
+			</div>
+		</div>
+	</div>
+
+</body>
+</html>
@@ -25,6 +25,8 @@
 						class="icon">💳</span> Students</a></li>
 				<li><a href="${contextPath}/studentUpdate"><span
 						class="icon">✏️</span> Update Student</a></li>
+				<li><a href="${contextPath}/importStudents"><span
+						class="icon">📥</span> Import Students</a></li>
 			</ul>
 			<div class="logout">
 				<form action="${contextPath}/logout" method="post">
@@ -37,20 +39,15 @@
 			<div class="header">
 				<div class="info-box">
 					<h3>Total Students</h3>
-					<p>${empty total ? 0 : total}</p>
-				</div>
-				<div class="info-box">
-					<h3>Computing</h3>
-					<p>${empty computing ? 0 : computing}</p>
-				</div>
-				<div class="info-box">
-					<h3>Multimedia</h3>
-					<p>${empty multimedia ? 0 : multimedia}</p>
-				</div>
-				<div class="info-box">
-					<h3>Networking</h3>
-					<p>${empty networking ? 0 : networking}</p>
+					<p>${empty stats ? 0 : stats.totalStudents}</p>
 				</div>
+				<!-- One box per program in the program table -->
+				<c:forEach var="programCount" items="${stats.programCounts}">
+					<div class="info-box">
+						<h3>${programCount.program.name}</h3>
+						<p>${programCount.studentCount}</p>
+					</div>
+				</c:forEach>
 			</div>
 
 			<div class="table-container">
@@ -64,9 +61,51 @@
 					<p class="success-message">${success}</p>
 				</c:if>
 				<h3>Student List</h3>
+
+				<!-- Search by name, username, email or phone number -->
+				<form class="bulk-actions" action="${contextPath}/searchStudents"
+					method="get">
+					<input type="search" name="q" id="searchBox" list="suggestions"
+						autocomplete="off" placeholder="Search students"
+						value="<c:out value='${search.query}'/>">
+					<datalist id="suggestions"></datalist>
+					<button class="action-btn" type="submit">Search</button>
+					<c:if test="${not empty search}">
+						<a href="${contextPath}/modifyStudents">Clear</a>
+					</c:if>
+				</form>
+
+				<!-- Download the full roster -->
+				<div class="bulk-actions">
+					<a href="${contextPath}/exportStudents?format=csv">Export CSV</a>
+					<a href="${contextPath}/exportStudents?format=json">Export JSON</a>
+				</div>
+
+				<!-- Bulk actions apply to the students ticked in the table -->
+				<form id="bulkForm" class="bulk-actions"
+					action="${contextPath}/modifyStudents" method="post">
+					<select name="action">
+						<option value="bulkDelete">Delete selected</option>
+						<option value="bulkReassign">Move selected to program</option>
+						<option value="reassignProgram">Move whole program</option>
+					</select> <select name="sourceProgram">
+						<option value="">From program</option>
+						<c:forEach var="program" items="${programs}">
+							<option value="${program.name}">${program.name}</option>
+						</c:forEach>
+					</select> <select name="targetProgram">
+						<option value="">To program</option>
+						<c:forEach var="program" items="${programs}">
+							<option value="${program.name}">${program.name}</option>
+						</c:forEach>
+					</select>
+					<button class="action-btn" type="submit">Apply</button>
+				</form>
+
 				<table>
 					<thead>
 						<tr>
+							<th></th>
 							<th>ID</th>
 							<th>Name</th>
 							<th>Module</th>
@@ -79,6 +118,8 @@
 						<!-- Using JSTL forEach loop to display student data -->
 						<c:forEach var="student" items="${studentList}">
 							<tr>
+								<td><input type="checkbox" name="studentIds"
+									value="${student.id}" form="bulkForm"></td>
 								<td>${student.id}</td>
 								<td>${student.firstName} ${student.lastName}</td>
 								<td>${student.program.name}</td>
@@ -91,7 +132,7 @@
 										<input type="hidden" name="action" value="updateForm">
 										<button class="action-btn" type="submit">Edit</button>
 									</form>
-									<form action="${contextPath}/students" method="post"
+									<form action="${contextPath}/modifyStudents" method="post"
 										style="display: inline;">
 										<input type="hidden" name="studentId" value="${student.id}">
 										<input type="hidden" name="action" value="delete">
@@ -102,9 +143,75 @@
 						</c:forEach>
 					</tbody>
 				</table>
+
+				<!-- Search result pagination controls -->
+				<c:if test="${not empty search}">
+					<div class="pagination">
+						<c:if test="${search.hasPrevious}">
+							<c:url var="previousUrl" value="/searchStudents">
+								<c:param name="q" value="${search.query}" />
+								<c:param name="page" value="${search.page - 1}" />
+								<c:param name="size" value="${search.pageSize}" />
+							</c:url>
+							<a href="${previousUrl}">&laquo; Previous</a>
+						</c:if>
+						<span>${search.totalMatches} matches</span>
+						<c:if test="${search.hasNext}">
+							<c:url var="nextUrl" value="/searchStudents">
+								<c:param name="q" value="${search.query}" />
+								<c:param name="page" value="${search.page + 1}" />
+								<c:param name="size" value="${search.pageSize}" />
+							</c:url>
+							<a href="${nextUrl}">Next &raquo;</a>
+						</c:if>
+					</div>
+				</c:if>
+
+				<!-- Keyset pagination controls -->
+				<c:if test="${empty search}">
+				<div class="pagination">
+					<c:if test="${page.hasPrevious}">
+						<a href="${contextPath}/modifyStudents?before=${page.previousCursor}&size=${page.pageSize}${page.totalCount >= 0 ? '&count=true' : ''}">&laquo;
+							Previous</a>
+					</c:if>
+					<c:if test="${page.totalCount >= 0}">
+						<span>${page.totalCount} students</span>
+					</c:if>
+					<c:if test="${page.hasNext}">
+						<a href="${contextPath}/modifyStudents?after=${page.nextCursor}&size=${page.pageSize}${page.totalCount >= 0 ? '&count=true' : ''}">Next
+							&raquo;</a>
+					</c:if>
+				</div>
+				</c:if>
 			</div>
 		</div>
 	</div>
 
+	<!-- Type-ahead suggestions from the search index -->
+	<script>
+		(function() {
+			var box = document.getElementById("searchBox");
+			var list = document.getElementById("suggestions");
+			var timer;
+			box.addEventListener("input", function() {
+				clearTimeout(timer);
+				if (box.value.trim().length < 2) {
+					return;
+				}
+				timer = setTimeout(function() {
+					fetch("${contextPath}/searchStudents?suggest=true&q=" + encodeURIComponent(box.value))
+						.then(function(response) { return response.json(); })
+						.then(function(suggestions) {
+							list.innerHTML = "";
+							suggestions.forEach(function(suggestion) {
+								var option = document.createElement("option");
+								option.value = suggestion.label;
+								list.appendChild(option);
+							});
+						});
+				}, 150);
+			});
+		})();
+	</script>
 </body>
 </html>
\ No newline at end of file
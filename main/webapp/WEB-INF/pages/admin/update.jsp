@@ -27,6 +27,8 @@
 						class="icon">💳</span> Students</a></li>
 				<li><a href="${contextPath}/studentUpdate"><span
 						class="icon">✏️</span> Update Student</a></li>
+				<li><a href="${contextPath}/importStudents"><span
+						class="icon">📥</span> Import Students</a></li>
 			</ul>
 			<div class="logout">
 				<form action="${contextPath}/logout" method="post">
@@ -111,6 +113,10 @@
 				</div>
 				<div class="row">
 					<div class="col">
+						<c:if test="${not empty photoUrl}">
+							<img src="${contextPath}/${photoUrl}" alt="Profile picture"
+								class="profile-picture" loading="lazy">
+						</c:if>
 						<label for="image">Profile Picture:</label> <input type="file"
 							id="image" name="image">
 					</div>
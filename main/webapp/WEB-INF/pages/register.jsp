@@ -91,7 +91,8 @@
 			<div class="row">
 				<div class="col">
 					<label for="image">Profile Picture:</label> <input type="file"
-						id="image" name="image">
+						id="image" name="image"> <input type="hidden" id="imageUpload"
+						name="imageUpload" value="${imageUpload}">
 				</div>
 			</div>
 			<button type="submit">Register A New Account</button>
@@ -99,5 +100,149 @@
 		<a href="${contextPath}/login" class="login-button">Login If You
 			Have Already An Account </a>
 	</div>
+	<script>
+		(function() {
+			var messages = {
+				username : "This username is already taken.",
+				email : "An account with this email already exists."
+			};
+			Object.keys(messages).forEach(function(name) {
+				var input = document.getElementById(name);
+				input.addEventListener("input", function() {
+					input.setCustomValidity("");
+				});
+				input.addEventListener("change", function() {
+					var value = input.value.trim();
+					if (!value) {
+						return;
+					}
+					fetch("${contextPath}/checkAvailability?" + name + "=" + encodeURIComponent(value))
+						// A throttled check leaves the answer to the form submission
+						.then(function(response) { return response.ok ? response.json() : {}; })
+						.then(function(result) {
+							if (input.value.trim() === value) {
+								input.setCustomValidity(result[name] === false ? messages[name] : "");
+								input.reportValidity();
+							}
+						});
+				});
+			});
+		})();
+
+		// Sends the photo in checksummed chunks before the form, so a dropped
+		// connection resends one chunk instead of the whole photo
+		(function() {
+			var uploads = "${contextPath}/uploads";
+			var form = document.querySelector("form");
+			var fileInput = document.getElementById("image");
+			var uploadInput = document.getElementById("imageUpload");
+			var button = form.querySelector("button[type=submit]");
+			var maxAttempts = 5;
+
+			var table = new Uint32Array(256);
+			for (var n = 0; n < 256; n++) {
+				var c = n;
+				for (var k = 0; k < 8; k++) {
+					c = c & 1 ? 0x82F63B78 ^ (c >>> 1) : c >>> 1;
+				}
+				table[n] = c >>> 0;
+			}
+
+			function crc32c(bytes) {
+				var crc = 0xFFFFFFFF;
+				for (var i = 0; i < bytes.length; i++) {
+					crc = table[(crc ^ bytes[i]) & 0xFF] ^ (crc >>> 8);
+				}
+				return ((crc ^ 0xFFFFFFFF) >>> 0).toString(16).padStart(8, "0");
+			}
+
+			function json(response) {
+				return response.json().catch(function() { return {}; }).then(function(result) {
+					if (!response.ok) {
+						var error = new Error(result.error || "The photo could not be uploaded. Please try again.");
+						// A session that is gone cannot be resumed; anything else may pass next time
+						error.retry = response.status !== 404;
+						throw error;
+					}
+					return result;
+				});
+			}
+
+			function delay(millis) {
+				return new Promise(function(resolve) { setTimeout(resolve, millis); });
+			}
+
+			function sendChunk(file, session, index) {
+				var start = index * session.chunkSize;
+				var chunk = file.slice(start, Math.min(file.size, start + session.chunkSize));
+				return chunk.arrayBuffer().then(function(buffer) {
+					return fetch(uploads + "/" + session.id + "/" + index, {
+						method : "PUT",
+						headers : { "X-Chunk-Checksum" : crc32c(new Uint8Array(buffer)) },
+						body : buffer
+					});
+				}).then(function(response) {
+					if (!response.ok) {
+						return json(response);
+					}
+				});
+			}
+
+			// Asks which chunks arrived and sends the rest, resuming after a failure
+			function sendChunks(file, session, attempt) {
+				return fetch(uploads + "/" + session.id).then(json).then(function(status) {
+					var next = Promise.resolve();
+					for (var i = 0; i < session.chunkCount; i++) {
+						if (status.received.indexOf(i) < 0) {
+							next = next.then(sendChunk.bind(null, file, session, i));
+						}
+					}
+					return next;
+				}).catch(function(error) {
+					if (error.retry === false || attempt + 1 >= maxAttempts) {
+						throw error;
+					}
+					return delay(1000 * Math.pow(2, attempt)).then(function() {
+						return sendChunks(file, session, attempt + 1);
+					});
+				});
+			}
+
+			function upload(file) {
+				var params = new URLSearchParams({ name : file.name, size : file.size });
+				return fetch(uploads, { method : "POST", body : params }).then(json).then(function(session) {
+					return sendChunks(file, session, 0).then(function() { return session.id; }, function(error) {
+						// Free the session, the next attempt starts a new one
+						fetch(uploads + "/" + session.id, { method : "DELETE" });
+						throw error;
+					});
+				});
+			}
+
+			fileInput.addEventListener("change", function() {
+				fileInput.setCustomValidity("");
+				uploadInput.value = "";
+			});
+
+			form.addEventListener("submit", function(event) {
+				var file = fileInput.files[0];
+				if (!file || !window.fetch || !file.arrayBuffer || uploadInput.value) {
+					return;
+				}
+				event.preventDefault();
+				button.disabled = true;
+				upload(file).then(function(id) {
+					uploadInput.value = id;
+					// The photo is on the server; post the form without it
+					fileInput.disabled = true;
+					form.submit();
+				}).catch(function(error) {
+					button.disabled = false;
+					fileInput.setCustomValidity(error.message);
+					fileInput.reportValidity();
+				});
+			});
+		})();
+	</script>
 </body>
 </html>